@@ -0,0 +1,122 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client.impl;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wildfly.management.client.OperationStreamAttachments;
+
+/**
+ * Time to copy a file attachment into the attachment stream, comparing the previous {@code FileInputStream} copy
+ * with the {@code FileChannel} based transfer of {@code FileStreamAttachment}. The target discards the data, so the
+ * benchmark measures the client side copy only.
+ * <p/>
+ * The archive is written to {@code java.io.tmpdir}, make sure there is enough space for the largest size.
+ *
+ * @author Emanuel Muckenhuber
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AttachmentTransferBenchmark {
+
+    @Param({"10", "100", "1024", "2048"})
+    public int sizeInMB;
+
+    private File file;
+    private OperationStreamAttachments.OperationStreamAttachment attachment;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = File.createTempFile("attachment-benchmark", ".bin");
+        final RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            // Sparse file, the page cache is warmed up by the warmup iterations
+            raf.setLength(sizeInMB * 1024L * 1024L);
+        } finally {
+            raf.close();
+        }
+        attachment = OperationStreamAttachments.Builder.create(file).build().getAttachment(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public long inputStreamCopy() throws IOException {
+        final DiscardingOutputStream target = new DiscardingOutputStream();
+        final FileInputStream is = new FileInputStream(file);
+        try {
+            StreamUtils.copyStream(is, new FixedLengthOutputStream(target, file.length()));
+        } finally {
+            StreamUtils.safeClose(is);
+        }
+        return target.count;
+    }
+
+    @Benchmark
+    public long fileChannelCopy() throws IOException {
+        final DiscardingOutputStream target = new DiscardingOutputStream();
+        attachment.writeTo(new FixedLengthOutputStream(target, attachment.size()));
+        return target.count;
+    }
+
+    static final class DiscardingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client.impl;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Throughput of a single shared management connection with 1 to 64 concurrent callers, as well as a single caller
+ * pipelining a window of asynchronous requests.
+ *
+ * @author Emanuel Muckenhuber
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class ConcurrentExecuteBenchmark {
+
+    @Benchmark
+    @Threads(1)
+    public ModelNode callers01(final LoopbackState state) throws IOException {
+        return state.connection.execute(state.operation);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ModelNode callers04(final LoopbackState state) throws IOException {
+        return state.connection.execute(state.operation);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public ModelNode callers16(final LoopbackState state) throws IOException {
+        return state.connection.execute(state.operation);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public ModelNode callers64(final LoopbackState state) throws IOException {
+        return state.connection.execute(state.operation);
+    }
+
+    @Benchmark
+    @Threads(1)
+    @OperationsPerInvocation(Window.SIZE)
+    public void pipelined(final LoopbackState state, final Window window, final Blackhole blackhole) throws IOException, InterruptedException, ExecutionException {
+        final Future<ModelNode>[] futures = window.futures;
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = state.connection.executeAsync(state.operation);
+        }
+        for (int i = 0; i < futures.length; i++) {
+            blackhole.consume(futures[i].get());
+            futures[i] = null;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Window {
+
+        static final int SIZE = 64;
+
+        Future<ModelNode>[] futures;
+
+        @Setup(Level.Trial)
+        @SuppressWarnings("unchecked")
+        public void setUp() {
+            futures = new Future[SIZE];
+        }
+    }
+
+}
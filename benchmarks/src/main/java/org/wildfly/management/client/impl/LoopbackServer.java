@@ -0,0 +1,252 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client.impl;
+
+import static org.wildfly.management.client.helpers.ClientConstants.OP;
+import static org.wildfly.management.client.helpers.ClientConstants.OUTCOME;
+import static org.wildfly.management.client.helpers.ClientConstants.RESULT;
+import static org.wildfly.management.client.helpers.ClientConstants.SUCCESS;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.remoting3.Channel;
+import org.jboss.remoting3.Endpoint;
+import org.jboss.remoting3.MessageOutputStream;
+import org.jboss.remoting3.OpenListener;
+import org.jboss.remoting3.Registration;
+import org.jboss.remoting3.Remoting;
+import org.jboss.remoting3.remote.RemoteConnectionProviderFactory;
+import org.jboss.remoting3.security.SimpleServerAuthenticationProvider;
+import org.jboss.remoting3.spi.NetworkServerProvider;
+import org.wildfly.management.client.ManagementClient;
+import org.wildfly.management.client.ManagementClientOptions;
+import org.wildfly.management.client.ManagementConnection;
+import org.xnio.OptionMap;
+import org.xnio.Options;
+import org.xnio.Sequence;
+import org.xnio.Xnio;
+import org.xnio.channels.AcceptingChannel;
+import org.xnio.channels.ConnectedStreamChannel;
+
+/**
+ * In-VM management endpoint answering execute requests with canned responses. The server and the client share a
+ * single remoting endpoint and talk over the loopback interface, the same way the unit tests drive the
+ * {@code TestServer}.
+ * <p/>
+ * Responses are serialized once when registered, so the measured cost is dominated by the client side.
+ *
+ * @author Emanuel Muckenhuber
+ */
+class LoopbackServer extends ManagementClientChannelReceiver implements OpenListener, Closeable {
+
+    static final int PORT = SecurityActions.getSystemProperty("org.wildfly.management.client.benchmark.port", 19990);
+
+    private final ConcurrentMap<String, byte[]> responses = new ConcurrentHashMap<>();
+    private final ExecutorService executorService = Executors.newCachedThreadPool();
+
+    private Endpoint endpoint;
+    private Registration registration;
+    private AcceptingChannel<? extends ConnectedStreamChannel> streamServer;
+    private ManagementClient client;
+
+    /**
+     * Start the endpoint, the network server and register the management service.
+     *
+     * @throws IOException
+     */
+    void start() throws IOException {
+        boolean ok = false;
+        try {
+            endpoint = Remoting.createEndpoint("benchmark-endpoint", Xnio.getInstance(), OptionMap.EMPTY);
+            endpoint.addConnectionProvider("remote", new RemoteConnectionProviderFactory(), OptionMap.create(Options.SSL_ENABLED, Boolean.FALSE));
+
+            final NetworkServerProvider networkServerProvider = endpoint.getConnectionProviderInterface("remote", NetworkServerProvider.class);
+            final SimpleServerAuthenticationProvider provider = new SimpleServerAuthenticationProvider();
+            final OptionMap options = OptionMap.create(Options.SASL_MECHANISMS, Sequence.of("ANONYMOUS"), Options.SASL_POLICY_NOANONYMOUS, Boolean.FALSE);
+            streamServer = networkServerProvider.createServer(new InetSocketAddress("localhost", PORT), options, provider, null);
+            registration = endpoint.registerService(ManagementClientDefaults.CHANNEL_TYPE, this, OptionMap.EMPTY);
+
+            client = ManagementClientFactoryImpl.createClient(endpoint, OptionMap.EMPTY, executorService);
+            ok = true;
+        } finally {
+            if (!ok) {
+                close();
+            }
+        }
+    }
+
+    /**
+     * Open a new management connection to this server.
+     *
+     * @param options the connection options
+     * @return the management connection
+     * @throws IOException
+     */
+    ManagementConnection openConnection(final OptionMap options) throws IOException {
+        final OptionMap actual = OptionMap.builder().addAll(options).set(ManagementClientOptions.PROTOCOL, "remote").getMap();
+        try {
+            return client.openConnection("localhost", PORT, actual).get();
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Register the response for a given operation name.
+     *
+     * @param operationName the operation name
+     * @param response      the response
+     * @throws IOException
+     */
+    void setResponse(final String operationName, final ModelNode response) throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        final DataOutputStream dos = new DataOutputStream(bos);
+        response.writeExternal(dos);
+        dos.close();
+        responses.put(operationName, bos.toByteArray());
+    }
+
+    @Override
+    public void channelOpened(final Channel channel) {
+        channel.receiveMessage(this);
+    }
+
+    @Override
+    public void registrationTerminated() {
+        //
+    }
+
+    @Override
+    protected void handleMessage(final Channel channel, final DataInput input, final ManagementProtocolHeader header) {
+        if (header.getType() != ManagementProtocol.TYPE_REQUEST) {
+            return;
+        }
+        final ManagementRequestHeader request = (ManagementRequestHeader) header;
+        try {
+            switch (request.getOperationId()) {
+                case ManagementProtocol.EXECUTE_ASYNC_CLIENT_REQUEST: {
+                    StreamUtils.expectHeader(input, ManagementProtocol.PARAM_OPERATION);
+                    final ModelNode operation = new ModelNode();
+                    operation.readExternal(input);
+                    final byte[] response = responses.get(operation.get(OP).asString());
+                    if (response == null) {
+                        writeErrorResponse(channel, request, new IOException("no response registered for " + operation.get(OP)));
+                        break;
+                    }
+                    // Write large responses without blocking the receive thread
+                    executorService.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                writeResponse(channel, request, response);
+                            } catch (IOException e) {
+                                safeWriteErrorResponse(channel, request, e);
+                            }
+                        }
+                    });
+                    break;
+                }
+                case ManagementProtocol.CANCEL_ASYNC_REQUEST:
+                    writeEmptyResponse(channel, request);
+                    break;
+                default:
+                    writeErrorResponse(channel, request, new IOException("unsupported operation " + request.getOperationId()));
+            }
+        } catch (IOException e) {
+            safeWriteErrorResponse(channel, request, e);
+        }
+    }
+
+    @Override
+    protected Channel.Receiver next() {
+        return this;
+    }
+
+    @Override
+    public void close() {
+        StreamUtils.safeClose(client);
+        StreamUtils.safeClose(registration);
+        StreamUtils.safeClose(streamServer);
+        StreamUtils.safeClose(endpoint);
+        executorService.shutdownNow();
+    }
+
+    static void writeResponse(final Channel channel, final ManagementRequestHeader request, final byte[] response) throws IOException {
+        final ManagementResponseHeader header = ManagementResponseHeader.create(request);
+        final MessageOutputStream os = channel.writeMessage();
+        try {
+            final DataOutputStream output = new DataOutputStream(os);
+            header.write(output);
+            output.write(ManagementProtocol.PARAM_RESPONSE);
+            output.write(response);
+            output.write(ManagementProtocol.RESPONSE_END);
+            output.close();
+        } finally {
+            StreamUtils.safeClose(os);
+        }
+    }
+
+    /**
+     * Create a successful response.
+     *
+     * @param result the operation result
+     * @return the response
+     */
+    static ModelNode createSuccessResponse(final ModelNode result) {
+        final ModelNode response = new ModelNode();
+        response.get(OUTCOME).set(SUCCESS);
+        response.get(RESULT).set(result);
+        return response;
+    }
+
+    /**
+     * Create a {@code read-resource(recursive=true)} like result.
+     *
+     * @param resources  the number of child resources
+     * @param attributes the number of attributes per resource
+     * @return the resource model
+     */
+    static ModelNode createResourceTree(final int resources, final int attributes) {
+        final ModelNode model = new ModelNode();
+        model.get("name").set("benchmark");
+        final ModelNode children = model.get("resource").setEmptyObject();
+        for (int i = 0; i < resources; i++) {
+            final ModelNode child = children.get("resource-" + i);
+            for (int j = 0; j < attributes; j++) {
+                child.get("attribute-" + j).set("value-" + i + "-" + j);
+            }
+        }
+        return model;
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client.impl;
+
+import static org.wildfly.management.client.helpers.ClientConstants.READ_ATTRIBUTE_OPERATION;
+import static org.wildfly.management.client.helpers.ClientConstants.READ_RESOURCE_OPERATION;
+
+import java.io.IOException;
+
+import org.jboss.dmr.ModelNode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.wildfly.management.client.ManagementConnection;
+import org.wildfly.management.client.helpers.Operations;
+import org.xnio.OptionMap;
+
+/**
+ * Shared benchmark state, starting a {@link LoopbackServer} and opening a single management connection per trial.
+ *
+ * @author Emanuel Muckenhuber
+ */
+@State(Scope.Benchmark)
+public class LoopbackState {
+
+    /**
+     * The response payloads, from a tiny {@code read-attribute} up to a multi-MB {@code read-resource} result.
+     */
+    public enum Payload {
+
+        READ_ATTRIBUTE(0, 0),
+        READ_RESOURCE_SMALL(16, 8),         // ~4 KB
+        READ_RESOURCE_LARGE(256, 32),       // ~256 KB
+        READ_RESOURCE_HUGE(4096, 32),       // ~4 MB
+        ;
+
+        private final int resources;
+        private final int attributes;
+
+        Payload(int resources, int attributes) {
+            this.resources = resources;
+            this.attributes = attributes;
+        }
+
+        ModelNode createOperation() {
+            final ModelNode address = new ModelNode().add("subsystem", "benchmark");
+            if (resources == 0) {
+                return Operations.createReadAttributeOperation(address, "name");
+            }
+            return Operations.createReadResourceOperation(address, true);
+        }
+
+        ModelNode createResponse() {
+            if (resources == 0) {
+                return LoopbackServer.createSuccessResponse(new ModelNode("benchmark"));
+            }
+            return LoopbackServer.createSuccessResponse(LoopbackServer.createResourceTree(resources, attributes));
+        }
+
+        String getOperationName() {
+            return resources == 0 ? READ_ATTRIBUTE_OPERATION : READ_RESOURCE_OPERATION;
+        }
+    }
+
+    @Param
+    public Payload payload;
+
+    LoopbackServer server;
+    ManagementConnection connection;
+    ModelNode operation;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = new LoopbackServer();
+        server.start();
+        server.setResponse(payload.getOperationName(), payload.createResponse());
+        connection = server.openConnection(getConnectionOptions());
+        operation = payload.createOperation();
+        operation.protect();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        StreamUtils.safeClose(connection);
+        StreamUtils.safeClose(server);
+    }
+
+    /**
+     * Get the options used to open the benchmark connection.
+     *
+     * @return the connection options
+     */
+    protected OptionMap getConnectionOptions() {
+        return OptionMap.EMPTY;
+    }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wildfly.management.client.OperationTemplate;
+import org.wildfly.management.client.helpers.ClientConstants;
+import org.wildfly.management.client.helpers.Operations;
+
+/**
+ * Encoding cost of a {@code write-attribute} operation with headers, serializing the {@code ModelNode} compared to
+ * an {@link OperationTemplate} with the address and value as parameters.
+ * <p/>
+ * Run with {@code -prof gc} to compare the allocation rate.
+ *
+ * @author Emanuel Muckenhuber
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class OperationEncodeBenchmark {
+
+    @State(Scope.Thread)
+    public static class Operation {
+
+        final ModelNode address = new ModelNode().add("subsystem", "logging").add("logger", "org.wildfly");
+        final ModelNode value = new ModelNode("DEBUG");
+        final ModelNode operation;
+        final OperationTemplate template;
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        final DataOutputStream output = new DataOutputStream(bytes);
+
+        public Operation() {
+            final ModelNode operation = Operations.createWriteAttributeOperation(address, "level", value);
+            operation.get(ClientConstants.OPERATION_HEADERS, "rollback-on-runtime-failure").set(false);
+            operation.get(ClientConstants.OPERATION_HEADERS, "blocking-timeout").set(30);
+            this.operation = operation;
+            this.template = OperationTemplate.create(operation, ClientConstants.OP_ADDR, ClientConstants.VALUE);
+        }
+    }
+
+    @Benchmark
+    public int modelNode(final Operation state) throws IOException {
+        state.bytes.reset();
+        final ModelNode operation = state.operation.clone();
+        operation.get(ClientConstants.OP_ADDR).set(state.address);
+        operation.get(ClientConstants.VALUE).set(state.value);
+        operation.writeExternal(state.output);
+        return state.bytes.size();
+    }
+
+    @Benchmark
+    public int template(final Operation state) throws IOException {
+        state.bytes.reset();
+        state.template.writeExternal(state.output, state.address, state.value);
+        return state.bytes.size();
+    }
+
+}
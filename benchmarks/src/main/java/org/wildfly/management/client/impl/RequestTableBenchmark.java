@@ -0,0 +1,215 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client.impl;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wildfly.management.client.OperationStreamAttachments;
+
+/**
+ * Register, lookup and remove cycle of the in-flight request table, compared to the previously used
+ * {@code ConcurrentHashMap}. Each thread keeps {@code inFlight / threads} requests outstanding and replaces the
+ * oldest one per invocation, the way responses complete on a busy connection.
+ * <p/>
+ * Run with {@code -prof gc} to compare the allocation rate.
+ *
+ * @author Emanuel Muckenhuber
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@Threads(8)
+public class RequestTableBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Requests {
+
+        @Param({"TABLE", "MAP"})
+        public String impl;
+
+        @Param({"1024", "16384"})
+        public int inFlight;
+
+        final AtomicInteger counter = new AtomicInteger();
+        RequestRegistry registry;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            registry = "TABLE".equals(impl) ? new TableRegistry() : new MapRegistry();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Window {
+
+        BenchmarkRequest[] requests;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp(final Requests state) {
+            // Pre-allocate the requests, to only measure the table
+            requests = new BenchmarkRequest[Math.max(1, state.inFlight / 8)];
+            for (int i = 0; i < requests.length; i++) {
+                requests[i] = new BenchmarkRequest();
+                register(state, requests[i]);
+            }
+        }
+    }
+
+    @Benchmark
+    public ManagementRequest registerLookupRemove(final Requests state, final Window window) {
+        final BenchmarkRequest request = window.requests[window.next];
+        window.next = (window.next + 1) % window.requests.length;
+        state.registry.remove(request.id);
+        register(state, request);
+        return state.registry.get(request.id);
+    }
+
+    static void register(final Requests state, final BenchmarkRequest request) {
+        do {
+            request.id = state.counter.incrementAndGet();
+        } while (!state.registry.register(request));
+    }
+
+    interface RequestRegistry {
+
+        boolean register(ManagementRequest request);
+
+        ManagementRequest get(int id);
+
+        ManagementRequest remove(int id);
+
+    }
+
+    static final class TableRegistry implements RequestRegistry {
+
+        private final ManagementRequestTable table = new ManagementRequestTable();
+
+        @Override
+        public boolean register(ManagementRequest request) {
+            return table.register(request);
+        }
+
+        @Override
+        public ManagementRequest get(int id) {
+            return table.get(id);
+        }
+
+        @Override
+        public ManagementRequest remove(int id) {
+            return table.remove(id);
+        }
+    }
+
+    static final class MapRegistry implements RequestRegistry {
+
+        private final ConcurrentMap<Integer, ManagementRequest> map = new ConcurrentHashMap<>(16, 0.75f, Runtime.getRuntime().availableProcessors());
+
+        @Override
+        public boolean register(ManagementRequest request) {
+            return map.putIfAbsent(request.getRequestId(), request) == null;
+        }
+
+        @Override
+        public ManagementRequest get(int id) {
+            return map.get(id);
+        }
+
+        @Override
+        public ManagementRequest remove(int id) {
+            return map.remove(id);
+        }
+    }
+
+    static final class BenchmarkRequest implements ManagementRequest {
+
+        volatile int id;
+
+        @Override
+        public OperationStreamAttachments getAttachments() {
+            return OperationStreamAttachments.NO_ATTACHMENTS;
+        }
+
+        @Override
+        public int getRequestId() {
+            return id;
+        }
+
+        @Override
+        public int getOperationId() {
+            return id;
+        }
+
+        @Override
+        public byte getRequestType() {
+            return ManagementProtocol.EXECUTE_ASYNC_CLIENT_REQUEST;
+        }
+
+        @Override
+        public RequestHandler getRequestHandler() {
+            return null;
+        }
+
+        @Override
+        public void writeRequest(DataOutput output) throws IOException {
+            //
+        }
+
+        @Override
+        public void handleResponse(ManagementResponseHeader header, DataInput input) throws IOException {
+            //
+        }
+
+        @Override
+        public void handleFailure(IOException exception) {
+            //
+        }
+
+        @Override
+        public void asyncCancel() {
+            //
+        }
+    }
+
+}
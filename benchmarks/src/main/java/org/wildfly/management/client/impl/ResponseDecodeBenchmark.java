@@ -0,0 +1,99 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wildfly.management.client.ResponseProjection;
+
+/**
+ * Decoding cost of a large {@code read-resource} style response, reading the full tree compared to reading only
+ * {@code outcome} and a single attribute per child.
+ * <p/>
+ * Run with {@code -prof gc} to compare the allocation rate.
+ *
+ * @author Emanuel Muckenhuber
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class ResponseDecodeBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Response {
+
+        @Param({"100", "10000"})
+        public int children;
+
+        byte[] bytes;
+        final ResponseDecoder<ModelNode> projection = new ProjectionDecoder(ResponseProjection.of("outcome", "result.child.*.name"));
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            final ModelNode response = new ModelNode();
+            response.get("outcome").set("success");
+            for (int i = 0; i < children; i++) {
+                final ModelNode child = response.get("result", "child", "child-" + i);
+                child.get("name").set("child-" + i);
+                child.get("enabled").set(true);
+                child.get("count").set((long) i);
+                child.get("description").set("some description of child " + i);
+                child.get("properties").add("a", "b").add("c", "d");
+            }
+            final ByteArrayOutputStream os = new ByteArrayOutputStream();
+            response.writeExternal(new DataOutputStream(os));
+            bytes = os.toByteArray();
+        }
+    }
+
+    @Benchmark
+    public ModelNode full(final Response response) throws IOException {
+        return ResponseDecoder.MODEL_NODE.decode(new DataInputStream(new ByteArrayInputStream(response.bytes)));
+    }
+
+    @Benchmark
+    public ModelNode projected(final Response response) throws IOException {
+        return response.projection.decode(new DataInputStream(new ByteArrayInputStream(response.bytes)));
+    }
+
+}
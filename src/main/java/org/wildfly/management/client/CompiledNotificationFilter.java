@@ -0,0 +1,266 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client;
+
+import static org.wildfly.management.client._private.ManagementClientMessages.MESSAGES;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
+
+/**
+ * A declarative {@link NotificationFilter}. Unlike an opaque filter, the notification types and address patterns
+ * are known upfront, which allows the client to index registered handlers and only test the filters of handlers
+ * which can possibly match a notification.
+ *
+ * <pre>
+ * NotificationFilter filter = CompiledNotificationFilter.Builder.create()
+ *         .types("attribute-value-written")
+ *         .address(new ModelNode().add("subsystem", "*"))
+ *         .build();
+ * </pre>
+ *
+ * @author Emanuel Muckenhuber
+ */
+public final class CompiledNotificationFilter implements NotificationFilter {
+
+    /**
+     * Address element value matching any value.
+     */
+    public static final String WILDCARD = "*";
+
+    private final Set<String> types;
+    private final List<List<Property>> addressPatterns;
+    private final Map<String, ModelNode> dataValues;
+
+    private CompiledNotificationFilter(final Builder builder) {
+        this.types = Collections.unmodifiableSet(new LinkedHashSet<>(builder.types));
+        this.addressPatterns = Collections.unmodifiableList(new ArrayList<>(builder.addressPatterns));
+        this.dataValues = Collections.unmodifiableMap(new LinkedHashMap<>(builder.dataValues));
+    }
+
+    /**
+     * Get the accepted notification types.
+     *
+     * @return the types, empty if any type is accepted
+     */
+    public Set<String> getTypes() {
+        return types;
+    }
+
+    /**
+     * Get the accepted address patterns. Each pattern is a list of address elements, where the value can be
+     * {@link #WILDCARD}.
+     *
+     * @return the address patterns, empty if any address is accepted
+     */
+    public List<List<Property>> getAddressPatterns() {
+        return addressPatterns;
+    }
+
+    /**
+     * Whether the filter has predicates on the notification data.
+     *
+     * @return {@code true} if the data needs to be tested, {@code false} otherwise
+     */
+    public boolean hasDataPredicates() {
+        return !dataValues.isEmpty();
+    }
+
+    @Override
+    public boolean isNotificationEnabled(final Notification notification) {
+        return matchesTypeAndAddress(notification) && matchesData(notification);
+    }
+
+    /**
+     * Test only the type and the address of a notification, without accessing its data.
+     *
+     * @param notification the notification
+     * @return {@code true} if the type and address are accepted, {@code false} otherwise
+     */
+    public boolean matchesTypeAndAddress(final Notification notification) {
+        if (!types.isEmpty() && !types.contains(notification.getType())) {
+            return false;
+        }
+        return addressPatterns.isEmpty() || matchesAddress(notification.getResource());
+    }
+
+    /**
+     * Test only the data predicates of a notification.
+     *
+     * @param notification the notification
+     * @return {@code true} if the data is accepted, {@code false} otherwise
+     */
+    public boolean matchesData(final Notification notification) {
+        if (dataValues.isEmpty()) {
+            return true;
+        }
+        final ModelNode data = notification.getData();
+        if (data == null) {
+            return false;
+        }
+        for (final Map.Entry<String, ModelNode> entry : dataValues.entrySet()) {
+            if (!data.has(entry.getKey())) {
+                return false;
+            }
+            final ModelNode expected = entry.getValue();
+            if (expected == null ? !data.hasDefined(entry.getKey()) : !expected.equals(data.get(entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean matchesAddress(final ModelNode resource) {
+        final List<Property> address = toAddress(resource);
+        for (final List<Property> pattern : addressPatterns) {
+            if (matches(pattern, address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(final List<Property> pattern, final List<Property> address) {
+        if (pattern.size() != address.size()) {
+            return false;
+        }
+        for (int i = 0; i < pattern.size(); i++) {
+            final Property element = pattern.get(i);
+            final Property actual = address.get(i);
+            if (!element.getName().equals(actual.getName())) {
+                return false;
+            }
+            final String value = element.getValue().asString();
+            if (!WILDCARD.equals(value) && !value.equals(actual.getValue().asString())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Convert a resource address into its elements.
+     *
+     * @param resource the resource address
+     * @return the address elements
+     */
+    public static List<Property> toAddress(final ModelNode resource) {
+        if (resource == null || !resource.isDefined()) {
+            return Collections.emptyList();
+        }
+        return resource.asPropertyList();
+    }
+
+    public static class Builder {
+
+        private final Set<String> types = new LinkedHashSet<>();
+        private final List<List<Property>> addressPatterns = new ArrayList<>();
+        private final Map<String, ModelNode> dataValues = new LinkedHashMap<>();
+
+        private Builder() {
+            //
+        }
+
+        public static Builder create() {
+            return new Builder();
+        }
+
+        /**
+         * Accept notifications of the given types. Without types any notification type is accepted.
+         *
+         * @param types the notification types
+         * @return the builder
+         */
+        public Builder types(final String... types) {
+            for (final String type : types) {
+                if (type == null) {
+                    throw MESSAGES.nullVar("type");
+                }
+                this.types.add(type);
+            }
+            return this;
+        }
+
+        /**
+         * Accept notifications emitted by resources matching the address pattern. The value of an address element
+         * can be {@link CompiledNotificationFilter#WILDCARD}. Multiple patterns match if any of them matches, without
+         * patterns any address is accepted.
+         *
+         * @param pattern the address pattern
+         * @return the builder
+         */
+        public Builder address(final ModelNode pattern) {
+            if (pattern == null) {
+                throw MESSAGES.nullVar("pattern");
+            }
+            addressPatterns.add(Collections.unmodifiableList(new ArrayList<>(toAddress(pattern))));
+            return this;
+        }
+
+        /**
+         * Accept only notifications where the data field equals the given value.
+         *
+         * @param field the data field name
+         * @param value the expected value
+         * @return the builder
+         */
+        public Builder dataEquals(final String field, final ModelNode value) {
+            if (field == null) {
+                throw MESSAGES.nullVar("field");
+            }
+            if (value == null) {
+                throw MESSAGES.nullVar("value");
+            }
+            dataValues.put(field, value.clone());
+            return this;
+        }
+
+        /**
+         * Accept only notifications where the data field is defined.
+         *
+         * @param field the data field name
+         * @return the builder
+         */
+        public Builder dataDefined(final String field) {
+            if (field == null) {
+                throw MESSAGES.nullVar("field");
+            }
+            dataValues.put(field, null);
+            return this;
+        }
+
+        public CompiledNotificationFilter build() {
+            return new CompiledNotificationFilter(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,47 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client;
+
+/**
+ * The executor created by the client to handle attachment uploads, notification delivery and completion of
+ * asynchronous requests. Has no effect if the client is created with an existing executor.
+ *
+ * @author Emanuel Muckenhuber
+ */
+public enum ExecutorStrategy {
+
+    /**
+     * A thread pool starting new threads up to {@link ManagementClientOptions#MAX_THREADS} before queueing tasks.
+     * Idle threads are stopped after 60 seconds.
+     */
+    BOUNDED,
+    /**
+     * A work stealing pool with a parallelism of {@link ManagementClientOptions#MAX_THREADS}.
+     */
+    FORK_JOIN,
+    /**
+     * A new virtual thread per task. Falls back to {@link #BOUNDED} if the JVM does not support virtual threads.
+     */
+    VIRTUAL_THREADS
+
+}
@@ -0,0 +1,53 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client;
+
+import java.net.InetSocketAddress;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Receives the per target results of {@link ManagementClient#executeFanOut}, as they complete. The handler is called
+ * for one target at a time, but not necessarily from the same thread.
+ *
+ * @author Emanuel Muckenhuber
+ */
+public interface FanOutHandler {
+
+    /**
+     * Handle the result of the operation on a target. A failed operation outcome is a result as well.
+     *
+     * @param target the target
+     * @param result the result of the operation
+     */
+    void handleResult(InetSocketAddress target, ModelNode result);
+
+    /**
+     * Handle a target which could not be connected to, or did not respond before the deadline.
+     *
+     * @param target the target
+     * @param cause  the failure cause, a {@link java.util.concurrent.TimeoutException} if the deadline passed
+     */
+    void handleFailure(InetSocketAddress target, Exception cause);
+
+}
@@ -26,8 +26,12 @@ import javax.net.ssl.SSLContext;
 import javax.security.auth.callback.CallbackHandler;
 import java.io.Closeable;
 import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Collection;
 import java.util.concurrent.Future;
 
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
 import org.xnio.OptionMap;
 
 /**
@@ -95,6 +99,55 @@ public interface ManagementClient extends Closeable {
      */
     Future<ManagementConnection> openConnection(String host, int port, CallbackHandler callbackHandler, SSLContext sslContext, OptionMap options) throws IOException;
 
+    /**
+     * Borrow a pooled management connection. Connections are pooled per protocol, host, port, callback handler,
+     * ssl context and connection options. Closing the returned connection hands it back to the pool, rather than closing the underlying
+     * connection.
+     *
+     * @param host    the host
+     * @param port    the port
+     * @param options the options
+     * @return the connection future
+     * @throws IOException
+     */
+    Future<ManagementConnection> openPooledConnection(String host, int port, OptionMap options) throws IOException;
+
+    /**
+     * Borrow a pooled management connection. Connections are pooled per protocol, host, port, callback handler,
+     * ssl context and connection options. Closing the returned connection hands it back to the pool, rather than closing the underlying
+     * connection.
+     *
+     * @param host            the host
+     * @param port            the port
+     * @param callbackHandler the callback handler
+     * @param sslContext      the ssl context
+     * @param options         the options
+     * @return the connection future
+     * @throws IOException
+     */
+    Future<ManagementConnection> openPooledConnection(String host, int port, CallbackHandler callbackHandler, SSLContext sslContext, OptionMap options) throws IOException;
+
+    /**
+     * Execute an operation on many targets concurrently, using pooled connections. At most
+     * {@link ManagementClientOptions#FAN_OUT_PARALLELISM} targets are in progress at a time, and each target has to
+     * respond within {@link ManagementClientOptions#FAN_OUT_TIMEOUT}, including connecting.
+     *
+     * @param targets   the targets
+     * @param operation the operation to execute
+     * @param options   the fan out and connection options
+     * @param handler   the handler receiving the results as they complete
+     * @return a future completing once all targets completed, cancelling it skips the remaining targets
+     * @throws IOException if the client is closed
+     */
+    AsyncFuture<Void> executeFanOut(Collection<InetSocketAddress> targets, ModelNode operation, OptionMap options, FanOutHandler handler) throws IOException;
+
+    /**
+     * Get the metrics of the executor used by this client.
+     *
+     * @return the executor metrics
+     */
+    ExecutorMetrics getExecutorMetrics();
+
     /**
      * Wait for a resource close to complete.
      *
@@ -37,4 +37,86 @@ public final class ManagementClientOptions {
     public static final Option<Integer> CONNECTION_TIMEOUT = Option.simple(ManagementClientOptions.class, "CONNECTION_TIMEOUT", Integer.class);
     public static final Option<String> CLIENT_BIND_ADDRESS = Option.simple(ManagementClientOptions.class, "CLIENT_BIND_ADDRESS", String.class);
 
+    /**
+     * The maximum number of pooled connections per target, including connections currently borrowed.
+     */
+    public static final Option<Integer> POOL_MAX_CONNECTIONS_PER_TARGET = Option.simple(ManagementClientOptions.class, "POOL_MAX_CONNECTIONS_PER_TARGET", Integer.class);
+    /**
+     * The time in milliseconds after which an idle pooled connection gets closed.
+     */
+    public static final Option<Integer> POOL_IDLE_TIMEOUT = Option.simple(ManagementClientOptions.class, "POOL_IDLE_TIMEOUT", Integer.class);
+    /**
+     * The number of management channels opened per connection. Requests are distributed across the channels based
+     * on the number of in-flight requests, so that large requests don't block smaller ones.
+     */
+    public static final Option<Integer> CHANNEL_STRIPES = Option.simple(ManagementClientOptions.class, "CHANNEL_STRIPES", Integer.class);
+    /**
+     * The maximum number of operations packed into a single composite operation by {@code executeBatch()}.
+     */
+    public static final Option<Integer> BATCH_MAX_STEPS = Option.simple(ManagementClientOptions.class, "BATCH_MAX_STEPS", Integer.class);
+    /**
+     * The maximum estimated size in bytes of a single composite operation created by {@code executeBatch()}.
+     */
+    public static final Option<Integer> BATCH_MAX_SIZE = Option.simple(ManagementClientOptions.class, "BATCH_MAX_SIZE", Integer.class);
+    /**
+     * Coalesce concurrently submitted requests, writing them back-to-back from a single thread rather than having
+     * every caller contend for the channel.
+     */
+    public static final Option<Boolean> WRITE_COALESCING = Option.simple(ManagementClientOptions.class, "WRITE_COALESCING", Boolean.class);
+    /**
+     * The number of bytes a caller writes on behalf of others, before handing off the remaining requests to the executor.
+     */
+    public static final Option<Integer> WRITE_COALESCING_THRESHOLD = Option.simple(ManagementClientOptions.class, "WRITE_COALESCING_THRESHOLD", Integer.class);
+    /**
+     * Always send attachments as a sequence of chunks with a 64-bit total length. Attachments larger than 2GB are
+     * always chunked, smaller ones only if this option is set.
+     */
+    public static final Option<Boolean> CHUNKED_ATTACHMENTS = Option.simple(ManagementClientOptions.class, "CHUNKED_ATTACHMENTS", Boolean.class);
+    /**
+     * The maximum number of notifications queued for delivery per registered notification handler.
+     */
+    public static final Option<Integer> NOTIFICATION_QUEUE_SIZE = Option.simple(ManagementClientOptions.class, "NOTIFICATION_QUEUE_SIZE", Integer.class);
+    /**
+     * The behavior once the notification queue of a handler is full, {@link NotificationOverflowPolicy#DROP_OLDEST} by
+     * default.
+     */
+    public static final Option<NotificationOverflowPolicy> NOTIFICATION_OVERFLOW_POLICY = Option.simple(ManagementClientOptions.class, "NOTIFICATION_OVERFLOW_POLICY", NotificationOverflowPolicy.class);
+    /**
+     * The executor created by the client, {@link ExecutorStrategy#BOUNDED} by default.
+     */
+    public static final Option<ExecutorStrategy> EXECUTOR_STRATEGY = Option.simple(ManagementClientOptions.class, "EXECUTOR_STRATEGY", ExecutorStrategy.class);
+    /**
+     * The maximum number of threads, or the parallelism, of the executor created by the client.
+     */
+    public static final Option<Integer> MAX_THREADS = Option.simple(ManagementClientOptions.class, "MAX_THREADS", Integer.class);
+    /**
+     * Share the remoting endpoint, including its I/O threads, with other clients created with the same options. The
+     * endpoint is closed once the last client using it is closed.
+     */
+    public static final Option<Boolean> SHARED_ENDPOINT = Option.simple(ManagementClientOptions.class, "SHARED_ENDPOINT", Boolean.class);
+    /**
+     * The maximum number of targets a fan out execution works on concurrently.
+     */
+    public static final Option<Integer> FAN_OUT_PARALLELISM = Option.simple(ManagementClientOptions.class, "FAN_OUT_PARALLELISM", Integer.class);
+    /**
+     * The time in milliseconds a single target of a fan out execution has to connect and respond.
+     */
+    public static final Option<Integer> FAN_OUT_TIMEOUT = Option.simple(ManagementClientOptions.class, "FAN_OUT_TIMEOUT", Integer.class);
+    /**
+     * The maximum number of requests a connection has in flight, unlimited by default. Once the limit is reached further
+     * executions block until a request completes, unless they use one of the {@code tryExecuteAsync} variants. Code
+     * running in a listener or notifier must not block, and should use those variants or hand off to an executor.
+     */
+    public static final Option<Integer> MAX_IN_FLIGHT_REQUESTS = Option.simple(ManagementClientOptions.class, "MAX_IN_FLIGHT_REQUESTS", Integer.class);
+    /**
+     * Admit executions waiting for an in-flight slot in the order they arrived, rather than to whichever thread
+     * happens to get there first.
+     */
+    public static final Option<Boolean> IN_FLIGHT_FAIR = Option.simple(ManagementClientOptions.class, "IN_FLIGHT_FAIR", Boolean.class);
+    /**
+     * The default time in milliseconds a request has to complete, before it fails and is cancelled on the server. Requests
+     * do not time out by default.
+     */
+    public static final Option<Integer> REQUEST_TIMEOUT = Option.simple(ManagementClientOptions.class, "REQUEST_TIMEOUT", Integer.class);
+
 }
@@ -24,9 +24,10 @@ package org.wildfly.management.client;
 
 import java.io.Closeable;
 import java.io.IOException;
-import java.util.concurrent.Future;
-
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
 
 /**
  * The management connection.
@@ -55,12 +56,39 @@ public interface ManagementConnection extends Closeable {
     ModelNode execute(ModelNode operation, OperationStreamAttachments attachments) throws IOException;
 
     /**
-     * Execute an operation asynchronously.
+     * Execute an operation asynchronously. Listeners added to the returned future are notified once the response is
+     * received, without blocking a thread per outstanding request. If the maximum number of requests is in flight, this
+     * blocks until one of them completes, so listeners of other requests should use one of the {@code tryExecuteAsync}
+     * variants instead.
      *
      * @param operation the operation to execute
      * @return the future result of the operation
      */
-    Future<ModelNode> executeAsync(ModelNode operation) throws IOException;
+    AsyncFuture<ModelNode> executeAsync(ModelNode operation) throws IOException;
+
+    /**
+     * Execute an operation asynchronously, only if the connection has not reached the maximum number of requests in
+     * flight. Unlike {@link #executeAsync(ModelNode)} this never waits for another request to complete.
+     *
+     * @param operation the operation to execute
+     * @return the future result of the operation, or {@code null} if the maximum number of requests is in flight
+     * @throws java.io.IOException if an I/O error occurs while executing the operation
+     * @see org.wildfly.management.client.ManagementClientOptions#MAX_IN_FLIGHT_REQUESTS
+     */
+    AsyncFuture<ModelNode> tryExecuteAsync(ModelNode operation) throws IOException;
+
+    /**
+     * Execute an operation asynchronously, waiting up to the given time for the number of requests in flight to drop
+     * below the maximum.
+     *
+     * @param operation the operation to execute
+     * @param timeout   the maximum time to wait
+     * @param unit      the time unit of the timeout
+     * @return the future result of the operation, or {@code null} if the time elapsed before the operation was admitted
+     * @throws java.io.InterruptedIOException if the thread is interrupted while waiting
+     * @throws java.io.IOException if an I/O error occurs while executing the operation
+     */
+    AsyncFuture<ModelNode> tryExecuteAsync(ModelNode operation, long timeout, TimeUnit unit) throws IOException;
 
     /**
      * Execute an operation asynchronously.
@@ -69,7 +97,127 @@ public interface ManagementConnection extends Closeable {
      * @param attachments the operation attachments
      * @return the future result of the operation
      */
-    Future<ModelNode> executeAsync(ModelNode operation, OperationStreamAttachments attachments) throws IOException;
+    AsyncFuture<ModelNode> executeAsync(ModelNode operation, OperationStreamAttachments attachments) throws IOException;
+
+    /**
+     * Execute an operation with attachments asynchronously, only if the connection has not reached the maximum number
+     * of requests in flight.
+     *
+     * @param operation   the operation to execute
+     * @param attachments the operation attachments
+     * @return the future result of the operation, or {@code null} if the maximum number of requests is in flight
+     * @throws java.io.IOException if an I/O error occurs while executing the operation
+     * @see #tryExecuteAsync(ModelNode)
+     */
+    AsyncFuture<ModelNode> tryExecuteAsync(ModelNode operation, OperationStreamAttachments attachments) throws IOException;
+
+    /**
+     * Execute an operation synchronously, failing if it does not complete in time. An operation which timed out is
+     * cancelled on the server.
+     *
+     * @param operation the operation to execute
+     * @param timeout   the time the operation has to complete
+     * @param unit      the time unit of the timeout
+     * @return the result of the operation
+     * @throws java.io.IOException if an I/O error occurs while executing the operation, or the operation timed out
+     */
+    ModelNode execute(ModelNode operation, long timeout, TimeUnit unit) throws IOException;
+
+    /**
+     * Execute an operation asynchronously, failing the returned future if it does not complete in time. An operation
+     * which timed out is cancelled on the server.
+     *
+     * @param operation the operation to execute
+     * @param timeout   the time the operation has to complete
+     * @param unit      the time unit of the timeout
+     * @return the future result of the operation
+     * @throws java.io.IOException if an I/O error occurs while executing the operation
+     */
+    AsyncFuture<ModelNode> executeAsync(ModelNode operation, long timeout, TimeUnit unit) throws IOException;
+
+    /**
+     * Execute an operation synchronously, decoding only the selected parts of the response.
+     *
+     * @param operation  the operation to execute
+     * @param projection the selected parts of the response
+     * @return the projected result of the operation
+     * @throws java.io.IOException if an I/O error occurs while executing the operation
+     */
+    ModelNode execute(ModelNode operation, ResponseProjection projection) throws IOException;
+
+    /**
+     * Execute an operation asynchronously, decoding only the selected parts of the response.
+     *
+     * @param operation  the operation to execute
+     * @param projection the selected parts of the response
+     * @return the future projected result of the operation
+     */
+    AsyncFuture<ModelNode> executeAsync(ModelNode operation, ResponseProjection projection) throws IOException;
+
+    /**
+     * Execute an operation template synchronously.
+     *
+     * @param template the operation template
+     * @param values   the parameter values, in the order the template parameters were declared
+     * @return the result of the operation
+     * @throws java.io.IOException if an I/O error occurs while executing the operation
+     */
+    ModelNode execute(OperationTemplate template, ModelNode... values) throws IOException;
+
+    /**
+     * Execute an operation template asynchronously.
+     *
+     * @param template the operation template
+     * @param values   the parameter values, in the order the template parameters were declared
+     * @return the future result of the operation
+     * @throws java.io.IOException if an I/O error occurs while executing the operation
+     */
+    AsyncFuture<ModelNode> executeAsync(OperationTemplate template, ModelNode... values) throws IOException;
+
+    /**
+     * Execute an operation template asynchronously, only if the connection has not reached the maximum number of
+     * requests in flight.
+     *
+     * @param template the operation template
+     * @param values   the parameter values, in the order the template parameters were declared
+     * @return the future result of the operation, or {@code null} if the maximum number of requests is in flight
+     * @throws java.io.IOException if an I/O error occurs while executing the operation
+     * @see #tryExecuteAsync(ModelNode)
+     */
+    AsyncFuture<ModelNode> tryExecuteAsync(OperationTemplate template, ModelNode... values) throws IOException;
+
+    /**
+     * Execute an operation, decoding the response incrementally. The result is passed to the handler while it is read,
+     * which keeps the memory use bounded for large responses.
+     *
+     * @param operation the operation to execute
+     * @param handler   the handler receiving the response
+     * @return the future result, as returned by {@link ModelNodeStreamHandler#complete()}
+     * @throws java.io.IOException if an I/O error occurs while executing the operation
+     */
+    <T> AsyncFuture<T> executeStreaming(ModelNode operation, ModelNodeStreamHandler<T> handler) throws IOException;
+
+    /**
+     * Execute an operation, decoding the response incrementally.
+     *
+     * @param operation   the operation to execute
+     * @param attachments the operation attachments
+     * @param handler     the handler receiving the response
+     * @return the future result, as returned by {@link ModelNodeStreamHandler#complete()}
+     * @throws java.io.IOException if an I/O error occurs while executing the operation
+     */
+    <T> AsyncFuture<T> executeStreaming(ModelNode operation, OperationStreamAttachments attachments, ModelNodeStreamHandler<T> handler) throws IOException;
+
+    /**
+     * Execute a batch of independent operations. The operations are packed into composite operations, which are
+     * executed concurrently. A failing operation does not roll back the other operations of the batch. If sending
+     * fails after some of the composites were sent, the operations which were not sent fail with the exception.
+     *
+     * @param operations the operations to execute
+     * @return the future results, in the order of the operations
+     * @throws java.io.IOException if an I/O error occurs before any of the operations was sent
+     */
+    List<AsyncFuture<ModelNode>> executeBatch(List<ModelNode> operations) throws IOException;
 
     /**
      * Register the given NotificationHandler to receive notifications emitted by the resource at the given source address.
@@ -85,6 +233,17 @@ public interface ManagementConnection extends Closeable {
      */
     Closeable registerNotificationHandler(ModelNode address, NotificationHandler handler, NotificationFilter filter);
 
+    /**
+     * Register the given NotificationHandler without waiting for the server to acknowledge the registration, so that
+     * many registrations can be in flight at the same time.
+     *
+     * @param address the address of the resource(s) that emit notifications.
+     * @param handler the notification handler
+     * @param filter  the notification filter. Use {@link NotificationFilter#ALL} to let the handler always handle notifications
+     * @return the future registration, which can be used to unregister the notification handler
+     */
+    AsyncFuture<NotificationRegistration> registerNotificationHandlerAsync(ModelNode address, NotificationHandler handler, NotificationFilter filter);
+
     /**
      * Wait for a resource close to complete.
      *
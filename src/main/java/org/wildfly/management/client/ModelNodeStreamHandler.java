@@ -0,0 +1,97 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client;
+
+import java.io.IOException;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Handler receiving the response of an operation as a sequence of events, while the response is decoded. This allows
+ * processing large responses without materializing the complete {@code ModelNode} tree.
+ * <p/>
+ * Events are delivered in document order from the thread reading the response, so handlers should not block. Throwing
+ * an {@code IOException} aborts decoding and fails the operation.
+ *
+ * @author Emanuel Muckenhuber
+ */
+public interface ModelNodeStreamHandler<T> {
+
+    /**
+     * Start of an object node, followed by {@code size} keys each with their value.
+     *
+     * @param size the number of keys
+     */
+    void startObject(int size) throws IOException;
+
+    /**
+     * The key of the next object entry.
+     *
+     * @param key the key
+     */
+    void key(String key) throws IOException;
+
+    /**
+     * End of an object node.
+     */
+    void endObject() throws IOException;
+
+    /**
+     * Start of a list node, followed by {@code size} values.
+     *
+     * @param size the number of elements
+     */
+    void startList(int size) throws IOException;
+
+    /**
+     * End of a list node.
+     */
+    void endList() throws IOException;
+
+    /**
+     * Start of a property node, followed by its value.
+     *
+     * @param name the property name
+     */
+    void startProperty(String name) throws IOException;
+
+    /**
+     * End of a property node.
+     */
+    void endProperty() throws IOException;
+
+    /**
+     * A simple value, such as a string, number or undefined.
+     *
+     * @param value the value
+     */
+    void value(ModelNode value) throws IOException;
+
+    /**
+     * Called once the response has been read completely.
+     *
+     * @return the result of the operation
+     */
+    T complete() throws IOException;
+
+}
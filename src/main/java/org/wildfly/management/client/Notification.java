@@ -51,7 +51,11 @@ public class Notification {
         this(type, resource, message, System.currentTimeMillis(), data);
     }
 
-    private Notification(String type, ModelNode resource, String message, long timestamp, ModelNode data) {
+    /**
+     * Constructor for subclasses. Implementations providing the message or data lazily pass {@code null} and
+     * override {@link #getMessage()} and {@link #getData()}.
+     */
+    protected Notification(String type, ModelNode resource, String message, long timestamp, ModelNode data) {
         this.type = type;
         this.resource = resource;
         this.message = message;
@@ -63,6 +67,13 @@ public class Notification {
         return type;
     }
 
+    /**
+     * Get the address of the resource emitting the notification. The address of a received notification is shared by
+     * all handlers it is delivered to, and is therefore protected against modification. Handlers need to
+     * {@link ModelNode#clone()} it to make changes.
+     *
+     * @return the resource address
+     */
     public ModelNode getResource() {
         return resource;
     }
@@ -75,6 +86,13 @@ public class Notification {
         return timestamp;
     }
 
+    /**
+     * Get the data of the notification. The data of a received notification is shared by all handlers it is delivered
+     * to, and is therefore protected against modification. Handlers need to {@link ModelNode#clone()} it to make
+     * changes.
+     *
+     * @return the data, {@code null} if the notification has none
+     */
     public ModelNode getData() {
         return data;
     }
@@ -84,7 +102,8 @@ public class Notification {
         node.get(TYPE).set(type);
         node.get(RESOURCE).set(resource);
         node.get(TIMESTAMP).set(timestamp);
-        node.get(MESSAGE).set(message);
+        node.get(MESSAGE).set(getMessage());
+        final ModelNode data = getData();
         if (data != null) {
             node.get(DATA).set(data);
         }
@@ -106,9 +125,9 @@ public class Notification {
         return "Notification{" +
                 "type='" + type + '\'' +
                 ", resource=" + resource +
-                ", message='" + message + '\'' +
+                ", message='" + getMessage() + '\'' +
                 ", timestamp=" + timestamp +
-                ", data=" + data +
+                ", data=" + getData() +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client;
+
+/**
+ * The behavior once the delivery queue of a notification handler is full.
+ *
+ * @author Emanuel Muckenhuber
+ */
+public enum NotificationOverflowPolicy {
+
+    /**
+     * Stop reading from the channel until the handler caught up. This also delays responses to other requests on
+     * the same channel, so a handler must not wait for operations executed on the same connection. Only used if
+     * configured explicitly.
+     */
+    BLOCK,
+    /**
+     * Discard the oldest queued notification. This is the default.
+     */
+    DROP_OLDEST,
+    /**
+     * Replace a queued notification of the same type and resource, discarding the oldest one if there is none.
+     */
+    COALESCE
+
+}
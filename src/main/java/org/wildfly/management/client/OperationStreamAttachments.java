@@ -23,14 +23,12 @@
 package org.wildfly.management.client;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.wildfly.management.client.impl.AbstractOperationAttachment;
-import org.xnio.IoUtils;
 
 /**
  * The operation stream attachments.
@@ -153,12 +151,7 @@ public interface OperationStreamAttachments {
 
         @Override
         public void writeTo(OutputStream os) throws IOException {
-            final FileInputStream is = new FileInputStream(file);
-            try {
-                copyStream(is, os);
-            } finally {
-                IoUtils.safeClose(is);
-            }
+            copyFile(file, os);
         }
 
     }
@@ -0,0 +1,177 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client;
+
+import static org.wildfly.management.client._private.ManagementClientMessages.MESSAGES;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * An operation serialized once, with parameter slots filled in when it is executed. Executing a template only writes
+ * the parameter values, the invariant parts of the operation are copied from the pre-serialized form.
+ *
+ * <pre>
+ * OperationTemplate template = OperationTemplate.create(Operations.createWriteAttributeOperation(address, "enabled", true),
+ *         ClientConstants.OP_ADDR, ClientConstants.VALUE);
+ * connection.execute(template, otherAddress, new ModelNode(false));
+ * </pre>
+ *
+ * @author Emanuel Muckenhuber
+ */
+public final class OperationTemplate {
+
+    private final ModelNode operation;
+    private final String[] parameters;
+    // The fixed parts of the operation; segment i is followed by the value of parameter slots[i]
+    private final byte[][] segments;
+    private final int[] slots;
+
+    private OperationTemplate(final ModelNode operation, final String[] parameters, final byte[][] segments, final int[] slots) {
+        this.operation = operation;
+        this.parameters = parameters;
+        this.segments = segments;
+        this.slots = slots;
+    }
+
+    /**
+     * Create a template. The parameters are top level keys of the operation, their values in the operation are
+     * replaced at execution time. Parameters not defined in the operation are added after its other keys.
+     *
+     * @param operation  the operation
+     * @param parameters the parameter names
+     * @return the template
+     */
+    public static OperationTemplate create(final ModelNode operation, final String... parameters) {
+        if (operation == null) {
+            throw MESSAGES.nullVar("operation");
+        }
+        final List<String> names = Arrays.asList(parameters);
+        if (new LinkedHashSet<>(names).size() != names.size()) {
+            throw MESSAGES.duplicateTemplateParameter(names);
+        }
+        final ModelNode template = operation.clone();
+        final Set<String> keys = new LinkedHashSet<>(template.keys());
+        keys.addAll(names);
+
+        final List<byte[]> segments = new ArrayList<>();
+        final int[] slots = new int[names.size()];
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream os = new DataOutputStream(bytes);
+        try {
+            os.writeByte('o');
+            os.writeInt(keys.size());
+            for (final String key : keys) {
+                os.writeUTF(key);
+                final int parameter = names.indexOf(key);
+                if (parameter < 0) {
+                    template.get(key).writeExternal(os);
+                } else {
+                    os.flush();
+                    slots[segments.size()] = parameter;
+                    segments.add(bytes.toByteArray());
+                    bytes.reset();
+                }
+            }
+            os.flush();
+        } catch (IOException e) {
+            // Not thrown by ByteArrayOutputStream
+            throw new IllegalStateException(e);
+        }
+        segments.add(bytes.toByteArray());
+        for (final String name : names) {
+            // Keep the key order of the serialized form
+            template.get(name).set(new ModelNode());
+        }
+        template.protect();
+        return new OperationTemplate(template, parameters.clone(), segments.toArray(new byte[segments.size()][]), slots);
+    }
+
+    /**
+     * Get the number of parameters.
+     *
+     * @return the number of parameters
+     */
+    public int getParameterCount() {
+        return parameters.length;
+    }
+
+    /**
+     * Create the operation for the given parameter values.
+     *
+     * @param values the parameter values, in the order the parameters were declared
+     * @return the operation
+     */
+    public ModelNode toOperation(final ModelNode... values) {
+        checkValues(values);
+        final ModelNode result = operation.clone();
+        for (int i = 0; i < parameters.length; i++) {
+            result.get(parameters[i]).set(value(values[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Write the binary representation of the operation for the given parameter values.
+     *
+     * @param output the data output
+     * @param values the parameter values, in the order the parameters were declared
+     * @throws IOException
+     */
+    public void writeExternal(final DataOutput output, final ModelNode... values) throws IOException {
+        checkValues(values);
+        for (int i = 0; i < slots.length; i++) {
+            output.write(segments[i]);
+            value(values[slots[i]]).writeExternal(output);
+        }
+        output.write(segments[slots.length]);
+    }
+
+    private void checkValues(final ModelNode[] values) {
+        if (values.length != parameters.length) {
+            throw MESSAGES.invalidTemplateValueCount(parameters.length, values.length);
+        }
+    }
+
+    private static ModelNode value(final ModelNode value) {
+        return value == null ? new ModelNode() : value;
+    }
+
+    @Override
+    public String toString() {
+        return "OperationTemplate{" +
+                "operation=" + operation +
+                ", parameters=" + Arrays.toString(parameters) +
+                '}';
+    }
+
+}
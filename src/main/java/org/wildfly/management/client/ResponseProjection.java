@@ -0,0 +1,127 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Selects the parts of an operation response which should be decoded. Everything else is skipped while reading the
+ * response, without creating the corresponding {@code ModelNode}s.
+ * <p/>
+ * Paths are a dot separated list of keys, where {@code *} matches any key, e.g. {@code "outcome"} or
+ * {@code "result.attributes.*.value"}. Lists along a path are projected element by element.
+ *
+ * @author Emanuel Muckenhuber
+ */
+public final class ResponseProjection {
+
+    private static final String WILDCARD = "*";
+    private static final ResponseProjection EMPTY = new ResponseProjection();
+
+    private final Map<String, ResponseProjection> children = new HashMap<>();
+    private boolean selected;
+
+    private ResponseProjection() {
+    }
+
+    /**
+     * Create a projection selecting the given paths.
+     *
+     * @param paths the selected paths
+     * @return the projection
+     */
+    public static ResponseProjection of(final String... paths) {
+        final ResponseProjection root = new ResponseProjection();
+        for (final String path : paths) {
+            ResponseProjection current = root;
+            for (final String key : path.split("\\.")) {
+                ResponseProjection child = current.children.get(key);
+                if (child == null) {
+                    child = new ResponseProjection();
+                    current.children.put(key, child);
+                }
+                current = child;
+            }
+            current.selected = true;
+        }
+        root.mergeWildcard();
+        return root;
+    }
+
+    /**
+     * Merge the wildcard into the specific children, so a key matching both selects the union of their paths.
+     */
+    private void mergeWildcard() {
+        final ResponseProjection wildcard = children.get(WILDCARD);
+        if (wildcard != null) {
+            for (final Map.Entry<String, ResponseProjection> entry : children.entrySet()) {
+                if (!WILDCARD.equals(entry.getKey())) {
+                    entry.setValue(merge(entry.getValue(), wildcard));
+                }
+            }
+        }
+        for (final ResponseProjection child : children.values()) {
+            child.mergeWildcard();
+        }
+    }
+
+    private static ResponseProjection merge(final ResponseProjection first, final ResponseProjection second) {
+        final ResponseProjection merged = new ResponseProjection();
+        merged.selected = first.selected || second.selected;
+        for (final Map.Entry<String, ResponseProjection> entry : first.children.entrySet()) {
+            final ResponseProjection other = second.children.get(entry.getKey());
+            merged.children.put(entry.getKey(), other != null ? merge(entry.getValue(), other) : merge(entry.getValue(), EMPTY));
+        }
+        for (final Map.Entry<String, ResponseProjection> entry : second.children.entrySet()) {
+            if (!merged.children.containsKey(entry.getKey())) {
+                merged.children.put(entry.getKey(), merge(entry.getValue(), EMPTY));
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Whether the complete node is selected.
+     *
+     * @return {@code true} if the node is selected including all its children
+     */
+    public boolean isSelected() {
+        return selected;
+    }
+
+    /**
+     * Get the projection for a child.
+     *
+     * @param key the child key
+     * @return the projection of the child, {@code null} if no part of the child is selected
+     */
+    public ResponseProjection get(final String key) {
+        final ResponseProjection child = children.get(key);
+        if (child != null) {
+            return child;
+        }
+        return children.get(WILDCARD);
+    }
+
+}
@@ -22,6 +22,7 @@
 
 package org.wildfly.management.client._private;
 
+import static org.jboss.logging.Logger.Level.DEBUG;
 import static org.jboss.logging.Logger.Level.ERROR;
 import static org.jboss.logging.Logger.Level.WARN;
 
@@ -49,6 +50,22 @@ public interface ManagementClientLogger extends BasicLogger {
     @Message(id = 12118, value = "No such request (%d) associated with channel %s")
     void noSuchRequest(int requestId, Channel channel);
 
+    @LogMessage(level = ERROR)
+    @Message(id = 12119, value = "Failed to deliver notification to handler %s")
+    void notificationHandlerFailed(@Cause Throwable cause, Object handler);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 12120, value = "Failed to deliver fan out result for %s to handler %s")
+    void fanOutHandlerFailed(@Cause Throwable cause, Object target, Object handler);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 12121, value = "Failed to run timeout task %s")
+    void timeoutTaskRejected(@Cause Throwable cause, Object task);
+
+    @LogMessage(level = DEBUG)
+    @Message(id = 12122, value = "Discarding late response to expired request (%d) on channel %s")
+    void lateResponse(int requestId, Channel channel);
+
     /**
      * Logs a warn message indicating that a controller client wasn't closed properly.
      *
@@ -24,8 +24,11 @@ package org.wildfly.management.client._private;
 
 import java.io.IOException;
 import java.net.ConnectException;
+import java.net.InetSocketAddress;
 import java.net.URI;
 import java.net.URL;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
 
 import org.jboss.logging.Messages;
 import org.jboss.logging.annotations.Cause;
@@ -382,6 +385,75 @@ public interface ManagementClientMessages {
     @Message(id = 12177, value = "No response handler for request %s")
     IOException responseHandlerNotFound(int id);
 
+    /**
+     * Creates an exception indicating a required notification field was not sent.
+     *
+     * @param name the field name.
+     * @return an {@link IOException} for the error.
+     */
+    @Message(id = 12178, value = "Notification field '%s' is missing")
+    IOException missingNotificationField(String name);
+
+    /**
+     * Creates an exception indicating a request did not complete before its deadline.
+     *
+     * @param id      the request id.
+     * @param timeout the timeout in milliseconds.
+     * @return an {@link IOException} for the error.
+     */
+    @Message(id = 12179, value = "Request %d timed out after %d ms")
+    IOException requestTimedOut(int id, long timeout);
+
+    /**
+     * Creates an exception indicating a notification handler could not be registered.
+     *
+     * @param cause   the cause of the error.
+     * @param address the address of the resource.
+     * @return an {@link IllegalStateException} for the error.
+     */
+    @Message(id = 12180, value = "Failed to register notification handler for %s")
+    IllegalStateException notificationRegistrationFailed(@Cause Throwable cause, String address);
+
+    /**
+     * Creates an exception indicating a parameter name of an operation template was used more than once.
+     *
+     * @param names the parameter names.
+     * @return an {@link IllegalArgumentException} for the error.
+     */
+    @Message(id = 12181, value = "Duplicate parameter in %s")
+    IllegalArgumentException duplicateTemplateParameter(List<String> names);
+
+    /**
+     * Creates an exception indicating the number of values does not match the parameters of an operation template.
+     *
+     * @param expected the number of parameters.
+     * @param actual   the number of values.
+     * @return an {@link IllegalArgumentException} for the error.
+     */
+    @Message(id = 12182, value = "Expected %d parameter values, but got %d")
+    IllegalArgumentException invalidTemplateValueCount(int expected, int actual);
+
+    /**
+     * Creates an exception indicating the value is invalid and must be greater than the {@code minValue}.
+     *
+     * @param name     the name for the value.
+     * @param value    the invalid value.
+     * @param minValue the minimum value allowed.
+     * @return an {@link IllegalArgumentException} for the error.
+     */
+    @Message(id = 12183, value = "Illegal %s value %d -- must be greater than %d")
+    IllegalArgumentException invalidValue(String name, long value, long minValue);
+
+    /**
+     * Creates an exception indicating a target of a fan-out execution did not respond before its deadline.
+     *
+     * @param target  the target.
+     * @param timeout the timeout in milliseconds.
+     * @return a {@link TimeoutException} for the error.
+     */
+    @Message(id = 12184, value = "No response from %s within %d ms")
+    TimeoutException fanOutTimedOut(InetSocketAddress target, long timeout);
+
 
     class LeakDescription extends Throwable {
         private static final long serialVersionUID = -7193498784746897578L;
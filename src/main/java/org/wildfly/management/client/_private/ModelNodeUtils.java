@@ -0,0 +1,77 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client._private;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
+
+/**
+ * Internal model node utilities, shared by the client implementation and the helpers. Not part of the client API.
+ *
+ * @author Emanuel Muckenhuber
+ */
+public final class ModelNodeUtils {
+
+    private ModelNodeUtils() {
+        //
+    }
+
+    /**
+     * Estimate the serialized size of a model node, without actually serializing it.
+     *
+     * @param node the model node
+     * @return the estimated size in bytes
+     */
+    public static int estimateSize(final ModelNode node) {
+        switch (node.getType()) {
+            case OBJECT:
+                int object = 5;
+                for (final String key : node.keys()) {
+                    object += 2 + key.length() + estimateSize(node.get(key));
+                }
+                return object;
+            case LIST:
+                int list = 5;
+                for (final ModelNode element : node.asList()) {
+                    list += estimateSize(element);
+                }
+                return list;
+            case PROPERTY:
+                final Property property = node.asProperty();
+                return 3 + property.getName().length() + estimateSize(property.getValue());
+            case STRING:
+            case EXPRESSION:
+                return 3 + node.asString().length();
+            case BYTES:
+                return 5 + node.asBytes().length;
+            case BIG_DECIMAL:
+            case BIG_INTEGER:
+                return 5 + node.asString().length() / 2;
+            case UNDEFINED:
+                return 1;
+            default:
+                return 9;
+        }
+    }
+
+}
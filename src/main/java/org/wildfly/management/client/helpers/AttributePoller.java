@@ -0,0 +1,379 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client.helpers;
+
+import static org.wildfly.management.client._private.ManagementClientMessages.MESSAGES;
+import static org.wildfly.management.client.helpers.ClientConstants.FAILED;
+import static org.wildfly.management.client.helpers.ClientConstants.FAILURE_DESCRIPTION;
+import static org.wildfly.management.client.helpers.ClientConstants.OUTCOME;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
+import org.wildfly.management.client.ManagementConnection;
+
+/**
+ * Polls attributes periodically, notifying a listener only if the value changed since the previous poll.
+ * <p/>
+ * Registrations are kept in a hashed timer wheel, advanced once per tick. All attributes due in a tick are read using
+ * a single {@link ManagementConnection#executeBatch(java.util.List)}, which packs them into as few composite operations
+ * as the batch limits of the connection allow. Attributes registered more than once are only read once per tick.
+ * <p/>
+ * The wheel is advanced by a scheduler passed by the caller, which can be shared by many pollers. Every tick elapsed
+ * since the last run is processed at once, so a busy scheduler delays the reads rather than skipping them. The reads
+ * are sent from a separate executor, since sending blocks while the connection has the maximum number of requests in
+ * flight.
+ * <p/>
+ * An attribute is not polled again while the previous read is still outstanding. Listeners are called from the
+ * executor of the connection, or from the executor of the poller if sending the reads failed. Polling stops once the
+ * scheduler or the executor is shut down.
+ *
+ * @author Emanuel Muckenhuber
+ */
+public class AttributePoller implements Closeable {
+
+    private static final int WHEEL_SIZE = 512;
+
+    private final ManagementConnection connection;
+    private final long tickNanos;
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+    private final List<Registration>[] wheel;
+    private final long start = System.nanoTime();
+    private final Runnable advanceTask = new Runnable() {
+        @Override
+        public void run() {
+            advance();
+        }
+    };
+
+    private long tick;
+    private boolean closed;
+    private ScheduledFuture<?> next;
+
+    /**
+     * Create a new poller.
+     *
+     * @param connection the connection
+     * @param tick       the tick duration, the resolution of the polling intervals
+     * @param unit       the time unit
+     * @param scheduler  the scheduler advancing the wheel
+     * @param executor   the executor sending the reads, must not be a direct executor
+     */
+    @SuppressWarnings("unchecked")
+    public AttributePoller(final ManagementConnection connection, final long tick, final TimeUnit unit,
+                           final ScheduledExecutorService scheduler, final Executor executor) {
+        if (connection == null) {
+            throw MESSAGES.nullVar("connection");
+        }
+        if (scheduler == null) {
+            throw MESSAGES.nullVar("scheduler");
+        }
+        if (executor == null) {
+            throw MESSAGES.nullVar("executor");
+        }
+        this.connection = connection;
+        this.scheduler = scheduler;
+        this.executor = executor;
+        this.tickNanos = Math.max(1, unit.toNanos(tick));
+        this.wheel = new List[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ArrayList<>();
+        }
+        synchronized (this) {
+            scheduleNext();
+        }
+    }
+
+    /**
+     * Register an attribute to be polled. The first value is read in the next tick.
+     *
+     * @param address   the address of the resource
+     * @param attribute the attribute name
+     * @param interval  the polling interval, rounded up to whole ticks
+     * @param unit      the time unit
+     * @param listener  the listener notified of changed values
+     * @return a {@code Closeable} which can be used to stop polling the attribute
+     */
+    public Closeable register(final ModelNode address, final String attribute, final long interval, final TimeUnit unit, final Listener listener) {
+        if (address == null) {
+            throw MESSAGES.nullVar("address");
+        }
+        if (listener == null) {
+            throw MESSAGES.nullVar("listener");
+        }
+        final long intervalNanos = unit.toNanos(interval);
+        final long ticks = Math.max(1, (intervalNanos + tickNanos - 1) / tickNanos);
+        final Registration registration = new Registration(address.clone(), attribute, ticks, listener);
+        synchronized (this) {
+            if (closed) {
+                throw MESSAGES.objectIsClosed("attribute poller");
+            }
+            schedule(registration, 1);
+        }
+        return registration;
+    }
+
+    /**
+     * Stop polling all attributes. This does not close the underlying connection.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (final List<Registration> bucket : wheel) {
+                bucket.clear();
+            }
+            if (next != null) {
+                next.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Advance the wheel to the current time, processing every tick which elapsed since the last call.
+     */
+    private void advance() {
+        final Map<ModelNode, List<Registration>> due = new LinkedHashMap<>();
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            final long current = (System.nanoTime() - start) / tickNanos;
+            while (tick < current) {
+                tick(due);
+            }
+            try {
+                scheduleNext();
+            } catch (RejectedExecutionException e) {
+                // The scheduler was shut down
+                closed = true;
+            }
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+        try {
+            // Sending may block on the in-flight limit of the connection, which must not stall the scheduler
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    poll(due);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The executor was shut down
+            close();
+        }
+    }
+
+    private void tick(final Map<ModelNode, List<Registration>> due) {
+        assert Thread.holdsLock(this);
+        tick++;
+        final Iterator<Registration> i = wheel[(int) (tick % WHEEL_SIZE)].iterator();
+        final List<Registration> rescheduled = new ArrayList<>();
+        while (i.hasNext()) {
+            final Registration registration = i.next();
+            if (registration.cancelled) {
+                i.remove();
+            } else if (registration.rounds > 0) {
+                registration.rounds--;
+            } else {
+                i.remove();
+                rescheduled.add(registration);
+                // Not read again while in flight, which also skips registrations due twice in one advance
+                if (registration.start()) {
+                    final ModelNode operation = Operations.createReadAttributeOperation(registration.address, registration.attribute);
+                    List<Registration> registrations = due.get(operation);
+                    if (registrations == null) {
+                        registrations = new ArrayList<>(1);
+                        due.put(operation, registrations);
+                    }
+                    registrations.add(registration);
+                }
+            }
+        }
+        for (final Registration registration : rescheduled) {
+            schedule(registration, registration.interval);
+        }
+    }
+
+    private void poll(final Map<ModelNode, List<Registration>> due) {
+        final List<ModelNode> operations = new ArrayList<>(due.keySet());
+        final List<AsyncFuture<ModelNode>> results;
+        try {
+            results = connection.executeBatch(operations);
+        } catch (IOException e) {
+            final ModelNode failed = failed(e);
+            for (final List<Registration> registrations : due.values()) {
+                for (final Registration registration : registrations) {
+                    registration.completed(failed);
+                }
+            }
+            return;
+        }
+        int index = 0;
+        for (final List<Registration> registrations : due.values()) {
+            results.get(index++).addListener(new AsyncFuture.Listener<ModelNode, Void>() {
+                @Override
+                public void handleComplete(AsyncFuture<? extends ModelNode> future, Void attachment) {
+                    final ModelNode result;
+                    try {
+                        result = future.get();
+                    } catch (Exception e) {
+                        handleFailed(future, e, attachment);
+                        return;
+                    }
+                    completed(registrations, result);
+                }
+
+                @Override
+                public void handleFailed(AsyncFuture<? extends ModelNode> future, Throwable cause, Void attachment) {
+                    completed(registrations, failed(cause));
+                }
+
+                @Override
+                public void handleCancelled(AsyncFuture<? extends ModelNode> future, Void attachment) {
+                    completed(registrations, failed(null));
+                }
+            }, null);
+        }
+    }
+
+    private void scheduleNext() {
+        assert Thread.holdsLock(this);
+        final long delay = start + (tick + 1) * tickNanos - System.nanoTime();
+        next = scheduler.schedule(advanceTask, Math.max(0, delay), TimeUnit.NANOSECONDS);
+    }
+
+    private void schedule(final Registration registration, final long ticks) {
+        registration.rounds = (ticks - 1) / WHEEL_SIZE;
+        wheel[(int) ((tick + ticks) % WHEEL_SIZE)].add(registration);
+    }
+
+    private static void completed(final List<Registration> registrations, final ModelNode result) {
+        for (final Registration registration : registrations) {
+            registration.completed(result);
+        }
+    }
+
+    private static ModelNode failed(final Throwable cause) {
+        final ModelNode failed = new ModelNode();
+        failed.get(OUTCOME).set(FAILED);
+        failed.get(FAILURE_DESCRIPTION).set(cause != null ? cause.toString() : MESSAGES.noFailureDetails());
+        return failed;
+    }
+
+    /**
+     * Listener notified about changed attribute values.
+     */
+    public interface Listener {
+
+        /**
+         * The attribute value changed since the last poll.
+         *
+         * @param address   the address of the resource
+         * @param attribute the attribute name
+         * @param value     the new value
+         */
+        void attributeChanged(ModelNode address, String attribute, ModelNode value);
+
+        /**
+         * Reading the attribute failed. Repeated identical failures are only reported once.
+         *
+         * @param address            the address of the resource
+         * @param attribute          the attribute name
+         * @param failureDescription the failure description
+         */
+        void pollFailed(ModelNode address, String attribute, ModelNode failureDescription);
+
+    }
+
+    static final class Registration implements Closeable {
+
+        private final ModelNode address;
+        private final String attribute;
+        private final long interval;
+        private final Listener listener;
+
+        // Guarded by the poller
+        private long rounds;
+        private volatile boolean cancelled;
+
+        // Guarded by this
+        private boolean inFlight;
+        private ModelNode last;
+
+        Registration(final ModelNode address, final String attribute, final long interval, final Listener listener) {
+            this.address = address;
+            this.attribute = attribute;
+            this.interval = interval;
+            this.listener = listener;
+            address.protect();
+        }
+
+        synchronized boolean start() {
+            if (inFlight) {
+                return false;
+            }
+            inFlight = true;
+            return true;
+        }
+
+        void completed(final ModelNode result) {
+            synchronized (this) {
+                inFlight = false;
+                if (cancelled || result.equals(last)) {
+                    return;
+                }
+                last = result;
+            }
+            if (Operations.isSuccessfulOutcome(result)) {
+                listener.attributeChanged(address, attribute, Operations.readResult(result));
+            } else {
+                listener.pollFailed(address, attribute, Operations.getFailureDescription(result));
+            }
+        }
+
+        @Override
+        public void close() {
+            cancelled = true;
+        }
+    }
+
+}
@@ -41,6 +41,7 @@ public class ClientConstants {
     public static final String DEPLOYMENT_REPLACE_OPERATION = "replace-deployment";
     public static final String DEPLOYMENT_UNDEPLOY_OPERATION = "undeploy";
     public static final String EXTENSION = "extension";
+    public static final String FAILED = "failed";
     public static final String FAILURE_DESCRIPTION = "failure-description";
     public static final String GROUP = "group";
     public static final String HOST = "host";
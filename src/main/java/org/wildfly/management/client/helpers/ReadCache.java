@@ -0,0 +1,380 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client.helpers;
+
+import static org.wildfly.management.client._private.ManagementClientMessages.MESSAGES;
+import static org.wildfly.management.client.helpers.ClientConstants.OP;
+import static org.wildfly.management.client.helpers.ClientConstants.READ_ATTRIBUTE_OPERATION;
+import static org.wildfly.management.client.helpers.ClientConstants.READ_CHILDREN_NAMES_OPERATION;
+import static org.wildfly.management.client.helpers.ClientConstants.READ_RESOURCE_OPERATION;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
+import org.wildfly.management.client.ManagementConnection;
+import org.wildfly.management.client.Notification;
+import org.wildfly.management.client.NotificationFilter;
+import org.wildfly.management.client.NotificationHandler;
+import org.wildfly.management.client.NotificationRegistration;
+import org.wildfly.management.client._private.ModelNodeUtils;
+
+/**
+ * A client side cache for the results of {@code read-resource}, {@code read-attribute} and {@code read-children-names}
+ * operations. Entries are keyed by the complete operation and evicted in least recently used order once the estimated
+ * size of the cached results exceeds the configured limit.
+ * <p/>
+ * For every cached address a notification handler is registered, invalidating the entries of the address, its parents
+ * and its children once a resource is added or removed or an attribute is written. Resources added below a cached
+ * address do not emit a notification for that address, an optional time to live bounds how long such changes can go
+ * unnoticed. Other operations executed through the cache invalidate the entries of their address as well. Handlers of
+ * invalidated addresses are unregistered without waiting for the server, since the invalidating notification handler
+ * must not block the delivery of notifications.
+ * <p/>
+ * Cached results are protected and shared between callers, so they cannot be modified.
+ *
+ * @author Emanuel Muckenhuber
+ */
+public class ReadCache implements Closeable {
+
+    private static final Set<String> CACHEABLE = new HashSet<>(Arrays.asList(READ_ATTRIBUTE_OPERATION, READ_CHILDREN_NAMES_OPERATION, READ_RESOURCE_OPERATION));
+    private static final Set<String> INVALIDATING = new HashSet<>(Arrays.asList("resource-added", "resource-removed", "attribute-value-written"));
+
+    private static final NotificationFilter FILTER = new NotificationFilter() {
+        @Override
+        public boolean isNotificationEnabled(Notification notification) {
+            return INVALIDATING.contains(notification.getType());
+        }
+    };
+
+    private final ManagementConnection connection;
+    private final long maxWeight;
+    private final long timeToLive;
+    private final LinkedHashMap<ModelNode, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<List<String>, Registration> registrations = new HashMap<>();
+    private final NotificationHandler handler = new NotificationHandler() {
+        @Override
+        public void handleNotification(Notification notification) {
+            invalidate(notification.getResource());
+        }
+    };
+
+    private long weight;
+    private long generation;
+    private boolean closed;
+
+    /**
+     * Create a new read cache.
+     *
+     * @param connection the connection
+     * @param maxWeight  the maximum estimated size of all cached results, in bytes
+     */
+    public ReadCache(final ManagementConnection connection, final long maxWeight) {
+        this(connection, maxWeight, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Create a new read cache.
+     *
+     * @param connection the connection
+     * @param maxWeight  the maximum estimated size of all cached results, in bytes
+     * @param timeToLive the time a result is cached, {@code 0} to cache results until they get invalidated or evicted
+     * @param unit       the time unit
+     */
+    public ReadCache(final ManagementConnection connection, final long maxWeight, final long timeToLive, final TimeUnit unit) {
+        if (connection == null) {
+            throw MESSAGES.nullVar("connection");
+        }
+        this.connection = connection;
+        this.maxWeight = maxWeight;
+        this.timeToLive = unit.toNanos(timeToLive);
+    }
+
+    /**
+     * Execute an operation, using the cached result for read operations if possible.
+     *
+     * @param operation the operation to execute
+     * @return the result of the operation
+     * @throws IOException if an I/O error occurs while executing the operation
+     */
+    public ModelNode execute(final ModelNode operation) throws IOException {
+        final ModelNode address = Operations.getOperationAddress(operation);
+        final List<String> path = toPath(address);
+        if (!CACHEABLE.contains(operation.get(OP).asString())) {
+            try {
+                return connection.execute(operation);
+            } finally {
+                invalidate(path);
+            }
+        }
+        final ModelNode key = operation.clone();
+        key.protect();
+        final long start;
+        synchronized (this) {
+            if (closed) {
+                throw MESSAGES.objectIsClosed("read cache");
+            }
+            final Entry entry = entries.get(key);
+            if (entry != null) {
+                if (timeToLive == 0 || System.nanoTime() - entry.created < timeToLive) {
+                    return entry.result;
+                }
+                // Expired, the handler stays registered for the following read
+                entries.remove(key);
+                weight -= entry.weight;
+                registrations.get(path).entries--;
+            }
+            start = generation;
+        }
+        // Register before reading, so that no change after the read goes unnoticed
+        register(path, address);
+        final ModelNode result;
+        try {
+            result = connection.execute(operation);
+        } catch (IOException | RuntimeException e) {
+            final List<NotificationRegistration> unused;
+            synchronized (this) {
+                unused = releaseUnused(path);
+            }
+            safeClose(unused);
+            throw e;
+        }
+        result.protect();
+        final List<NotificationRegistration> unused;
+        synchronized (this) {
+            final Registration registration = registrations.get(path);
+            if (Operations.isSuccessfulOutcome(result) && generation == start && registration != null) {
+                final Entry entry = new Entry(path, result, ModelNodeUtils.estimateSize(result));
+                final Entry previous = entries.put(key, entry);
+                if (previous != null) {
+                    weight -= previous.weight;
+                    registration.entries--;
+                }
+                weight += entry.weight;
+                registration.entries++;
+                unused = evict();
+            } else {
+                unused = releaseUnused(path);
+            }
+        }
+        safeClose(unused);
+        return result;
+    }
+
+    /**
+     * Invalidate the cached results for an address, its parents and its children.
+     *
+     * @param address the address
+     */
+    public void invalidate(final ModelNode address) {
+        invalidate(toPath(address));
+    }
+
+    /**
+     * Invalidate all cached results.
+     */
+    public void invalidateAll() {
+        final List<NotificationRegistration> unused;
+        synchronized (this) {
+            generation++;
+            entries.clear();
+            weight = 0;
+            unused = removeRegistrations();
+        }
+        safeClose(unused);
+    }
+
+    /**
+     * Get the number of cached results.
+     *
+     * @return the number of cached results
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Close the cache, removing all notification handlers registered by this cache. This does not close the underlying
+     * connection.
+     */
+    @Override
+    public void close() {
+        final List<NotificationRegistration> unused;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            generation++;
+            entries.clear();
+            weight = 0;
+            unused = removeRegistrations();
+        }
+        safeClose(unused);
+    }
+
+    private void invalidate(final List<String> path) {
+        final List<NotificationRegistration> unused = new ArrayList<>();
+        synchronized (this) {
+            generation++;
+            final Iterator<Entry> i = entries.values().iterator();
+            while (i.hasNext()) {
+                final Entry entry = i.next();
+                if (isPrefix(entry.path, path) || isPrefix(path, entry.path)) {
+                    i.remove();
+                    unused.addAll(removed(entry));
+                }
+            }
+        }
+        // Called by the notification handler, which must not wait for the server to unregister
+        unregisterAsync(unused);
+    }
+
+    private void register(final List<String> path, final ModelNode address) {
+        synchronized (this) {
+            if (registrations.containsKey(path)) {
+                return;
+            }
+        }
+        final NotificationRegistration handle;
+        try {
+            handle = connection.registerNotificationHandlerAsync(address, handler, FILTER).getUninterruptibly();
+        } catch (ExecutionException e) {
+            throw MESSAGES.notificationRegistrationFailed(e.getCause(), address.asString());
+        }
+        synchronized (this) {
+            if (!closed && !registrations.containsKey(path)) {
+                registrations.put(path, new Registration(handle));
+                return;
+            }
+        }
+        // Closed or registered concurrently
+        safeClose(Collections.singletonList(handle));
+    }
+
+    private List<NotificationRegistration> evict() {
+        final List<NotificationRegistration> unused = new ArrayList<>();
+        final Iterator<Entry> i = entries.values().iterator();
+        while (weight > maxWeight && i.hasNext()) {
+            final Entry entry = i.next();
+            i.remove();
+            unused.addAll(removed(entry));
+        }
+        return unused;
+    }
+
+    private List<NotificationRegistration> removed(final Entry entry) {
+        weight -= entry.weight;
+        final Registration registration = registrations.get(entry.path);
+        registration.entries--;
+        return releaseUnused(entry.path);
+    }
+
+    private List<NotificationRegistration> releaseUnused(final List<String> path) {
+        final Registration registration = registrations.get(path);
+        if (registration != null && registration.entries == 0) {
+            registrations.remove(path);
+            return Collections.singletonList(registration.handle);
+        }
+        return Collections.emptyList();
+    }
+
+    private List<NotificationRegistration> removeRegistrations() {
+        final List<NotificationRegistration> unused = new ArrayList<>(registrations.size());
+        for (final Registration registration : registrations.values()) {
+            unused.add(registration.handle);
+        }
+        registrations.clear();
+        return unused;
+    }
+
+    private static void safeClose(final List<NotificationRegistration> registrations) {
+        for (final NotificationRegistration registration : registrations) {
+            try {
+                registration.close();
+            } catch (Exception ignore) {
+                //
+            }
+        }
+    }
+
+    private static void unregisterAsync(final List<NotificationRegistration> registrations) {
+        for (final NotificationRegistration registration : registrations) {
+            registration.unregisterAsync();
+        }
+    }
+
+    static List<String> toPath(final ModelNode address) {
+        if (!address.isDefined()) {
+            return Collections.emptyList();
+        }
+        final List<Property> elements = address.asPropertyList();
+        final List<String> path = new ArrayList<>(elements.size());
+        for (final Property element : elements) {
+            path.add(element.getName() + '=' + element.getValue().asString());
+        }
+        return path;
+    }
+
+    static boolean isPrefix(final List<String> prefix, final List<String> path) {
+        return prefix.size() <= path.size() && prefix.equals(path.subList(0, prefix.size()));
+    }
+
+    static final class Entry {
+
+        private final List<String> path;
+        private final ModelNode result;
+        private final int weight;
+        private final long created = System.nanoTime();
+
+        Entry(final List<String> path, final ModelNode result, final int weight) {
+            this.path = path;
+            this.result = result;
+            this.weight = weight;
+        }
+    }
+
+    static final class Registration {
+
+        private final NotificationRegistration handle;
+        private int entries;
+
+        Registration(final NotificationRegistration handle) {
+            this.handle = handle;
+        }
+    }
+
+}
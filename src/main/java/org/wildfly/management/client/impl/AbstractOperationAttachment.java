@@ -22,6 +22,7 @@
 
 package org.wildfly.management.client.impl;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -37,6 +38,10 @@ public abstract class AbstractOperationAttachment implements OperationStreamAtta
         StreamUtils.copyStream(is, os);
     }
 
+    protected void copyFile(final File file, final OutputStream os) throws IOException {
+        StreamUtils.copyFile(file, os);
+    }
+
     public static class ByteArrayStreamAttachment extends AbstractOperationAttachment {
 
         private final byte[] data;
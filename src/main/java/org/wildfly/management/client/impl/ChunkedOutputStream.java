@@ -0,0 +1,125 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client.impl;
+
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Output stream writing the attachment contents as a sequence of length prefixed chunks, terminated by an empty
+ * chunk. At most one chunk is buffered, independent of the total size of the stream.
+ *
+ * @author Emanuel Muckenhuber
+ */
+class ChunkedOutputStream extends OutputStream {
+
+    static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    private final DataOutput out;
+    private final byte[] buffer;
+    private long remaining;
+    private int position;
+    private boolean closed;
+
+    ChunkedOutputStream(final DataOutput out, final long size) {
+        this(out, size, DEFAULT_CHUNK_SIZE);
+    }
+
+    ChunkedOutputStream(final DataOutput out, final long size, final int chunkSize) {
+        this.out = out;
+        this.remaining = size;
+        this.buffer = new byte[(int) Math.max(1, Math.min(chunkSize, size))];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        checkWrite(1);
+        buffer[position++] = (byte) b;
+        remaining--;
+        if (position == buffer.length) {
+            writeChunk();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        checkWrite(len);
+        remaining -= len;
+        while (len > 0) {
+            if (position == 0 && len >= buffer.length) {
+                // Write full chunks directly
+                out.writeInt(buffer.length);
+                out.write(b, off, buffer.length);
+                off += buffer.length;
+                len -= buffer.length;
+            } else {
+                final int cnt = Math.min(len, buffer.length - position);
+                System.arraycopy(b, off, buffer, position, cnt);
+                position += cnt;
+                off += cnt;
+                len -= cnt;
+                if (position == buffer.length) {
+                    writeChunk();
+                }
+            }
+        }
+    }
+
+    /**
+     * Write the remaining data and the terminating chunk. This does not close the underlying output.
+     *
+     * @throws IOException if the stream did not contain the announced number of bytes
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (remaining != 0) {
+            throw new IOException("Input stream size mismatch, missing " + remaining + " bytes");
+        }
+        writeChunk();
+        out.writeInt(0);
+    }
+
+    private void writeChunk() throws IOException {
+        if (position > 0) {
+            out.writeInt(position);
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private void checkWrite(final int len) throws IOException {
+        if (closed) {
+            throw new IOException("stream closed");
+        }
+        if (len > remaining) {
+            throw new EOFException();
+        }
+    }
+
+}
@@ -0,0 +1,284 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client.impl;
+
+import static java.security.AccessController.doPrivileged;
+
+import java.lang.reflect.Method;
+import java.security.AccessControlContext;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.threads.JBossThreadFactory;
+import org.wildfly.management.client.ExecutorMetrics;
+import org.wildfly.management.client.ExecutorStrategy;
+import org.wildfly.management.client.ManagementClientOptions;
+import org.wildfly.management.client._private.ManagementClientLogger;
+import org.xnio.OptionMap;
+
+/**
+ * Creates the executors of the {@link ExecutorStrategy}s and exposes their metrics.
+ *
+ * @author Emanuel Muckenhuber
+ */
+final class ClientExecutors {
+
+    // Global count of created pools
+    private static final AtomicInteger executorCount = new AtomicInteger();
+
+    private ClientExecutors() {
+        //
+    }
+
+    /**
+     * Get the timer shared by all connections, tracking the deadlines of individual requests.
+     *
+     * @return the request timer
+     */
+    static HashedWheelTimer getRequestTimer() {
+        return TimerHolder.REQUEST_TIMER;
+    }
+
+    /**
+     * Create the executor configured in the options.
+     *
+     * @param options the client options
+     * @return the executor
+     */
+    static ExecutorService create(final OptionMap options) {
+        final ExecutorStrategy strategy = options.get(ManagementClientOptions.EXECUTOR_STRATEGY);
+        final int maxThreads = Math.max(1, options.get(ManagementClientOptions.MAX_THREADS, ManagementClientDefaults.DEFAULT_MAX_THREADS));
+        final String prefix = "management-client-thread " + executorCount.incrementAndGet() + "-";
+        if (strategy == ExecutorStrategy.FORK_JOIN) {
+            return createForkJoinPool(prefix, maxThreads);
+        } else if (strategy == ExecutorStrategy.VIRTUAL_THREADS) {
+            final ExecutorService executor = createVirtualThreadExecutor();
+            if (executor != null) {
+                return executor;
+            }
+            ManagementClientLogger.ROOT_LOGGER.debugf("virtual threads not supported, using %s", ExecutorStrategy.BOUNDED);
+        }
+        return createBoundedPool(prefix, maxThreads);
+    }
+
+    static ExecutorService createBoundedPool(final String prefix, final int maxThreads) {
+        final ThreadGroup group = new ThreadGroup("management-client-thread");
+        final ThreadFactory threadFactory = new JBossThreadFactory(group, Boolean.FALSE, null, prefix + "%t", null, null, doPrivileged(new PrivilegedAction<AccessControlContext>() {
+            public AccessControlContext run() {
+                return AccessController.getContext();
+            }
+        }));
+        // With an unbounded queue the pool never grows beyond the core size, so all threads are core threads
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    static ExecutorService createForkJoinPool(final String prefix, final int parallelism) {
+        final AtomicInteger threadCount = new AtomicInteger();
+        final ForkJoinPool.ForkJoinWorkerThreadFactory factory = new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+            @Override
+            public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+                final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName(prefix + threadCount.incrementAndGet());
+                return thread;
+            }
+        };
+        // Async mode, tasks are submitted and never joined
+        return new ForkJoinPool(parallelism, factory, null, true);
+    }
+
+    /**
+     * Create a virtual thread per task executor, if supported by the JVM.
+     *
+     * @return the executor, {@code null} if not supported
+     */
+    static ExecutorService createVirtualThreadExecutor() {
+        final Method method;
+        try {
+            method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+        try {
+            return new CountingExecutorService((ExecutorService) method.invoke(null));
+        } catch (Exception e) {
+            ManagementClientLogger.ROOT_LOGGER.debugf(e, "failed to create virtual thread executor");
+            return null;
+        }
+    }
+
+    /**
+     * Get the metrics of an executor.
+     *
+     * @param executor the executor
+     * @return the metrics
+     */
+    static ExecutorMetrics getMetrics(final Executor executor) {
+        if (executor instanceof ThreadPoolExecutor) {
+            final ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+            return new ExecutorMetrics() {
+                @Override
+                public int getQueueSize() {
+                    return pool.getQueue().size();
+                }
+
+                @Override
+                public int getActiveCount() {
+                    return pool.getActiveCount();
+                }
+
+                @Override
+                public int getPoolSize() {
+                    return pool.getPoolSize();
+                }
+            };
+        } else if (executor instanceof ForkJoinPool) {
+            final ForkJoinPool pool = (ForkJoinPool) executor;
+            return new ExecutorMetrics() {
+                @Override
+                public int getQueueSize() {
+                    return (int) Math.min(Integer.MAX_VALUE, pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount());
+                }
+
+                @Override
+                public int getActiveCount() {
+                    return pool.getActiveThreadCount();
+                }
+
+                @Override
+                public int getPoolSize() {
+                    return pool.getPoolSize();
+                }
+            };
+        } else if (executor instanceof CountingExecutorService) {
+            final CountingExecutorService counting = (CountingExecutorService) executor;
+            return new ExecutorMetrics() {
+                @Override
+                public int getQueueSize() {
+                    // Every task gets its own thread right away
+                    return 0;
+                }
+
+                @Override
+                public int getActiveCount() {
+                    return counting.active.get();
+                }
+
+                @Override
+                public int getPoolSize() {
+                    return counting.active.get();
+                }
+            };
+        }
+        return UNKNOWN;
+    }
+
+    private static final ExecutorMetrics UNKNOWN = new ExecutorMetrics() {
+        @Override
+        public int getQueueSize() {
+            return -1;
+        }
+
+        @Override
+        public int getActiveCount() {
+            return -1;
+        }
+
+        @Override
+        public int getPoolSize() {
+            return -1;
+        }
+    };
+
+    static final class TimerHolder {
+
+        static final HashedWheelTimer REQUEST_TIMER = new HashedWheelTimer("management-client-request-timer", 100, TimeUnit.MILLISECONDS, 512);
+    }
+
+    /**
+     * Executor counting the tasks currently running, for executors not exposing their own metrics.
+     */
+    static final class CountingExecutorService extends AbstractExecutorService {
+
+        private final ExecutorService delegate;
+        private final AtomicInteger active = new AtomicInteger();
+
+        CountingExecutorService(final ExecutorService delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            delegate.execute(new Runnable() {
+                @Override
+                public void run() {
+                    active.incrementAndGet();
+                    try {
+                        command.run();
+                    } finally {
+                        active.decrementAndGet();
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+
+}
@@ -0,0 +1,180 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import org.jboss.remoting3.Channel;
+import org.xnio.IoUtils;
+
+/**
+ * Writer coalescing concurrently submitted requests on a channel.
+ * <p/>
+ * Requests are encoded into a pooled buffer by the submitting thread and queued. The first submitter finding the writer idle writes all
+ * queued requests back-to-back, while concurrent submitters return right away instead of contending for the channel.
+ * Once a single submitter wrote more than the threshold, the remaining requests are written using the executor.
+ * <p/>
+ * Each request is still sent as a separate message, since the other side expects a single request per message.
+ *
+ * @author Emanuel Muckenhuber
+ */
+abstract class CoalescingWriter {
+
+    private static final AtomicIntegerFieldUpdater<CoalescingWriter> writingUpdater = AtomicIntegerFieldUpdater.newUpdater(CoalescingWriter.class, "writing");
+
+    private final Channel channel;
+    private final Executor executor;
+    private final int threshold;
+    private final Queue<Frame> queue = new ConcurrentLinkedQueue<>();
+    private final Runnable writeTask = new Runnable() {
+        @Override
+        public void run() {
+            writeQueued();
+        }
+    };
+
+    private volatile int writing;
+
+    CoalescingWriter(final Channel channel, final Executor executor, final int threshold) {
+        this.channel = channel;
+        this.executor = executor;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Handle a failure writing a request.
+     *
+     * @param request   the request
+     * @param requestId the request id
+     * @param exception the exception
+     */
+    protected abstract void writeFailed(ManagementRequest request, int requestId, IOException exception);
+
+    /**
+     * Encode and queue a request.
+     *
+     * @param header  the request header
+     * @param request the request
+     * @throws IOException if encoding the request fails
+     */
+    void write(final ManagementRequestHeader header, final ManagementRequest request) throws IOException {
+        final FrameOutput output = new FrameOutput();
+        try {
+            header.write(output);
+            request.writeRequest(output);
+        } catch (IOException | RuntimeException e) {
+            output.release();
+            throw e;
+        }
+        queue.add(new Frame(output, request, header.getRequestId()));
+        writeQueued();
+    }
+
+    void writeQueued() {
+        for (;;) {
+            if (!writingUpdater.compareAndSet(this, 0, 1)) {
+                // Someone else is writing and will pick up the queued request
+                return;
+            }
+            boolean release = true;
+            try {
+                int written = 0;
+                Frame frame;
+                while ((frame = queue.poll()) != null) {
+                    writeFrame(frame);
+                    written += frame.size;
+                    if (written >= threshold && !queue.isEmpty()) {
+                        // Release the writer before handing off, so the write task is able to acquire it
+                        release = false;
+                        writing = 0;
+                        if (handOff()) {
+                            return;
+                        }
+                        // Rejected, continue writing unless someone else took over in the meantime
+                        if (!writingUpdater.compareAndSet(this, 0, 1)) {
+                            return;
+                        }
+                        release = true;
+                        written = 0;
+                    }
+                }
+            } finally {
+                if (release) {
+                    writing = 0;
+                }
+            }
+            // Check for requests queued after the last poll, but before releasing the writer
+            if (queue.isEmpty()) {
+                return;
+            }
+        }
+    }
+
+    private boolean handOff() {
+        try {
+            executor.execute(writeTask);
+            return true;
+        } catch (RejectedExecutionException e) {
+            // Just continue writing
+            return false;
+        }
+    }
+
+    void writeFrame(final Frame frame) {
+        OutputStream os = null;
+        try {
+            os = channel.writeMessage();
+            frame.data.writeTo(os);
+            os.close();
+        } catch (IOException e) {
+            writeFailed(frame.request, frame.requestId, e);
+        } catch (Exception e) {
+            writeFailed(frame.request, frame.requestId, new IOException(e));
+        } finally {
+            IoUtils.safeClose(os);
+            frame.data.release();
+        }
+    }
+
+    static final class Frame {
+
+        final FrameOutput data;
+        final int size;
+        final ManagementRequest request;
+        final int requestId;
+
+        Frame(final FrameOutput data, final ManagementRequest request, final int requestId) {
+            this.data = data;
+            this.size = data.size();
+            this.request = request;
+            this.requestId = requestId;
+        }
+    }
+
+}
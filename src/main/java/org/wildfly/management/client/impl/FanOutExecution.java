@@ -0,0 +1,347 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client.impl;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
+import org.wildfly.management.client.FanOutHandler;
+import org.wildfly.management.client.ManagementClientOptions;
+import org.wildfly.management.client.ManagementConnection;
+import org.wildfly.management.client._private.ManagementClientLogger;
+import org.wildfly.management.client._private.ManagementClientMessages;
+import org.xnio.Cancellable;
+import org.xnio.FutureResult;
+import org.xnio.IoFuture;
+import org.xnio.OptionMap;
+
+/**
+ * Executes an operation on many targets, keeping at most a fixed number of targets in progress. Each target borrows a
+ * pooled connection, executes the operation and returns the connection, all without blocking a thread.
+ *
+ * @author Emanuel Muckenhuber
+ */
+class FanOutExecution {
+
+    private final ManagementConnectionPool pool;
+    private final ModelNode operation;
+    private final OptionMap options;
+    private final FanOutHandler handler;
+    private final int parallelism;
+    private final long timeout;
+    private final Executor executor;
+    private final FutureResult<Void> result;
+    private final Object handlerLock = new Object();
+
+    // Guarded by this
+    private final ArrayDeque<InetSocketAddress> pending;
+    private final Set<Target> active = new HashSet<>();
+    private int remaining;
+    private int toStart;
+    private boolean starting;
+    private boolean cancelled;
+
+    FanOutExecution(final ManagementConnectionPool pool, final Collection<InetSocketAddress> targets, final ModelNode operation,
+                    final OptionMap options, final FanOutHandler handler, final Executor executor) {
+        this.pool = pool;
+        this.operation = operation;
+        this.options = options;
+        this.handler = handler;
+        this.parallelism = Math.max(1, options.get(ManagementClientOptions.FAN_OUT_PARALLELISM, ManagementClientDefaults.DEFAULT_FAN_OUT_PARALLELISM));
+        this.timeout = options.get(ManagementClientOptions.FAN_OUT_TIMEOUT, ManagementClientDefaults.DEFAULT_FAN_OUT_TIMEOUT);
+        this.executor = executor;
+        this.result = new FutureResult<>(executor);
+        this.pending = new ArrayDeque<>(targets);
+        this.remaining = pending.size();
+    }
+
+    AsyncFuture<Void> start() {
+        result.addCancelHandler(new Cancellable() {
+            @Override
+            public Cancellable cancel() {
+                cancelAll();
+                return this;
+            }
+        });
+        if (remaining == 0) {
+            result.setResult(null);
+        }
+        startNext(parallelism);
+        return new ManagementRequestFutureImpl<>(result.getIoFuture());
+    }
+
+    /**
+     * Start the next targets. Targets failing right away finish on the starting thread and request the next target
+     * from here, which is then started by the loop rather than recursively.
+     *
+     * @param count the number of targets to start
+     */
+    private void startNext(final int count) {
+        synchronized (this) {
+            toStart += count;
+            if (starting) {
+                // Picked up by the thread starting targets
+                return;
+            }
+            starting = true;
+        }
+        for (;;) {
+            final Target target;
+            synchronized (this) {
+                if (toStart == 0 || cancelled || pending.isEmpty()) {
+                    toStart = 0;
+                    starting = false;
+                    return;
+                }
+                toStart--;
+                target = new Target(pending.poll());
+                active.add(target);
+            }
+            target.start();
+        }
+    }
+
+    private void finished(final Target target) {
+        final boolean last;
+        synchronized (this) {
+            if (!active.remove(target)) {
+                return;
+            }
+            last = --remaining == 0;
+            if (cancelled) {
+                // The result is completed as cancelled by cancelAll()
+                return;
+            }
+        }
+        if (last) {
+            result.setResult(null);
+        } else {
+            startNext(1);
+        }
+    }
+
+    private void cancelAll() {
+        final List<Target> targets;
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            remaining -= pending.size();
+            pending.clear();
+            targets = new ArrayList<>(active);
+        }
+        for (final Target target : targets) {
+            target.cancel();
+        }
+        result.setCancelled();
+    }
+
+    private void deliver(final InetSocketAddress destination, final ModelNode result, final Exception failure) {
+        // Call the handler for one target at a time
+        synchronized (handlerLock) {
+            try {
+                if (failure == null) {
+                    handler.handleResult(destination, result);
+                } else {
+                    handler.handleFailure(destination, failure);
+                }
+            } catch (Throwable t) {
+                ManagementClientLogger.ROOT_LOGGER.fanOutHandlerFailed(t, destination, handler);
+            }
+        }
+    }
+
+    final class Target implements Runnable {
+
+        private final InetSocketAddress destination;
+
+        // Guarded by this
+        private HashedWheelTimer.Timeout deadline;
+        private IoFuture<ManagementConnection> borrow;
+        private ManagementConnection connection;
+        private AsyncFuture<ModelNode> request;
+        private boolean done;
+
+        Target(final InetSocketAddress destination) {
+            this.destination = destination;
+        }
+
+        void start() {
+            // Expire on the executor, the timer thread must not run the handler or cancel the request
+            final HashedWheelTimer.Timeout deadline = ClientExecutors.getRequestTimer().schedule(executor, this, timeout, TimeUnit.MILLISECONDS);
+            synchronized (this) {
+                this.deadline = deadline;
+            }
+            final IoFuture<ManagementConnection> future;
+            try {
+                future = pool.borrowAsync(destination, options, null, null);
+            } catch (IOException e) {
+                complete(null, e);
+                return;
+            }
+            final boolean timedOut;
+            synchronized (this) {
+                timedOut = done;
+                borrow = future;
+            }
+            if (timedOut) {
+                future.cancel();
+            }
+            future.addNotifier(new IoFuture.HandlingNotifier<ManagementConnection, Void>() {
+                @Override
+                public void handleCancelled(Void attachment) {
+                    complete(null, new CancellationException());
+                }
+
+                @Override
+                public void handleFailed(IOException exception, Void attachment) {
+                    complete(null, exception);
+                }
+
+                @Override
+                public void handleDone(final ManagementConnection connection, Void attachment) {
+                    // Notified on the thread completing the connection, which must not wait for an in-flight slot
+                    try {
+                        executor.execute(new Runnable() {
+                            @Override
+                            public void run() {
+                                connected(connection);
+                            }
+                        });
+                    } catch (RejectedExecutionException e) {
+                        StreamUtils.safeClose(connection);
+                        complete(null, e);
+                    }
+                }
+            }, null);
+        }
+
+        private void connected(final ManagementConnection connection) {
+            synchronized (this) {
+                if (done) {
+                    // Timed out or cancelled while connecting, return the connection to the pool
+                    StreamUtils.safeClose(connection);
+                    return;
+                }
+                this.connection = connection;
+            }
+            final AsyncFuture<ModelNode> future;
+            try {
+                future = connection.executeAsync(operation);
+            } catch (IOException e) {
+                complete(null, e);
+                return;
+            }
+            synchronized (this) {
+                request = future;
+            }
+            future.addListener(new AsyncFuture.Listener<ModelNode, Void>() {
+                @Override
+                public void handleComplete(AsyncFuture<? extends ModelNode> future, Void attachment) {
+                    try {
+                        complete(future.get(), null);
+                    } catch (Exception e) {
+                        complete(null, e);
+                    }
+                }
+
+                @Override
+                public void handleFailed(AsyncFuture<? extends ModelNode> future, Throwable cause, Void attachment) {
+                    complete(null, cause instanceof Exception ? (Exception) cause : new IOException(cause));
+                }
+
+                @Override
+                public void handleCancelled(AsyncFuture<? extends ModelNode> future, Void attachment) {
+                    complete(null, new CancellationException());
+                }
+            }, null);
+        }
+
+        @Override
+        public void run() {
+            complete(null, ManagementClientMessages.MESSAGES.fanOutTimedOut(destination, timeout));
+        }
+
+        void cancel() {
+            if (finish()) {
+                finished(this);
+            }
+        }
+
+        private void complete(final ModelNode result, final Exception failure) {
+            if (finish()) {
+                deliver(destination, result, failure);
+                finished(this);
+            }
+        }
+
+        /**
+         * Mark the target as done, cancel a pending borrow or an outstanding request and return the connection to the
+         * pool.
+         *
+         * @return {@code true} if the target was not done before
+         */
+        private boolean finish() {
+            final HashedWheelTimer.Timeout deadline;
+            final IoFuture<ManagementConnection> borrow;
+            final ManagementConnection connection;
+            final AsyncFuture<ModelNode> request;
+            synchronized (this) {
+                if (done) {
+                    return false;
+                }
+                done = true;
+                deadline = this.deadline;
+                borrow = this.borrow;
+                connection = this.connection;
+                request = this.request;
+            }
+            if (deadline != null) {
+                deadline.cancel();
+            }
+            if (borrow != null && connection == null) {
+                // Still waiting for a connection, a borrowed connection is returned by connected()
+                borrow.cancel();
+            }
+            if (request != null && !request.isDone()) {
+                request.asyncCancel(false);
+            }
+            StreamUtils.safeClose(connection);
+            return true;
+        }
+    }
+
+}
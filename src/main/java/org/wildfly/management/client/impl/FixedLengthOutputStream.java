@@ -48,7 +48,8 @@ class FixedLengthOutputStream extends FilterOutputStream {
         if (len > remaining) {
             throw new EOFException();
         }
-        super.write(b, off, len);
+        // Write the whole chunk, FilterOutputStream would write byte by byte
+        out.write(b, off, len);
         remaining -= len;
     }
 
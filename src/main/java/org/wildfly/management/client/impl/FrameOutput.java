@@ -0,0 +1,299 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client.impl;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+
+import org.jboss.remoting3.Channel;
+import org.xnio.BufferAllocator;
+import org.xnio.ByteBufferSlicePool;
+import org.xnio.IoUtils;
+import org.xnio.Pool;
+import org.xnio.Pooled;
+
+/**
+ * A {@link DataOutput} encoding a single protocol message into a pooled buffer. Messages larger than a pooled buffer
+ * continue in a heap buffer, returning the pooled buffer right away.
+ * <p/>
+ * A streaming frame instead opens the message once the pooled buffer is full, and from then on uses the buffer only
+ * to stage the writes. Small messages are still written in a single call, while large ones are neither copied nor
+ * held in memory completely.
+ * <p/>
+ * Not thread safe, the frame is encoded by one thread and written by another one at most.
+ *
+ * @author Emanuel Muckenhuber
+ */
+class FrameOutput implements DataOutput {
+
+    static final int BUFFER_SIZE = 4096;
+    private static final Pool<ByteBuffer> POOL = new ByteBufferSlicePool(BufferAllocator.BYTE_BUFFER_ALLOCATOR, BUFFER_SIZE, BUFFER_SIZE * 64);
+
+    private final Sink sink;
+    private Pooled<ByteBuffer> pooled;
+    private ByteBuffer buffer;
+    private OutputStream stream;
+
+    FrameOutput() {
+        this(POOL, null);
+    }
+
+    FrameOutput(final Pool<ByteBuffer> pool) {
+        this(pool, null);
+    }
+
+    FrameOutput(final Pool<ByteBuffer> pool, final Sink sink) {
+        this.sink = sink;
+        this.pooled = pool.allocate();
+        this.buffer = pooled.getResource();
+        buffer.clear();
+    }
+
+    /**
+     * Create a streaming frame, writing a message on the channel.
+     *
+     * @param channel the channel
+     * @return the frame
+     */
+    static FrameOutput streaming(final Channel channel) {
+        return new FrameOutput(POOL, new Sink() {
+            @Override
+            public OutputStream open() throws IOException {
+                return channel.writeMessage();
+            }
+        });
+    }
+
+    /**
+     * Get the number of bytes written.
+     *
+     * @return the size
+     */
+    int size() {
+        return buffer.position();
+    }
+
+    /**
+     * Write the frame to an output stream.
+     *
+     * @param os the output stream
+     * @throws IOException
+     */
+    void writeTo(final OutputStream os) throws IOException {
+        if (buffer.hasArray()) {
+            os.write(buffer.array(), buffer.arrayOffset(), buffer.position());
+        } else {
+            final ByteBuffer duplicate = buffer.duplicate();
+            duplicate.flip();
+            final byte[] bytes = new byte[duplicate.remaining()];
+            duplicate.get(bytes);
+            os.write(bytes);
+        }
+    }
+
+    /**
+     * Write the remaining bytes of a streaming frame and close the message.
+     *
+     * @throws IOException
+     */
+    void finish() throws IOException {
+        flush();
+        final OutputStream stream = this.stream;
+        this.stream = null;
+        stream.close();
+    }
+
+    /**
+     * Return the pooled buffer and close the message of a streaming frame, if not finished. The frame cannot be used
+     * afterwards.
+     */
+    void release() {
+        final Pooled<ByteBuffer> pooled = this.pooled;
+        this.pooled = null;
+        this.buffer = null;
+        if (pooled != null) {
+            pooled.free();
+        }
+        IoUtils.safeClose(stream);
+        stream = null;
+    }
+
+    private void flush() throws IOException {
+        if (stream == null) {
+            stream = sink.open();
+        }
+        writeTo(stream);
+        buffer.clear();
+    }
+
+    private ByteBuffer ensure(final int n) throws IOException {
+        final ByteBuffer buffer = this.buffer;
+        if (buffer.remaining() >= n) {
+            return buffer;
+        }
+        if (sink != null) {
+            flush();
+            if (buffer.remaining() >= n) {
+                return buffer;
+            }
+        }
+        final ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + n));
+        buffer.flip();
+        grown.put(buffer);
+        if (pooled != null) {
+            pooled.free();
+            pooled = null;
+        }
+        this.buffer = grown;
+        return grown;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        ensure(1).put((byte) b);
+    }
+
+    @Override
+    public void write(final byte[] b) throws IOException {
+        write(b, 0, b.length);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        if (sink != null && len > buffer.remaining()) {
+            flush();
+            if (len > buffer.capacity()) {
+                // Bypass the buffer rather than staging the bytes
+                stream.write(b, off, len);
+                return;
+            }
+        }
+        ensure(len).put(b, off, len);
+    }
+
+    @Override
+    public void writeBoolean(final boolean v) throws IOException {
+        ensure(1).put(v ? (byte) 1 : (byte) 0);
+    }
+
+    @Override
+    public void writeByte(final int v) throws IOException {
+        ensure(1).put((byte) v);
+    }
+
+    @Override
+    public void writeShort(final int v) throws IOException {
+        ensure(2).putShort((short) v);
+    }
+
+    @Override
+    public void writeChar(final int v) throws IOException {
+        ensure(2).putChar((char) v);
+    }
+
+    @Override
+    public void writeInt(final int v) throws IOException {
+        ensure(4).putInt(v);
+    }
+
+    @Override
+    public void writeLong(final long v) throws IOException {
+        ensure(8).putLong(v);
+    }
+
+    @Override
+    public void writeFloat(final float v) throws IOException {
+        ensure(4).putFloat(v);
+    }
+
+    @Override
+    public void writeDouble(final double v) throws IOException {
+        ensure(8).putDouble(v);
+    }
+
+    @Override
+    public void writeBytes(final String s) throws IOException {
+        final int length = s.length();
+        final ByteBuffer buffer = ensure(length);
+        for (int i = 0; i < length; i++) {
+            buffer.put((byte) s.charAt(i));
+        }
+    }
+
+    @Override
+    public void writeChars(final String s) throws IOException {
+        final int length = s.length();
+        final ByteBuffer buffer = ensure(length * 2);
+        for (int i = 0; i < length; i++) {
+            buffer.putChar(s.charAt(i));
+        }
+    }
+
+    @Override
+    public void writeUTF(final String s) throws IOException {
+        // Modified UTF-8, as written by DataOutputStream
+        final int length = s.length();
+        int encoded = 0;
+        for (int i = 0; i < length; i++) {
+            final char c = s.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                encoded++;
+            } else if (c > 0x07FF) {
+                encoded += 3;
+            } else {
+                encoded += 2;
+            }
+        }
+        if (encoded > 65535) {
+            throw new UTFDataFormatException("encoded string too long: " + encoded + " bytes");
+        }
+        final ByteBuffer buffer = ensure(2 + encoded);
+        buffer.putShort((short) encoded);
+        for (int i = 0; i < length; i++) {
+            final char c = s.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                buffer.put((byte) c);
+            } else if (c > 0x07FF) {
+                buffer.put((byte) (0xE0 | ((c >> 12) & 0x0F)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else {
+                buffer.put((byte) (0xC0 | ((c >> 6) & 0x1F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    /**
+     * Opens the message of a streaming frame.
+     */
+    interface Sink {
+
+        OutputStream open() throws IOException;
+
+    }
+
+}
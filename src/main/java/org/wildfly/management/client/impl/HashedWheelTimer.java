@@ -0,0 +1,304 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client.impl;
+
+import static org.wildfly.management.client._private.ManagementClientMessages.MESSAGES;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import org.wildfly.management.client._private.ManagementClientLogger;
+
+/**
+ * A timer for large numbers of timeouts, most of which are cancelled long before they expire. Timeouts are hashed into
+ * the buckets of a wheel, which a single thread advances once per tick. Scheduling and cancelling a timeout only
+ * enqueues it, the buckets are only ever touched by the timer thread. Deadlines are approximated to the tick duration.
+ *
+ * @author Emanuel Muckenhuber
+ */
+final class HashedWheelTimer {
+
+    private static final AtomicIntegerFieldUpdater<HashedWheelTimer> stateUpdater = AtomicIntegerFieldUpdater.newUpdater(HashedWheelTimer.class, "state");
+
+    private static final int INIT = 0;
+    private static final int STARTED = 1;
+    private static final int STOPPED = 2;
+
+    // Transferred per tick at most, so a burst of new timeouts cannot delay the expiry of others
+    private static final int MAX_TRANSFER = 100000;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final long startTime;
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private volatile int state;
+
+    /**
+     * Create a new timer. The timer thread is started once the first timeout is scheduled.
+     *
+     * @param name          the name of the timer thread
+     * @param tickDuration  the duration of a tick
+     * @param unit          the unit of the tick duration
+     * @param ticksPerWheel the number of buckets, rounded up to the next power of two
+     */
+    HashedWheelTimer(final String name, final long tickDuration, final TimeUnit unit, final int ticksPerWheel) {
+        if (tickDuration <= 0) {
+            throw MESSAGES.invalidValue("tickDuration", tickDuration, 0L);
+        }
+        if (ticksPerWheel <= 0) {
+            throw MESSAGES.invalidValue("ticksPerWheel", ticksPerWheel, 0);
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        final int size = Integer.highestOneBit(ticksPerWheel - 1) << 1;
+        this.wheel = new Bucket[Math.max(size, 1)];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = wheel.length - 1;
+        this.startTime = System.nanoTime();
+        this.worker = new Thread(new Worker(), name);
+        this.worker.setDaemon(true);
+    }
+
+    /**
+     * Schedule a task, which is submitted to the executor once the delay elapsed. The task is not run if the timeout
+     * is cancelled before.
+     *
+     * @param executor the executor running the task
+     * @param task     the task
+     * @param delay    the delay
+     * @param unit     the unit of the delay
+     * @return the timeout
+     */
+    Timeout schedule(final Executor executor, final Runnable task, final long delay, final TimeUnit unit) {
+        if (stateUpdater.get(this) == INIT && stateUpdater.compareAndSet(this, INIT, STARTED)) {
+            worker.start();
+        } else if (state == STOPPED) {
+            throw MESSAGES.objectIsClosed("timer");
+        }
+        final long elapsed = System.nanoTime() - startTime;
+        final long delayNanos = unit.toNanos(delay);
+        // Clamp very large delays, which would otherwise overflow into a deadline in the past
+        final long deadline = delayNanos > Long.MAX_VALUE - elapsed ? Long.MAX_VALUE : elapsed + delayNanos;
+        final Timeout timeout = new Timeout(this, executor, task, deadline);
+        scheduled.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Stop the timer. Pending timeouts are discarded without running their tasks.
+     */
+    void stop() {
+        if (stateUpdater.getAndSet(this, STOPPED) == STARTED) {
+            worker.interrupt();
+        }
+    }
+
+    class Worker implements Runnable {
+
+        private long tick;
+
+        @Override
+        public void run() {
+            while (state == STARTED) {
+                final long deadline = tickNanos * (tick + 1);
+                if (!awaitTick(deadline)) {
+                    return;
+                }
+                removeCancelled();
+                transferScheduled();
+                wheel[(int) (tick & mask)].expire();
+                tick++;
+            }
+        }
+
+        private boolean awaitTick(final long deadline) {
+            for (;;) {
+                final long remaining = deadline - (System.nanoTime() - startTime);
+                if (remaining <= 0) {
+                    return true;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.sleep(remaining);
+                } catch (InterruptedException e) {
+                    if (state == STOPPED) {
+                        return false;
+                    }
+                }
+            }
+        }
+
+        private void removeCancelled() {
+            Timeout timeout;
+            while ((timeout = cancelled.poll()) != null) {
+                // Cancelled before it was transferred into a bucket
+                if (timeout.bucket != null) {
+                    timeout.bucket.remove(timeout);
+                }
+            }
+        }
+
+        private void transferScheduled() {
+            for (int i = 0; i < MAX_TRANSFER; i++) {
+                final Timeout timeout = scheduled.poll();
+                if (timeout == null) {
+                    return;
+                }
+                if (timeout.isCancelled()) {
+                    continue;
+                }
+                final long ticks = timeout.deadline / tickNanos;
+                timeout.remainingRounds = (ticks - tick) / wheel.length;
+                // Timeouts which should have expired already go into the current bucket
+                final long target = Math.max(ticks, tick);
+                wheel[(int) (target & mask)].add(timeout);
+            }
+        }
+    }
+
+    /**
+     * A doubly linked list of timeouts, only accessed by the timer thread.
+     */
+    static final class Bucket {
+
+        private Timeout head;
+        private Timeout tail;
+
+        void add(final Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void expire() {
+            Timeout timeout = head;
+            while (timeout != null) {
+                final Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    timeout.expire();
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        void remove(final Timeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            final Timeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+
+    static final class Timeout {
+
+        private static final AtomicIntegerFieldUpdater<Timeout> stateUpdater = AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final HashedWheelTimer timer;
+        private final Executor executor;
+        private final Runnable task;
+        private final long deadline;
+        private volatile int state;
+
+        // Only accessed by the timer thread
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout next;
+        private Timeout prev;
+
+        Timeout(final HashedWheelTimer timer, final Executor executor, final Runnable task, final long deadline) {
+            this.timer = timer;
+            this.executor = executor;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancel the timeout.
+         *
+         * @return {@code true} if the timeout was cancelled, {@code false} if it expired or was cancelled before
+         */
+        boolean cancel() {
+            if (!stateUpdater.compareAndSet(this, PENDING, CANCELLED)) {
+                return false;
+            }
+            timer.cancelled.add(this);
+            return true;
+        }
+
+        boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        boolean isExpired() {
+            return state == EXPIRED;
+        }
+
+        void expire() {
+            if (!stateUpdater.compareAndSet(this, PENDING, EXPIRED)) {
+                return;
+            }
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                ManagementClientLogger.ROOT_LOGGER.timeoutTaskRejected(e, task);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,172 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client.impl;
+
+import static org.wildfly.management.client._private.ManagementClientMessages.MESSAGES;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.jboss.dmr.ModelNode;
+import org.wildfly.management.client.Notification;
+
+/**
+ * A {@link Notification} decoded in two steps. The type, resource and timestamp are decoded when the notification
+ * is received, so filters can reject it cheaply. The message and data are kept in their binary form and only
+ * parsed when first accessed, which usually happens on the thread delivering the notification to the handler.
+ *
+ * @author Emanuel Muckenhuber
+ */
+class LazyNotification extends Notification {
+
+    private final byte[] encodedMessage;
+    private final byte[] encodedData;
+
+    private volatile String message;
+    private volatile ModelNode data;
+
+    LazyNotification(String type, ModelNode resource, long timestamp, byte[] encodedMessage, byte[] encodedData) {
+        super(type, resource, null, timestamp, null);
+        this.encodedMessage = encodedMessage;
+        this.encodedData = encodedData;
+    }
+
+    @Override
+    public String getMessage() {
+        String message = this.message;
+        if (message == null) {
+            synchronized (this) {
+                message = this.message;
+                if (message == null) {
+                    message = decode(encodedMessage).asString();
+                    this.message = message;
+                }
+            }
+        }
+        return message;
+    }
+
+    @Override
+    public ModelNode getData() {
+        if (encodedData == null) {
+            return null;
+        }
+        ModelNode data = this.data;
+        if (data == null) {
+            synchronized (this) {
+                data = this.data;
+                if (data == null) {
+                    data = decode(encodedData);
+                    // Shared by all handlers receiving the notification
+                    data.protect();
+                    this.data = data;
+                }
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Read a notification, decoding only the fields needed for filtering.
+     *
+     * @param input the data input
+     * @return the notification
+     * @throws IOException
+     */
+    static Notification read(final DataInput input) throws IOException {
+        final char type = (char) (input.readByte() & 0xff);
+        if (type != 'o') {
+            throw MESSAGES.invalidType(String.valueOf(type));
+        }
+        String notificationType = null;
+        ModelNode resource = null;
+        long timestamp = -1;
+        boolean hasTimestamp = false;
+        byte[] message = null;
+        byte[] data = null;
+        final int size = input.readInt();
+        for (int i = 0; i < size; i++) {
+            final String key = input.readUTF();
+            switch (key) {
+                case TYPE:
+                    notificationType = readNode(input).asString();
+                    break;
+                case RESOURCE:
+                    resource = readNode(input);
+                    // Shared by all handlers receiving the notification
+                    resource.protect();
+                    break;
+                case TIMESTAMP:
+                    timestamp = readNode(input).asLong();
+                    hasTimestamp = true;
+                    break;
+                case MESSAGE:
+                    message = copyNode(input);
+                    break;
+                case DATA:
+                    final byte[] encoded = copyNode(input);
+                    // An undefined node is encoded as its type char only
+                    data = encoded.length == 1 && encoded[0] == 'u' ? null : encoded;
+                    break;
+                default:
+                    ModelNodeStreamDecoder.skipNode(input);
+            }
+        }
+        if (notificationType == null) {
+            throw MESSAGES.missingNotificationField(TYPE);
+        } else if (resource == null) {
+            throw MESSAGES.missingNotificationField(RESOURCE);
+        } else if (!hasTimestamp) {
+            throw MESSAGES.missingNotificationField(TIMESTAMP);
+        } else if (message == null) {
+            throw MESSAGES.missingNotificationField(MESSAGE);
+        }
+        return new LazyNotification(notificationType, resource, timestamp, message, data);
+    }
+
+    private static ModelNode readNode(final DataInput input) throws IOException {
+        final ModelNode node = new ModelNode();
+        node.readExternal(input);
+        return node;
+    }
+
+    private static byte[] copyNode(final DataInput input) throws IOException {
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        ModelNodeStreamDecoder.copyNode(input, new DataOutputStream(os));
+        return os.toByteArray();
+    }
+
+    private static ModelNode decode(final byte[] encoded) {
+        try {
+            return readNode(new DataInputStream(new ByteArrayInputStream(encoded)));
+        } catch (IOException e) {
+            // The bytes were copied from a well-formed node
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
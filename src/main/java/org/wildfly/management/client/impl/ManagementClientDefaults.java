@@ -42,6 +42,15 @@ class ManagementClientDefaults {
     static final String DEFAULT_ENDPOINT_NAME = "management-client";
     static final String DEFAULT_PROTOCOL = "http-remoting";
     static final int DEFAULT_TIMEOUT = 5000;
+    static final int DEFAULT_POOL_MAX_CONNECTIONS_PER_TARGET = 8;
+    static final int DEFAULT_POOL_IDLE_TIMEOUT = 60000;
+    static final int DEFAULT_CHANNEL_STRIPES = 1;
+    static final int DEFAULT_BATCH_MAX_STEPS = 64;
+    static final int DEFAULT_BATCH_MAX_SIZE = 64 * 1024;
+    static final int DEFAULT_WRITE_COALESCING_THRESHOLD = 64 * 1024;
+    static final int DEFAULT_NOTIFICATION_QUEUE_SIZE = 1024;
+    static final int DEFAULT_FAN_OUT_PARALLELISM = 64;
+    static final int DEFAULT_FAN_OUT_TIMEOUT = 30000;
     static final int DEFAULT_MAX_THREADS = getSystemProperty("org.wildfly.management.client.client-threads", 2);
     static final String CLIENT_BIND_ADDRESS = getSystemProperty("org.wildfly.management.client_socket_bind_address");
 
@@ -22,18 +22,9 @@
 
 package org.wildfly.management.client.impl;
 
-import static java.security.AccessController.doPrivileged;
-
+import java.io.Closeable;
 import java.io.IOException;
-import java.security.AccessControlContext;
-import java.security.AccessController;
-import java.security.PrivilegedAction;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jboss.remoting3.Channel;
 import org.jboss.remoting3.CloseHandler;
@@ -42,9 +33,9 @@ import org.jboss.remoting3.Endpoint;
 import org.jboss.remoting3.Remoting;
 import org.jboss.remoting3.remote.HttpUpgradeConnectionProviderFactory;
 import org.jboss.remoting3.remote.RemoteConnectionProviderFactory;
-import org.jboss.threads.JBossThreadFactory;
 import org.wildfly.management.client.ManagementClient;
 import org.wildfly.management.client.ManagementClientFactory;
+import org.wildfly.management.client.ManagementClientOptions;
 import org.wildfly.management.client.ManagementConnection;
 import org.wildfly.management.client._private.ManagementClientLogger;
 import org.xnio.FutureResult;
@@ -61,22 +52,13 @@ public final class ManagementClientFactoryImpl extends ManagementClientFactory {
     private static final OptionMap DEFAULT_OPTIONS = ManagementClientDefaults.DEFAULT_OPTIONS;
     private static final Xnio xnio = Xnio.getInstance();
 
-    // Global count of created pools
-    private static final AtomicInteger executorCount = new AtomicInteger();
-
     @Override
     protected String getType() {
         return "native";
     }
 
-    static ExecutorService createDefaultExecutor() {
-        final ThreadGroup group = new ThreadGroup("management-client-thread");
-        final ThreadFactory threadFactory = new JBossThreadFactory(group, Boolean.FALSE, null, "%G " + executorCount.incrementAndGet() + "-%t", null, null, doPrivileged(new PrivilegedAction<AccessControlContext>() {
-            public AccessControlContext run() {
-                return AccessController.getContext();
-            }
-        }));
-        return new ThreadPoolExecutor(1, ManagementClientDefaults.DEFAULT_MAX_THREADS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), threadFactory);
+    static ExecutorService createDefaultExecutor(final OptionMap options) {
+        return ClientExecutors.create(options);
     }
 
     static Endpoint createDefaultEndpoint(final OptionMap options) throws IOException {
@@ -95,39 +77,41 @@ public final class ManagementClientFactoryImpl extends ManagementClientFactory {
     @Override
     public ManagementClient createClient(final OptionMap options) throws IOException {
         final OptionMap actual = OptionMap.builder().addAll(DEFAULT_OPTIONS).addAll(options).getMap();
-
-        final Endpoint endpoint = createDefaultEndpoint(actual);
-        final ExecutorService executorService = createDefaultExecutor();
-
-        // Create the client and make sure we cleanup resources on close
-        final ManagementClientImpl client = createClient(endpoint, options, executorService);
-        client.addCloseHandler(new CloseHandler<ManagementClientImpl>() {
-            @Override
-            public void handleClose(ManagementClientImpl closed, IOException exception) {
-                try {
-                    endpoint.close();
-                } catch (IOException e) {
-                    ManagementClientLogger.ROOT_LOGGER.debugf(e, "failed to shutdown endpoint");
-                } finally {
-                    executorService.shutdownNow();
-                }
-            }
-        });
-        return client;
+        return createClient(actual, options, createDefaultExecutor(actual), true);
     }
 
     @Override
     public ManagementClient createClient(ExecutorService executorService, OptionMap options) throws IOException {
         final OptionMap actual = OptionMap.builder().addAll(DEFAULT_OPTIONS).addAll(options).getMap();
-        final Endpoint endpoint = createDefaultEndpoint(actual);
+        return createClient(actual, options, executorService, false);
+    }
+
+    private static ManagementClient createClient(final OptionMap actual, final OptionMap options, final ExecutorService executorService,
+                                                 final boolean shutdownExecutor) throws IOException {
+        final Endpoint endpoint;
+        final Closeable endpointHandle;
+        if (actual.get(ManagementClientOptions.SHARED_ENDPOINT, false)) {
+            final SharedEndpoints.Reference reference = SharedEndpoints.acquire(actual);
+            endpoint = reference.getEndpoint();
+            endpointHandle = reference;
+        } else {
+            endpoint = createDefaultEndpoint(actual);
+            endpointHandle = endpoint;
+        }
+
+        // Create the client and make sure we cleanup resources on close
         final ManagementClientImpl client = createClient(endpoint, options, executorService);
         client.addCloseHandler(new CloseHandler<ManagementClientImpl>() {
             @Override
-            public void handleClose(ManagementClientImpl managementClient, IOException i) {
+            public void handleClose(ManagementClientImpl closed, IOException exception) {
                 try {
-                    endpoint.close();
+                    endpointHandle.close();
                 } catch (IOException e) {
                     ManagementClientLogger.ROOT_LOGGER.debugf(e, "failed to shutdown endpoint");
+                } finally {
+                    if (shutdownExecutor) {
+                        executorService.shutdownNow();
+                    }
                 }
             }
         });
@@ -173,7 +157,7 @@ public final class ManagementClientFactoryImpl extends ManagementClientFactory {
 
             @Override
             public void handleDone(Channel data, Void attachment) {
-                final ManagementConnectionImpl connection = new ManagementConnectionImpl(data, executor);
+                final ManagementConnectionImpl connection = new ManagementConnectionImpl(new Channel[] { data }, executor, options);
                 connectionFuture.setResult(connection);
             }
         }, null);
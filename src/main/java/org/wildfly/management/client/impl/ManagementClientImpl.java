@@ -34,20 +34,28 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.NetworkInterface;
 import java.net.SocketAddress;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
+import org.jboss.dmr.ModelNode;
 import org.jboss.remoting3.Channel;
 import org.jboss.remoting3.CloseHandler;
 import org.jboss.remoting3.Connection;
 import org.jboss.remoting3.Endpoint;
 import org.jboss.remoting3.spi.AbstractHandleableCloseable;
+import org.jboss.threads.AsyncFuture;
+import org.wildfly.management.client.ExecutorMetrics;
+import org.wildfly.management.client.FanOutHandler;
 import org.wildfly.management.client.ManagementClient;
 import org.wildfly.management.client.ManagementClientOptions;
 import org.wildfly.management.client.ManagementConnection;
@@ -75,6 +83,7 @@ class ManagementClientImpl extends AbstractHandleableCloseable<ManagementClientI
 
     private final Endpoint endpoint;
     private final OptionMap options;
+    private final ManagementConnectionPool pool = new ManagementConnectionPool(this);
     private final StackTraceElement[] allocationStackTrace;
     private final CloseHandler<ManagementConnectionImpl> connectionCloseHandler = new CloseHandler<ManagementConnectionImpl>() {
         @Override
@@ -116,21 +125,74 @@ class ManagementClientImpl extends AbstractHandleableCloseable<ManagementClientI
         return internalConnect(address, options, callbackHandler, sslContext);
     }
 
+    @Override
+    public Future<ManagementConnection> openPooledConnection(String host, int port, OptionMap options) throws IOException {
+        return openPooledConnection(host, port, null, null, options);
+    }
+
+    @Override
+    public Future<ManagementConnection> openPooledConnection(String host, int port, CallbackHandler callbackHandler, SSLContext sslContext, OptionMap options) throws IOException {
+        final InetSocketAddress address = new InetSocketAddress(host, port);
+        return pool.borrow(address, options, callbackHandler, sslContext);
+    }
+
+    @Override
+    public AsyncFuture<Void> executeFanOut(final Collection<InetSocketAddress> targets, final ModelNode operation, final OptionMap options,
+                                           final FanOutHandler handler) throws IOException {
+        if (!isOpen()) {
+            throw new IOException("client is closed");
+        }
+        return new FanOutExecution(pool, targets, operation, options, handler, getExecutor()).start();
+    }
+
+    @Override
+    public ExecutorMetrics getExecutorMetrics() {
+        return ClientExecutors.getMetrics(getExecutor());
+    }
+
+    @Override
+    protected Executor getExecutor() {
+        // Visible to the connection pool, which evicts idle connections using the client executor
+        return super.getExecutor();
+    }
+
     Future<ManagementConnection> internalConnect(final InetSocketAddress destination,
                                                  final OptionMap connectOptions, final CallbackHandler callbackHandler,
                                                  final SSLContext sslContext) throws IOException {
 
-        final CallbackHandler actualHandler = callbackHandler != null ? callbackHandler : new AnonymousCallbackHandler();
-        final ManagementConnectionFuture.WrapperCallbackHandler wrapperHandler = new ManagementConnectionFuture.WrapperCallbackHandler(actualHandler);
-        final OptionMap.Builder builder = OptionMap.builder().addAll(options).addAll(connectOptions);
-        configureSaslMechnisms(null, isLocal(destination.getHostString()), builder);
-        final OptionMap options = builder.getMap();
+        final ManagementConnectionFuture.WrapperCallbackHandler wrapperHandler = createCallbackHandler(callbackHandler);
+        final IoFuture<ManagementConnection> future = internalConnect(destination, connectOptions, wrapperHandler, sslContext);
+        long timeoutMillis = connectOptions.get(ManagementClientOptions.CONNECTION_TIMEOUT, ManagementClientDefaults.DEFAULT_TIMEOUT);
+        return new ManagementConnectionFuture(wrapperHandler, future, timeoutMillis);
+    }
+
+    IoFuture<ManagementConnection> internalConnect(final InetSocketAddress destination, final OptionMap connectOptions,
+                                                   final ManagementConnectionFuture.WrapperCallbackHandler wrapperHandler,
+                                                   final SSLContext sslContext) throws IOException {
+
+        final OptionMap options = getConnectionOptions(destination, connectOptions);
         final String protocol = options.get(ManagementClientOptions.PROTOCOL, ManagementClientDefaults.DEFAULT_PROTOCOL);
         final String bindAddressString = options.get(ManagementClientOptions.CLIENT_BIND_ADDRESS, null);
         final InetSocketAddress bindAddress = bindAddressString != null ? new InetSocketAddress(bindAddressString, 0) : null;
-        final IoFuture<ManagementConnection> future = internalOpenConnection(protocol, bindAddress, destination, options, wrapperHandler, sslContext);
-        long timeoutMillis = connectOptions.get(ManagementClientOptions.CONNECTION_TIMEOUT, ManagementClientDefaults.DEFAULT_TIMEOUT);
-        return new ManagementConnectionFuture(wrapperHandler, future, timeoutMillis);
+        return internalOpenConnection(protocol, bindAddress, destination, options, wrapperHandler, sslContext);
+    }
+
+    /**
+     * Get the effective options for a connection, merging the client and the connection options.
+     *
+     * @param destination    the destination
+     * @param connectOptions the connection options
+     * @return the connection options
+     */
+    OptionMap getConnectionOptions(final InetSocketAddress destination, final OptionMap connectOptions) {
+        final OptionMap.Builder builder = OptionMap.builder().addAll(options).addAll(connectOptions);
+        configureSaslMechnisms(null, isLocal(destination.getHostString()), builder);
+        return builder.getMap();
+    }
+
+    static ManagementConnectionFuture.WrapperCallbackHandler createCallbackHandler(final CallbackHandler callbackHandler) {
+        final CallbackHandler actualHandler = callbackHandler != null ? callbackHandler : new AnonymousCallbackHandler();
+        return new ManagementConnectionFuture.WrapperCallbackHandler(actualHandler);
     }
 
     IoFuture<ManagementConnection> internalOpenConnection(final String protocol, final SocketAddress bindAddress, final SocketAddress destination,
@@ -161,38 +223,8 @@ class ManagementClientImpl extends AbstractHandleableCloseable<ManagementClientI
 
                 @Override
                 public void handleDone(Connection connection, Void attachment) {
-                    final IoFuture<Channel> channelFuture = connection.openChannel(CHANNEL_TYPE, connectOptions);
-                    final Connection underlyingConnection = connection;
-                    channelFuture.addNotifier(new HandlingNotifier<Channel, Void>() {
-                        @Override
-                        public void handleCancelled(Void attachment) {
-                            connectionClosed(null);
-                            result.setCancelled();
-                        }
-
-                        @Override
-                        public void handleFailed(IOException exception, Void attachment) {
-                            connectionClosed(null);
-                            result.setException(exception);
-                        }
-
-                        @Override
-                        public void handleDone(Channel channel, Void attachment) {
-                            final ManagementConnectionImpl connection = new ManagementConnectionImpl(channel, getExecutor());
-                            // Track the connection as part of this client
-                            connections.add(connection);
-                            // Close the underlying connection
-                            connection.addCloseHandler(new CloseHandler<ManagementConnectionImpl>() {
-                                @Override
-                                public void handleClose(ManagementConnectionImpl closed, IOException exception) {
-                                    underlyingConnection.closeAsync();
-                                }
-                            });
-                            // remove the connection from the client
-                            connection.addCloseHandler(connectionCloseHandler);
-                            result.setResult(connection);
-                        }
-                    }, null);
+                    final int stripes = connectOptions.get(ManagementClientOptions.CHANNEL_STRIPES, ManagementClientDefaults.DEFAULT_CHANNEL_STRIPES);
+                    openChannels(connection, Math.max(1, stripes), connectOptions, result);
                 }
             }, null);
             result.addCancelHandler(new Cancellable() {
@@ -211,6 +243,66 @@ class ManagementClientImpl extends AbstractHandleableCloseable<ManagementClientI
         return result.getIoFuture();
     }
 
+    /**
+     * Open the management channels on the underlying connection. The management connection is created once all
+     * channels are opened.
+     *
+     * @param underlyingConnection the remoting connection
+     * @param stripes              the number of channels
+     * @param connectOptions       the connection options
+     * @param result               the future result
+     */
+    private void openChannels(final Connection underlyingConnection, final int stripes, final OptionMap connectOptions,
+                              final FutureResult<ManagementConnection> result) {
+        final Channel[] channels = new Channel[stripes];
+        final AtomicInteger remaining = new AtomicInteger(stripes);
+        final AtomicBoolean failed = new AtomicBoolean();
+        for (int i = 0; i < stripes; i++) {
+            final int index = i;
+            final IoFuture<Channel> channelFuture = underlyingConnection.openChannel(CHANNEL_TYPE, connectOptions);
+            channelFuture.addNotifier(new HandlingNotifier<Channel, Void>() {
+                @Override
+                public void handleCancelled(Void attachment) {
+                    if (failed.compareAndSet(false, true)) {
+                        connectionClosed(null);
+                        underlyingConnection.closeAsync();
+                        result.setCancelled();
+                    }
+                }
+
+                @Override
+                public void handleFailed(IOException exception, Void attachment) {
+                    if (failed.compareAndSet(false, true)) {
+                        connectionClosed(null);
+                        underlyingConnection.closeAsync();
+                        result.setException(exception);
+                    }
+                }
+
+                @Override
+                public void handleDone(Channel channel, Void attachment) {
+                    channels[index] = channel;
+                    if (remaining.decrementAndGet() > 0) {
+                        return;
+                    }
+                    final ManagementConnectionImpl connection = new ManagementConnectionImpl(channels, getExecutor(), connectOptions);
+                    // Track the connection as part of this client
+                    connections.add(connection);
+                    // Close the underlying connection
+                    connection.addCloseHandler(new CloseHandler<ManagementConnectionImpl>() {
+                        @Override
+                        public void handleClose(ManagementConnectionImpl closed, IOException exception) {
+                            underlyingConnection.closeAsync();
+                        }
+                    });
+                    // remove the connection from the client
+                    connection.addCloseHandler(connectionCloseHandler);
+                    result.setResult(connection);
+                }
+            }, null);
+        }
+    }
+
     protected void connectionClosed(final ManagementConnectionImpl connection) {
         int res = stateUpdater.decrementAndGet(this);
         if (res == CLOSED_FLAG) {
@@ -227,6 +319,7 @@ class ManagementClientImpl extends AbstractHandleableCloseable<ManagementClientI
         do {
             res = state;
         } while (!stateUpdater.compareAndSet(this, res, res | CLOSED_FLAG));
+        pool.close();
         if (res == 0) {
             closeComplete();
         } else {
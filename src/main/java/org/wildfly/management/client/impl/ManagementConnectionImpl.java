@@ -31,31 +31,46 @@ import static org.wildfly.management.client.impl.ManagementProtocol.HANDLE_REPOR
 import static org.wildfly.management.client.impl.ManagementProtocol.REGISTER_NOTIFICATION_HANDLER_REQUEST;
 import static org.wildfly.management.client.impl.ManagementProtocol.UNREGISTER_NOTIFICATION_HANDLER_REQUEST;
 
-import java.io.Closeable;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 import org.jboss.dmr.ModelNode;
 import org.jboss.remoting3.Channel;
 import org.jboss.remoting3.CloseHandler;
 import org.jboss.remoting3.spi.AbstractHandleableCloseable;
+import org.jboss.threads.AsyncFuture;
+import org.wildfly.management.client.ManagementClientOptions;
 import org.wildfly.management.client.ManagementConnection;
+import org.wildfly.management.client.ModelNodeStreamHandler;
 import org.wildfly.management.client.Notification;
 import org.wildfly.management.client.NotificationFilter;
 import org.wildfly.management.client.NotificationHandler;
+import org.wildfly.management.client.NotificationOverflowPolicy;
+import org.wildfly.management.client.NotificationRegistration;
 import org.wildfly.management.client.OperationStreamAttachments;
+import org.wildfly.management.client.OperationTemplate;
+import org.wildfly.management.client.ResponseProjection;
 import org.wildfly.management.client._private.ManagementClientLogger;
 import org.wildfly.management.client._private.ManagementClientMessages;
 import org.xnio.FutureResult;
+import org.xnio.IoFuture;
 import org.xnio.IoUtils;
+import org.xnio.OptionMap;
 
 /**
  * The management connection implementation.
@@ -64,9 +79,18 @@ import org.xnio.IoUtils;
  */
 class ManagementConnectionImpl extends AbstractHandleableCloseable<ManagementConnectionImpl> implements ManagementConnection, CloseHandler<Channel> {
 
-    private final Channel channel;
+    private final Stripe[] stripes;
     private final Channel.Receiver receiver;
-    private final ConcurrentMap<Integer, ManagementRequest> requests = new ConcurrentHashMap<>(16, 0.75f, Runtime.getRuntime().availableProcessors());
+    private final int batchMaxSteps;
+    private final int batchMaxSize;
+    private final boolean chunkedAttachments;
+    private final int notificationQueueSize;
+    private final NotificationOverflowPolicy notificationOverflowPolicy;
+    private final Semaphore inFlight; // null if the number of in-flight requests is unlimited
+    private final long defaultTimeout; // in nanoseconds, 0 if requests do not time out
+    private final ManagementRequestTable requests = new ManagementRequestTable();
+    private final Map<ModelNode, RegisterNotificationHandler> notificationRegistrations = new HashMap<>();
+    private final Set<Integer> expiredRequests = Collections.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
 
     private volatile int state = 0;
     private volatile int count = 0;
@@ -74,10 +98,35 @@ class ManagementConnectionImpl extends AbstractHandleableCloseable<ManagementCon
     private static final AtomicIntegerFieldUpdater<ManagementConnectionImpl> stateUpdater = AtomicIntegerFieldUpdater.newUpdater(ManagementConnectionImpl.class, "state");
     private static final AtomicIntegerFieldUpdater<ManagementConnectionImpl> counter = AtomicIntegerFieldUpdater.newUpdater(ManagementConnectionImpl.class, "count");
 
-    ManagementConnectionImpl(final Channel channel, final Executor executor) {
+    /**
+     * Create a management connection, striping requests across the channels of the same remoting connection. Requests are
+     * sent on the channel with the least in-flight requests, follow-up messages such as a cancellation or
+     * unregistering a notification handler are sent on the channel of the originating request.
+     *
+     * @param channels the management channels
+     * @param executor the executor
+     * @param options  the connection options
+     */
+    ManagementConnectionImpl(final Channel[] channels, final Executor executor, final OptionMap options) {
         super(executor);
-        this.channel = channel;
-        channel.addCloseHandler(this);
+        assert channels.length > 0;
+        this.batchMaxSteps = options.get(ManagementClientOptions.BATCH_MAX_STEPS, ManagementClientDefaults.DEFAULT_BATCH_MAX_STEPS);
+        this.batchMaxSize = options.get(ManagementClientOptions.BATCH_MAX_SIZE, ManagementClientDefaults.DEFAULT_BATCH_MAX_SIZE);
+        this.chunkedAttachments = options.get(ManagementClientOptions.CHUNKED_ATTACHMENTS, false);
+        this.notificationQueueSize = options.get(ManagementClientOptions.NOTIFICATION_QUEUE_SIZE, ManagementClientDefaults.DEFAULT_NOTIFICATION_QUEUE_SIZE);
+        final NotificationOverflowPolicy policy = options.get(ManagementClientOptions.NOTIFICATION_OVERFLOW_POLICY);
+        this.notificationOverflowPolicy = policy != null ? policy : NotificationOverflowPolicy.DROP_OLDEST;
+        final int maxInFlight = options.get(ManagementClientOptions.MAX_IN_FLIGHT_REQUESTS, 0);
+        this.inFlight = maxInFlight > 0 ? new Semaphore(maxInFlight, options.get(ManagementClientOptions.IN_FLIGHT_FAIR, false)) : null;
+        this.defaultTimeout = TimeUnit.MILLISECONDS.toNanos(options.get(ManagementClientOptions.REQUEST_TIMEOUT, 0));
+        final boolean coalescing = options.get(ManagementClientOptions.WRITE_COALESCING, false);
+        final int coalescingThreshold = options.get(ManagementClientOptions.WRITE_COALESCING_THRESHOLD, ManagementClientDefaults.DEFAULT_WRITE_COALESCING_THRESHOLD);
+        this.stripes = new Stripe[channels.length];
+        for (int i = 0; i < channels.length; i++) {
+            final CoalescingWriter writer = coalescing ? createWriter(channels[i], executor, coalescingThreshold) : null;
+            stripes[i] = new Stripe(channels[i], writer);
+            channels[i].addCloseHandler(this);
+        }
         // Create the receiver
         receiver = new ManagementClientChannelReceiver() {
             @Override
@@ -91,7 +140,9 @@ class ManagementConnectionImpl extends AbstractHandleableCloseable<ManagementCon
             }
         };
         // Start receiving messages, maybe this should only happen after the first request?
-        channel.receiveMessage(receiver);
+        for (final Channel channel : channels) {
+            channel.receiveMessage(receiver);
+        }
     }
 
     @Override
@@ -101,71 +152,261 @@ class ManagementConnectionImpl extends AbstractHandleableCloseable<ManagementCon
 
     @Override
     public ModelNode execute(final ModelNode operation, final OperationStreamAttachments attachments) throws IOException {
-        return internalExecute(operation, attachments).futureResult.getIoFuture().get();
+        return internalExecute(OperationEncoder.of(operation), attachments, ResponseDecoder.MODEL_NODE).futureResult.getIoFuture().get();
     }
 
     @Override
-    public Future<ModelNode> executeAsync(final ModelNode operation) throws IOException {
+    public AsyncFuture<ModelNode> executeAsync(final ModelNode operation) throws IOException {
         return executeAsync(operation, OperationStreamAttachments.NO_ATTACHMENTS);
     }
 
     @Override
-    public Future<ModelNode> executeAsync(final ModelNode operation, final OperationStreamAttachments attachments) throws IOException {
-        return internalExecute(operation, attachments);
+    public AsyncFuture<ModelNode> tryExecuteAsync(final ModelNode operation) throws IOException {
+        // A zero timeout rather than tryAcquire(), which would barge ahead of waiting callers on a fair semaphore
+        return tryExecuteAsync(operation, 0, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public AsyncFuture<ModelNode> tryExecuteAsync(final ModelNode operation, final long timeout, final TimeUnit unit) throws IOException {
+        return tryExecute(OperationEncoder.of(operation), OperationStreamAttachments.NO_ATTACHMENTS, timeout, unit);
+    }
+
+    @Override
+    public AsyncFuture<ModelNode> executeAsync(final ModelNode operation, final OperationStreamAttachments attachments) throws IOException {
+        return internalExecute(OperationEncoder.of(operation), attachments, ResponseDecoder.MODEL_NODE);
+    }
+
+    @Override
+    public AsyncFuture<ModelNode> tryExecuteAsync(final ModelNode operation, final OperationStreamAttachments attachments) throws IOException {
+        return tryExecute(OperationEncoder.of(operation), attachments, 0, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public ModelNode execute(final ModelNode operation, final long timeout, final TimeUnit unit) throws IOException {
+        return internalExecute(OperationEncoder.of(operation), OperationStreamAttachments.NO_ATTACHMENTS, ResponseDecoder.MODEL_NODE, unit.toNanos(timeout)).futureResult.getIoFuture().get();
+    }
+
+    @Override
+    public AsyncFuture<ModelNode> executeAsync(final ModelNode operation, final long timeout, final TimeUnit unit) throws IOException {
+        return internalExecute(OperationEncoder.of(operation), OperationStreamAttachments.NO_ATTACHMENTS, ResponseDecoder.MODEL_NODE, unit.toNanos(timeout));
+    }
+
+    @Override
+    public ModelNode execute(final ModelNode operation, final ResponseProjection projection) throws IOException {
+        return internalExecute(OperationEncoder.of(operation), OperationStreamAttachments.NO_ATTACHMENTS, new ProjectionDecoder(projection)).futureResult.getIoFuture().get();
+    }
+
+    @Override
+    public AsyncFuture<ModelNode> executeAsync(final ModelNode operation, final ResponseProjection projection) throws IOException {
+        return internalExecute(OperationEncoder.of(operation), OperationStreamAttachments.NO_ATTACHMENTS, new ProjectionDecoder(projection));
+    }
+
+    @Override
+    public ModelNode execute(final OperationTemplate template, final ModelNode... values) throws IOException {
+        return internalExecute(OperationEncoder.of(template, values), OperationStreamAttachments.NO_ATTACHMENTS, ResponseDecoder.MODEL_NODE).futureResult.getIoFuture().get();
+    }
+
+    @Override
+    public AsyncFuture<ModelNode> executeAsync(final OperationTemplate template, final ModelNode... values) throws IOException {
+        return internalExecute(OperationEncoder.of(template, values), OperationStreamAttachments.NO_ATTACHMENTS, ResponseDecoder.MODEL_NODE);
+    }
+
+    @Override
+    public AsyncFuture<ModelNode> tryExecuteAsync(final OperationTemplate template, final ModelNode... values) throws IOException {
+        return tryExecute(OperationEncoder.of(template, values), OperationStreamAttachments.NO_ATTACHMENTS, 0, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public <T> AsyncFuture<T> executeStreaming(final ModelNode operation, final ModelNodeStreamHandler<T> handler) throws IOException {
+        return executeStreaming(operation, OperationStreamAttachments.NO_ATTACHMENTS, handler);
+    }
+
+    @Override
+    public <T> AsyncFuture<T> executeStreaming(final ModelNode operation, final OperationStreamAttachments attachments, final ModelNodeStreamHandler<T> handler) throws IOException {
+        return internalExecute(OperationEncoder.of(operation), attachments, new ModelNodeStreamDecoder<>(handler));
+    }
+
+    @Override
+    public List<AsyncFuture<ModelNode>> executeBatch(final List<ModelNode> operations) throws IOException {
+        return OperationBatcher.executeBatch(this, operations, batchMaxSteps, batchMaxSize);
+    }
+
+    private <T> ExecuteRequest<T> internalExecute(final OperationEncoder operation, final OperationStreamAttachments attachments, final ResponseDecoder<T> decoder) throws IOException {
+        return internalExecute(operation, attachments, decoder, defaultTimeout);
+    }
+
+    private <T> ExecuteRequest<T> internalExecute(final OperationEncoder operation, final OperationStreamAttachments attachments, final ResponseDecoder<T> decoder, final long timeout) throws IOException {
+        if (inFlight != null) {
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
+        return submit(operation, attachments, decoder, timeout);
     }
 
-    private ExecuteRequest internalExecute(final ModelNode operation, final OperationStreamAttachments attachments) throws IOException {
-        ExecuteRequest request;
-        final FutureResult<ModelNode> result = new FutureResult<>();
+    private AsyncFuture<ModelNode> tryExecute(final OperationEncoder operation, final OperationStreamAttachments attachments, final long timeout, final TimeUnit unit) throws IOException {
+        if (inFlight != null) {
+            try {
+                if (!inFlight.tryAcquire(timeout, unit)) {
+                    return null;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
+        return submit(operation, attachments, ResponseDecoder.MODEL_NODE, defaultTimeout);
+    }
+
+    /**
+     * Register and write an execute request, once admitted. The in-flight permit is released when the request finishes,
+     * including a failure to write it. A request with a timeout is failed and cancelled once it expires.
+     */
+    private <T> ExecuteRequest<T> submit(final OperationEncoder operation, final OperationStreamAttachments attachments, final ResponseDecoder<T> decoder, final long timeout) throws IOException {
+        ExecuteRequest<T> request;
+        // Notify listeners using the executor, rather than the remoting thread completing the request
+        final FutureResult<T> result = new FutureResult<>(getExecutor());
         for (;;) {
             final int requestID = counter.incrementAndGet(this);
-            request = new ExecuteRequest(requestID, operation, attachments, result);
-            if (requests.putIfAbsent(requestID, request) == null) {
+            request = new ExecuteRequest<>(requestID, selectStripe(requestID), operation, attachments, decoder, result);
+            if (requests.register(request)) {
                 break;
             }
         }
-        writeRequest(request, request.id);
+        request.stripe.requestStarted();
+        if (timeout > 0) {
+            // Started before writing, so a stalled write counts against the deadline as well
+            request.startTimer(timeout);
+        }
+        writeRequest(request, request.id, request.stripe);
         return request;
     }
 
     @Override
-    public Closeable registerNotificationHandler(final ModelNode address, final NotificationHandler handler, final NotificationFilter filter) {
+    public NotificationRegistration registerNotificationHandler(final ModelNode address, final NotificationHandler handler, final NotificationFilter filter) {
+        final AsyncFuture<NotificationRegistration> future = registerNotificationHandlerAsync(address, handler, filter);
+        // Wait until the notification listener is registered
+        try {
+            return future.getUninterruptibly();
+        } catch (ExecutionException e) {
+            throw ManagementClientMessages.MESSAGES.notificationRegistrationFailed(e.getCause(), address.asString());
+        }
+    }
+
+    @Override
+    public AsyncFuture<NotificationRegistration> registerNotificationHandlerAsync(final ModelNode address, final NotificationHandler handler, final NotificationFilter filter) {
+        final NotificationQueue queue = new NotificationQueue(handler, filter, getExecutor(), notificationQueueSize, notificationOverflowPolicy);
+        final ModelNode key = address.clone();
+        key.protect();
         RegisterNotificationHandler request;
+        boolean created = false;
+        // Handlers on the same address share the remote registration
+        synchronized (notificationRegistrations) {
+            request = notificationRegistrations.get(key);
+            if (request == null) {
+                for (;;) {
+                    final int requestID = counter.incrementAndGet(this);
+                    // Notifications are delivered on the channel the handler got registered on
+                    request = new RegisterNotificationHandler(requestID, key, selectStripe(requestID));
+                    if (requests.register(request)) {
+                        break;
+                    }
+                }
+                notificationRegistrations.put(key, request);
+                created = true;
+            }
+            request.handler.add(queue);
+        }
+        if (created) {
+            try {
+                writeRequest(request, request.getOperationId(), request.stripe);
+            } catch (IOException e) {
+                // The request failed already
+            }
+        }
+        final RegisterNotificationHandler registration = request;
+        final FutureResult<NotificationRegistration> result = new FutureResult<>(getExecutor());
+        registration.futureResult.getIoFuture().addNotifier(new IoFuture.HandlingNotifier<ModelNode, Void>() {
+            @Override
+            public void handleDone(ModelNode data, Void attachment) {
+                result.setResult(new LocalNotificationRegistration(registration, queue));
+            }
+
+            @Override
+            public void handleFailed(IOException exception, Void attachment) {
+                removeFailed();
+                result.setException(exception);
+            }
+
+            @Override
+            public void handleCancelled(Void attachment) {
+                removeFailed();
+                result.setCancelled();
+            }
+
+            private void removeFailed() {
+                // Don't let later handlers join a failed registration
+                removeRegistration(registration);
+                registration.handler.remove(queue);
+                queue.close();
+            }
+        }, null);
+        return new ManagementRequestFutureImpl<>(result.getIoFuture());
+    }
+
+    private AsyncFuture<Void> unregisterNotificationHandler(final RegisterNotificationHandler registration, final NotificationQueue queue) {
+        final FutureResult<Void> result = new FutureResult<>(getExecutor());
+        queue.close();
+        synchronized (notificationRegistrations) {
+            if (!registration.handler.remove(queue) || !registration.handler.isEmpty()) {
+                result.setResult(null);
+                return new ManagementRequestFutureImpl<>(result.getIoFuture());
+            }
+            removeRegistration(registration);
+        }
+        // Last local handler, remove the remote registration
+        UnregisterNotificationHandler request;
+        int requestID;
         for (;;) {
-            final int requestID = counter.incrementAndGet(this);
-            final NotificationExecutionContext context = new NotificationExecutionContext(handler, filter);
-            request = new RegisterNotificationHandler(requestID, address, context);
-            if (requests.putIfAbsent(requestID, request) == null) {
+            requestID = counter.incrementAndGet(ManagementConnectionImpl.this);
+            request = new UnregisterNotificationHandler(requestID, registration.getOperationId());
+            if (requests.register(request)) {
                 break;
             }
         }
         try {
-            writeRequest(request, request.getOperationId());
+            writeRequest(request, requestID, registration.stripe);
         } catch (IOException e) {
-            throw new RuntimeException(e);
+            // The request failed already
         }
-        final int batchID = request.getOperationId();
-        final Closeable registration = new Closeable() {
+        request.futureResult.getIoFuture().addNotifier(new IoFuture.HandlingNotifier<ModelNode, Void>() {
             @Override
-            public void close() throws IOException {
-                UnregisterNotificationHandler request;
-                int requestID;
-                for (;;) {
-                    requestID = counter.incrementAndGet(ManagementConnectionImpl.this);
-                    request = new UnregisterNotificationHandler(batchID);
-                    if (requests.putIfAbsent(requestID, request) == null) {
-                        break;
-                    }
-                }
-                writeRequest(request, requestID);
-                // Wait until the notification listener is unregistered
-                request.futureResult.getIoFuture().await();
+            public void handleDone(ModelNode data, Void attachment) {
+                result.setResult(null);
+            }
 
+            @Override
+            public void handleFailed(IOException exception, Void attachment) {
+                result.setException(exception);
             }
-        };
-        // Wait until the notification listener is registered
-        request.futureResult.getIoFuture().await();
-        return registration;
+
+            @Override
+            public void handleCancelled(Void attachment) {
+                result.setCancelled();
+            }
+        }, null);
+        return new ManagementRequestFutureImpl<>(result.getIoFuture());
+    }
+
+    private void removeRegistration(final RegisterNotificationHandler registration) {
+        synchronized (notificationRegistrations) {
+            if (notificationRegistrations.get(registration.address) == registration) {
+                notificationRegistrations.remove(registration.address);
+            }
+        }
     }
 
     @Override
@@ -173,6 +414,15 @@ class ManagementConnectionImpl extends AbstractHandleableCloseable<ManagementCon
         closeAsync();
     }
 
+    /**
+     * Check whether the connection is still usable.
+     *
+     * @return {@code true} if the connection is not closed, {@code false} otherwise
+     */
+    boolean isConnected() {
+        return (stateUpdater.get(this) & CLOSED_FLAG) == 0;
+    }
+
     protected void requestFinished(final int requestID) {
         requests.remove(requestID);
         int res = stateUpdater.decrementAndGet(this);
@@ -199,7 +449,9 @@ class ManagementConnectionImpl extends AbstractHandleableCloseable<ManagementCon
     @Override
     protected void closeComplete() {
         try {
-            channel.closeAsync(); // make sure the channel is closed
+            for (final Stripe stripe : stripes) {
+                stripe.channel.closeAsync(); // make sure the channel is closed
+            }
         } finally {
             super.closeComplete();
         }
@@ -215,19 +467,52 @@ class ManagementConnectionImpl extends AbstractHandleableCloseable<ManagementCon
         } while (!stateUpdater.compareAndSet(this, old, old + 1));
     }
 
-    protected void writeRequest(final ManagementRequest request, int requestId) throws IOException {
+    /**
+     * Select the stripe for a new request, which is the one with the least in-flight requests.
+     *
+     * @param requestId the request id, used to spread requests across stripes with the same load
+     * @return the stripe
+     */
+    Stripe selectStripe(final int requestId) {
+        final Stripe[] stripes = this.stripes;
+        final int length = stripes.length;
+        if (length == 1) {
+            return stripes[0];
+        }
+        final int offset = (requestId & Integer.MAX_VALUE) % length;
+        Stripe selected = stripes[offset];
+        int min = selected.active;
+        for (int i = 1; i < length && min > 0; i++) {
+            final Stripe stripe = stripes[(offset + i) % length];
+            final int active = stripe.active;
+            if (active < min) {
+                selected = stripe;
+                min = active;
+            }
+        }
+        return selected;
+    }
+
+    protected void writeRequest(final ManagementRequest request, int requestId, final Stripe stripe) throws IOException {
         boolean ok = false;
         try {
             increaseRequestCount();
             final ManagementRequestHeader header = new ManagementRequestHeader(ManagementProtocol.VERSION, requestId, request.getOperationId(), request.getRequestType());
-            final DataOutputStream os = new DataOutputStream(channel.writeMessage());
-            try {
-                header.write(os);
-                request.writeRequest(os);
-                os.close();
+            if (stripe.writer != null) {
+                // Write failures are reported asynchronously
+                stripe.writer.write(header, request);
                 ok = true;
-            } finally {
-                IoUtils.safeClose(os);
+            } else {
+                // Small messages are written in a single call, larger ones are streamed once the buffer is full
+                final FrameOutput output = FrameOutput.streaming(stripe.channel);
+                try {
+                    header.write(output);
+                    request.writeRequest(output);
+                    output.finish();
+                    ok = true;
+                } finally {
+                    output.release();
+                }
             }
         } catch (IOException e) {
             request.handleFailure(e);
@@ -243,25 +528,49 @@ class ManagementConnectionImpl extends AbstractHandleableCloseable<ManagementCon
         }
     }
 
-    protected void cancelRequest(final ExecuteRequest original) {
+    private CoalescingWriter createWriter(final Channel channel, final Executor executor, final int threshold) {
+        return new CoalescingWriter(channel, executor, threshold) {
+            @Override
+            protected void writeFailed(ManagementRequest request, int requestId, IOException exception) {
+                request.handleFailure(exception);
+                requests.remove(requestId);
+            }
+        };
+    }
+
+    protected void cancelRequest(final ExecuteRequest<?> original) {
         try {
             CancelRequest request;
             for (;;) {
                 final int requestID = counter.incrementAndGet(this);
                 request = new CancelRequest(requestID, original);
-                if (requests.putIfAbsent(requestID, request) == null) {
+                if (requests.register(request)) {
                     break;
                 }
             }
-            writeRequest(request, request.requestID);
+            writeRequest(request, request.requestID, original.stripe);
         } catch (IOException e) {
-            // Maybe cancel the request all the time?
-            if ((stateUpdater.get(this) & CLOSED_FLAG) != 0) {
-                original.setCancelled();
-            }
+            // The server will not respond to the original request either, unless it completed already
+            original.setCancelled();
         }
     }
 
+    /**
+     * Remember an expired request for a while, so its late response is not reported as a response to an unknown request.
+     *
+     * @param requestId the expired request id
+     * @param timeoutNanos the time the request had to complete, and the time a late response is expected
+     */
+    private void expired(final int requestId, final long timeoutNanos) {
+        expiredRequests.add(requestId);
+        ClientExecutors.getRequestTimer().schedule(getExecutor(), new Runnable() {
+            @Override
+            public void run() {
+                expiredRequests.remove(requestId);
+            }
+        }, timeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
     /**
      * Handle a message.
      *
@@ -276,6 +585,10 @@ class ManagementConnectionImpl extends AbstractHandleableCloseable<ManagementCon
             final ManagementResponseHeader response = (ManagementResponseHeader) header;
             final ManagementRequest request = requests.get(response.getResponseId());
             if (request == null) {
+                if (expiredRequests.remove(response.getResponseId())) {
+                    ManagementClientLogger.ROOT_LOGGER.lateResponse(response.getResponseId(), channel);
+                    return;
+                }
                 ManagementClientLogger.ROOT_LOGGER.noSuchRequest(response.getResponseId(), channel);
                 safeWriteErrorResponse(channel, header, ManagementClientMessages.MESSAGES.responseHandlerNotFound(response.getResponseId()));
             } else if (response.isFailed()) {
@@ -285,6 +598,9 @@ class ManagementConnectionImpl extends AbstractHandleableCloseable<ManagementCon
                     request.handleResponse(response, input);
                 } catch (IOException e) {
                     request.handleFailure(e);
+                } catch (RuntimeException e) {
+                    // Only fail this request, rather than closing the channel for all requests
+                    request.handleFailure(new IOException(e));
                 }
             }
         } else if (type == ManagementProtocol.TYPE_REQUEST) {
@@ -322,7 +638,7 @@ class ManagementConnectionImpl extends AbstractHandleableCloseable<ManagementCon
                 final ManagementRequest.RequestHandler handler = originating.getRequestHandler();
 
                 try {
-                    handler.handleRequest(originating, header, input);
+                    handler.handleRequest(originating, channel, header, input);
                 } catch (Exception e) {
                     ManagementClientChannelReceiver.safeWriteErrorResponse(channel, header, e);
                 }
@@ -342,17 +658,23 @@ class ManagementConnectionImpl extends AbstractHandleableCloseable<ManagementCon
         }
     }
 
-    class ExecuteRequest extends ManagementRequestFutureImpl implements ManagementRequest {
+    class ExecuteRequest<T> extends ManagementRequestFutureImpl<T> implements ManagementRequest {
 
         private final int id;
-        private final ModelNode operation;
+        private final Stripe stripe;
+        private final OperationEncoder operation;
         private final OperationStreamAttachments attachments;
-        private final FutureResult<ModelNode> futureResult;
+        private final ResponseDecoder<T> decoder;
+        private final FutureResult<T> futureResult;
         private boolean cancelled = false;
+        private volatile HashedWheelTimer.Timeout timeout;
         private final AttachmentsHandler attachmentsHandler = new AttachmentsHandler();
 
-        ExecuteRequest(final int id, final ModelNode operation, final OperationStreamAttachments attachments, final FutureResult<ModelNode> result) {
+        ExecuteRequest(final int id, final Stripe stripe, final OperationEncoder operation, final OperationStreamAttachments attachments,
+                       final ResponseDecoder<T> decoder, final FutureResult<T> result) {
             super(result.getIoFuture());
+            this.stripe = stripe;
+            this.decoder = decoder;
             this.futureResult = result;
             this.attachments = attachments;
             this.operation = operation;
@@ -363,7 +685,7 @@ class ManagementConnectionImpl extends AbstractHandleableCloseable<ManagementCon
         public void writeRequest(DataOutput os) throws IOException {
             final int attachmentsSize = attachments != null ? attachments.getNumberOfAttachedStreams() : 0;
             os.write(ManagementProtocol.PARAM_OPERATION);
-            operation.writeExternal(os);
+            operation.writeOperation(os);
             os.write(ManagementProtocol.PARAM_INPUTSTREAMS_LENGTH);
             os.writeInt(attachmentsSize);
             os.write(ManagementProtocol.REQUEST_END);
@@ -374,6 +696,11 @@ class ManagementConnectionImpl extends AbstractHandleableCloseable<ManagementCon
             return EXECUTE_ASYNC_CLIENT_REQUEST;
         }
 
+        @Override
+        public int getRequestId() {
+            return id;
+        }
+
         @Override
         public int getOperationId() {
             return id;
@@ -390,20 +717,25 @@ class ManagementConnectionImpl extends AbstractHandleableCloseable<ManagementCon
         }
 
         @Override
-        public synchronized void handleResponse(ManagementResponseHeader header, DataInput input) throws IOException {
-            // Handle response
+        public void handleResponse(ManagementResponseHeader header, DataInput input) throws IOException {
+            // Handle response, without holding the lock while decoding
             StreamUtils.expectHeader(input, ManagementProtocol.PARAM_RESPONSE);
-            final ModelNode node = new ModelNode();
-            node.readExternal(input);
+            final T result;
+            try {
+                result = decoder.decode(input);
+            } catch (RuntimeException e) {
+                // A streaming handler failed
+                throw new IOException(e);
+            }
             synchronized (this) {
                 boolean finished;
                 if (cancelled) {
                     finished = futureResult.setCancelled();
                 } else {
-                    finished = futureResult.setResult(node);
+                    finished = futureResult.setResult(result);
                 }
                 if (finished) {
-                    requestFinished(id);
+                    finished();
                 }
             }
             StreamUtils.expectHeader(input, ManagementProtocol.RESPONSE_END);
@@ -416,6 +748,11 @@ class ManagementConnectionImpl extends AbstractHandleableCloseable<ManagementCon
             return super.cancel(mayInterruptIfRunning);
         }
 
+        @Override
+        public void asyncCancel(boolean interruptionDesired) {
+            asyncCancel();
+        }
+
         @Override
         public void asyncCancel() {
             synchronized (this) {
@@ -431,33 +768,74 @@ class ManagementConnectionImpl extends AbstractHandleableCloseable<ManagementCon
         public void handleFailure(IOException exception) {
             if (futureResult.setException(exception)) {
                 exception.printStackTrace();
-                requestFinished(id);
+                finished();
             }
         }
 
         protected boolean setCancelled() {
             if (futureResult.setCancelled()) {
-                requestFinished(id);
+                finished();
                 return true;
             }
             return false;
         }
+
+        void startTimer(final long timeoutNanos) {
+            timeout = ClientExecutors.getRequestTimer().schedule(getExecutor(), new Runnable() {
+                @Override
+                public void run() {
+                    expire(timeoutNanos);
+                }
+            }, timeoutNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Fail the request once its deadline passed and cancel it on the server. The request is released right away,
+         * rather than once the server responds, which it may never do.
+         */
+        private void expire(final long timeoutNanos) {
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                if (!futureResult.setException(ManagementClientMessages.MESSAGES.requestTimedOut(id, TimeUnit.NANOSECONDS.toMillis(timeoutNanos)))) {
+                    return;
+                }
+                cancelled = true;
+            }
+            expired(id, timeoutNanos);
+            cancelRequest(this);
+            finished();
+        }
+
+        private void finished() {
+            final HashedWheelTimer.Timeout timeout = this.timeout;
+            if (timeout != null) {
+                timeout.cancel();
+            }
+            stripe.requestFinished();
+            requestFinished(id);
+            if (inFlight != null) {
+                inFlight.release();
+            }
+        }
     }
 
     class AttachmentsHandler implements ManagementRequest.RequestHandler {
 
         @Override
-        public void handleRequest(ManagementRequest request, final ManagementRequestHeader header, DataInput input) throws IOException {
+        public void handleRequest(ManagementRequest request, final Channel channel, final ManagementRequestHeader header, DataInput input) throws IOException {
             // Read the inputStream index
             StreamUtils.expectHeader(input, ManagementProtocol.PARAM_INPUTSTREAM_INDEX);
             final int index = input.readInt();
             final OperationStreamAttachments attachments = request.getAttachments();
             final OperationStreamAttachments.OperationStreamAttachment attachment = attachments.getAttachment(index);
             final long streamSize = attachment.size();
-            final int streamLengthParam = (int) streamSize;
-            if (streamSize != streamLengthParam) {
+            if (streamSize < 0) {
                 throw new IOException("Input stream size out of range: " + streamSize);
             }
+            // Streams exceeding the int range can only be sent in chunks
+            final boolean chunked = chunkedAttachments || streamSize > Integer.MAX_VALUE;
             // Execute async
             getExecutor().execute(new Runnable() {
                 @Override
@@ -469,10 +847,20 @@ class ManagementConnectionImpl extends AbstractHandleableCloseable<ManagementCon
                             final DataOutputStream output = new DataOutputStream(os);
                             // Write header
                             response.write(output);
-                            output.writeByte(ManagementProtocol.PARAM_INPUTSTREAM_LENGTH);
-                            output.writeInt(streamLengthParam);
-                            output.writeByte(ManagementProtocol.PARAM_INPUTSTREAM_CONTENTS);
-                            attachment.writeTo(new FixedLengthOutputStream(output, streamSize));
+                            if (chunked) {
+                                output.writeByte(ManagementProtocol.PARAM_INPUTSTREAM_CHUNKED_LENGTH);
+                                output.writeLong(streamSize);
+                                output.writeByte(ManagementProtocol.PARAM_INPUTSTREAM_CONTENTS);
+                                final ChunkedOutputStream chunks = new ChunkedOutputStream(output, streamSize);
+                                attachment.writeTo(chunks);
+                                chunks.close();
+                            } else {
+                                output.writeByte(ManagementProtocol.PARAM_INPUTSTREAM_LENGTH);
+                                output.writeInt((int) streamSize);
+                                output.writeByte(ManagementProtocol.PARAM_INPUTSTREAM_CONTENTS);
+                                // Bypass the data output for the attachment contents
+                                attachment.writeTo(new FixedLengthOutputStream(os, streamSize));
+                            }
                             output.writeByte(ManagementProtocol.RESPONSE_END);
                             os.close();
                         } finally {
@@ -488,10 +876,11 @@ class ManagementConnectionImpl extends AbstractHandleableCloseable<ManagementCon
 
     class CancelRequest implements ManagementRequest {
 
-        private final ExecuteRequest toCancel;
+        private final ExecuteRequest<?> toCancel;
         private final int requestID;
+        private boolean done;
 
-        CancelRequest(final int requestID, final ExecuteRequest toCancel) {
+        CancelRequest(final int requestID, final ExecuteRequest<?> toCancel) {
             this.toCancel = toCancel;
             this.requestID = requestID;
         }
@@ -501,6 +890,11 @@ class ManagementConnectionImpl extends AbstractHandleableCloseable<ManagementCon
             return null;
         }
 
+        @Override
+        public int getRequestId() {
+            return requestID;
+        }
+
         @Override
         public int getOperationId() {
             return toCancel.id;
@@ -524,18 +918,29 @@ class ManagementConnectionImpl extends AbstractHandleableCloseable<ManagementCon
         @Override
         public void handleFailure(IOException exception) {
             toCancel.handleFailure(exception); // maybe just log?
-            requestFinished(requestID);
+            finished();
         }
 
         @Override
         public void handleResponse(ManagementResponseHeader header, DataInput input) throws IOException {
             // toCancel.setCancelled() // wait for original response
-            requestFinished(requestID);
+            finished();
         }
 
         @Override
         public void asyncCancel() {
-            // Nothing here.
+            // Closing the connection, the server may never answer the cancellation
+            finished();
+        }
+
+        private void finished() {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+            }
+            requestFinished(requestID);
         }
     }
 
@@ -543,9 +948,11 @@ class ManagementConnectionImpl extends AbstractHandleableCloseable<ManagementCon
 
         final FutureResult<ModelNode> futureResult = new FutureResult<>();
         private final int requestId;
+        private final int operationId;
 
-        protected AbstractNotificationHandler(int requestId) {
+        protected AbstractNotificationHandler(int requestId, int operationId) {
             this.requestId = requestId;
+            this.operationId = operationId;
         }
 
         abstract void completed();
@@ -556,10 +963,15 @@ class ManagementConnectionImpl extends AbstractHandleableCloseable<ManagementCon
         }
 
         @Override
-        public int getOperationId() {
+        public int getRequestId() {
             return requestId;
         }
 
+        @Override
+        public int getOperationId() {
+            return operationId;
+        }
+
         @Override
         public void handleResponse(ManagementResponseHeader header, DataInput input) throws IOException {
             if (futureResult.setResult(null)) {
@@ -589,12 +1001,13 @@ class ManagementConnectionImpl extends AbstractHandleableCloseable<ManagementCon
     class RegisterNotificationHandler extends AbstractNotificationHandler {
 
         private final ModelNode address;
-        private final RemoteNotificationHandler handler;
+        private final Stripe stripe;
+        private final RemoteNotificationHandler handler = new RemoteNotificationHandler();
 
-        RegisterNotificationHandler(final int requestId, final ModelNode address, final NotificationExecutionContext handler) {
-            super(requestId);
+        RegisterNotificationHandler(final int requestId, final ModelNode address, final Stripe stripe) {
+            super(requestId, requestId);
             this.address = address;
-            this.handler = new RemoteNotificationHandler(handler);
+            this.stripe = stripe;
         }
 
         @Override
@@ -607,6 +1020,12 @@ class ManagementConnectionImpl extends AbstractHandleableCloseable<ManagementCon
             return REGISTER_NOTIFICATION_HANDLER_REQUEST;
         }
 
+        @Override
+        public void asyncCancel() {
+            handler.close();
+            super.asyncCancel();
+        }
+
         @Override
         public RequestHandler getRequestHandler() {
             return handler;
@@ -625,42 +1044,38 @@ class ManagementConnectionImpl extends AbstractHandleableCloseable<ManagementCon
 
     class RemoteNotificationHandler implements ManagementRequest.RequestHandler {
 
-        private final NotificationExecutionContext context;
-        protected RemoteNotificationHandler(NotificationExecutionContext context) {
-            this.context = context;
-        }
+        private final NotificationIndex queues = new NotificationIndex();
 
         @Override
-        public void handleRequest(final ManagementRequest originating, final ManagementRequestHeader header, final DataInput input) throws IOException {
-            final ModelNode notif = new ModelNode();
-            notif.readExternal(input);
-            final Notification notification = Notification.fromModelNode(notif);
-            getExecutor().execute(new Runnable() {
-                @Override
-                public void run() {
-                    try {
-                        final NotificationFilter filter = context.getFilter();
-                        if (filter.isNotificationEnabled(notification)) {
-                            NotificationHandler notificationHandler = context.getHandler();
-                            notificationHandler.handleNotification(notification);
-                        }
-                    } catch (Exception e) {
-                        ManagementClientChannelReceiver.safeWriteErrorResponse(channel, header, e);
-                    }
-                    try {
-                        ManagementClientChannelReceiver.writeEmptyResponse(channel, header);
-                    } catch (IOException e) {
-                        e.printStackTrace();
-                    }
-                }
-            });
+        public void handleRequest(final ManagementRequest originating, final Channel channel, final ManagementRequestHeader header, final DataInput input) throws IOException {
+            // Only decode what filters need here; message and data are parsed when the handler reads them
+            final Notification notification = LazyNotification.read(input);
+            // Decode once and fan out to the local handlers which can match, each invoked in order by its queue
+            queues.dispatch(notification);
+            ManagementClientChannelReceiver.writeEmptyResponse(channel, header);
+        }
+
+        void add(final NotificationQueue queue) {
+            queues.add(queue);
+        }
+
+        boolean remove(final NotificationQueue queue) {
+            return queues.remove(queue);
+        }
+
+        boolean isEmpty() {
+            return queues.isEmpty();
+        }
+
+        void close() {
+            queues.close();
         }
     }
 
     class UnregisterNotificationHandler extends AbstractNotificationHandler {
 
-        UnregisterNotificationHandler(int batchID) {
-            super(batchID);
+        UnregisterNotificationHandler(int requestId, int batchID) {
+            super(requestId, batchID);
         }
 
         @Override
@@ -670,7 +1085,12 @@ class ManagementConnectionImpl extends AbstractHandleableCloseable<ManagementCon
 
         @Override
         void completed() {
-
+            // Stop delivering queued notifications and remove the registration
+            final ManagementRequest registration = requests.get(getOperationId());
+            if (registration instanceof RegisterNotificationHandler) {
+                ((RegisterNotificationHandler) registration).handler.close();
+            }
+            requestFinished(getOperationId());
         }
 
         @Override
@@ -685,41 +1105,47 @@ class ManagementConnectionImpl extends AbstractHandleableCloseable<ManagementCon
 
     }
 
-    private static class NotificationExecutionContext {
-        private final NotificationHandler handler;
-        private final NotificationFilter filter;
+    class LocalNotificationRegistration implements NotificationRegistration {
 
-        private NotificationExecutionContext(NotificationHandler handler, NotificationFilter filter) {
-            this.handler = handler;
-            this.filter = filter;
-        }
+        private final RegisterNotificationHandler registration;
+        private final NotificationQueue queue;
 
-        public NotificationHandler getHandler() {
-            return handler;
+        LocalNotificationRegistration(final RegisterNotificationHandler registration, final NotificationQueue queue) {
+            this.registration = registration;
+            this.queue = queue;
         }
 
-        public NotificationFilter getFilter() {
-            return filter;
+        @Override
+        public AsyncFuture<Void> unregisterAsync() {
+            return unregisterNotificationHandler(registration, queue);
         }
 
         @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
+        public void close() throws IOException {
+            // Wait until the notification listener is unregistered
+            unregisterAsync().awaitUninterruptibly();
+        }
+    }
+
+    static final class Stripe {
 
-            NotificationExecutionContext that = (NotificationExecutionContext) o;
+        private static final AtomicIntegerFieldUpdater<Stripe> activeUpdater = AtomicIntegerFieldUpdater.newUpdater(Stripe.class, "active");
 
-            if (filter != null ? !filter.equals(that.filter) : that.filter != null) return false;
-            if (handler != null ? !handler.equals(that.handler) : that.handler != null) return false;
+        private final Channel channel;
+        private final CoalescingWriter writer;
+        private volatile int active;
 
-            return true;
+        Stripe(final Channel channel, final CoalescingWriter writer) {
+            this.channel = channel;
+            this.writer = writer;
         }
 
-        @Override
-        public int hashCode() {
-            int result = handler != null ? handler.hashCode() : 0;
-            result = 31 * result + (filter != null ? filter.hashCode() : 0);
-            return result;
+        void requestStarted() {
+            activeUpdater.incrementAndGet(this);
+        }
+
+        void requestFinished() {
+            activeUpdater.decrementAndGet(this);
         }
     }
 
@@ -0,0 +1,468 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client.impl;
+
+import javax.net.ssl.SSLContext;
+import javax.security.auth.callback.CallbackHandler;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.remoting3.CloseHandler;
+import org.wildfly.management.client.ManagementClientOptions;
+import org.wildfly.management.client.ManagementConnection;
+import org.xnio.Cancellable;
+import org.xnio.FutureResult;
+import org.xnio.IoFuture;
+import org.xnio.OptionMap;
+
+/**
+ * Pool of authenticated management connections, keyed by protocol, destination, callback handler, ssl context and the
+ * effective connection options. Borrowers passing different options never share connections, since the options
+ * configure each connection.
+ * <p/>
+ * Idle connections are handed out most recently used first and validated on borrow. Connections idle for longer than
+ * the configured {@link ManagementClientOptions#POOL_IDLE_TIMEOUT} are closed by a periodic sweep on the shared request
+ * timer, rather than using a dedicated reaper thread. Once {@link ManagementClientOptions#POOL_MAX_CONNECTIONS_PER_TARGET}
+ * connections are open for a target, further callers wait for a connection to be returned to the pool.
+ *
+ * @author Emanuel Muckenhuber
+ */
+class ManagementConnectionPool {
+
+    private static final long SWEEP_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private final ManagementClientImpl client;
+    private final ConcurrentMap<PoolKey, TargetPool> pools = new ConcurrentHashMap<>();
+
+    private volatile boolean closed;
+    private HashedWheelTimer.Timeout sweep; // guarded by this, null until the first target pool is created
+
+    ManagementConnectionPool(final ManagementClientImpl client) {
+        this.client = client;
+    }
+
+    /**
+     * Borrow a connection from the pool.
+     *
+     * @param destination     the destination
+     * @param connectOptions  the connection options
+     * @param callbackHandler the callback handler
+     * @param sslContext      the ssl context
+     * @return the future pooled connection
+     * @throws IOException
+     */
+    Future<ManagementConnection> borrow(final InetSocketAddress destination, final OptionMap connectOptions,
+                                        final CallbackHandler callbackHandler, final SSLContext sslContext) throws IOException {
+        final ManagementConnectionFuture.WrapperCallbackHandler wrapperHandler = ManagementClientImpl.createCallbackHandler(callbackHandler);
+        final IoFuture<ManagementConnection> future = borrow(destination, connectOptions, callbackHandler, wrapperHandler, sslContext);
+        final long timeoutMillis = connectOptions.get(ManagementClientOptions.CONNECTION_TIMEOUT, ManagementClientDefaults.DEFAULT_TIMEOUT);
+        return new ManagementConnectionFuture(wrapperHandler, future, timeoutMillis);
+    }
+
+    /**
+     * Borrow a connection from the pool, without a connection timeout.
+     *
+     * @param destination     the destination
+     * @param connectOptions  the connection options
+     * @param callbackHandler the callback handler
+     * @param sslContext      the ssl context
+     * @return the future pooled connection
+     * @throws IOException
+     */
+    IoFuture<ManagementConnection> borrowAsync(final InetSocketAddress destination, final OptionMap connectOptions,
+                                               final CallbackHandler callbackHandler, final SSLContext sslContext) throws IOException {
+        return borrow(destination, connectOptions, callbackHandler, ManagementClientImpl.createCallbackHandler(callbackHandler), sslContext);
+    }
+
+    private IoFuture<ManagementConnection> borrow(final InetSocketAddress destination, final OptionMap connectOptions, final CallbackHandler callbackHandler,
+                                                  final ManagementConnectionFuture.WrapperCallbackHandler wrapperHandler,
+                                                  final SSLContext sslContext) throws IOException {
+        if (closed) {
+            throw new IOException("client is closed");
+        }
+        final OptionMap options = client.getConnectionOptions(destination, connectOptions);
+        final String protocol = options.get(ManagementClientOptions.PROTOCOL, ManagementClientDefaults.DEFAULT_PROTOCOL);
+        final PoolKey key = new PoolKey(protocol, destination, callbackHandler, sslContext, options);
+        TargetPool pool = pools.get(key);
+        if (pool == null) {
+            final int maxConnections = options.get(ManagementClientOptions.POOL_MAX_CONNECTIONS_PER_TARGET, ManagementClientDefaults.DEFAULT_POOL_MAX_CONNECTIONS_PER_TARGET);
+            final int idleTimeout = options.get(ManagementClientOptions.POOL_IDLE_TIMEOUT, ManagementClientDefaults.DEFAULT_POOL_IDLE_TIMEOUT);
+            final TargetPool newPool = new TargetPool(destination, sslContext, maxConnections, TimeUnit.MILLISECONDS.toNanos(idleTimeout));
+            pool = pools.putIfAbsent(key, newPool);
+            if (pool == null) {
+                pool = newPool;
+                scheduleSweep();
+            }
+        }
+        return pool.borrow(new Waiter(connectOptions, wrapperHandler));
+    }
+
+    /**
+     * Close all idle connections and fail pending borrowers. Borrowed connections are getting closed by the client.
+     */
+    void close() {
+        closed = true;
+        synchronized (this) {
+            if (sweep != null) {
+                sweep.cancel();
+            }
+        }
+        for (final TargetPool pool : pools.values()) {
+            pool.close();
+        }
+    }
+
+    /**
+     * Schedule the next sweep, unless one is pending already or the pool is closed.
+     */
+    private synchronized void scheduleSweep() {
+        if (closed || (sweep != null && !sweep.isExpired())) {
+            return;
+        }
+        sweep = ClientExecutors.getRequestTimer().schedule(client.getExecutor(), new Runnable() {
+            @Override
+            public void run() {
+                sweep();
+            }
+        }, SWEEP_INTERVAL, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Evict idle connections of all targets, once per {@link #SWEEP_INTERVAL} while the pool is open.
+     */
+    private void sweep() {
+        final long now = System.nanoTime();
+        for (final TargetPool pool : pools.values()) {
+            pool.evictIdle(now);
+        }
+        scheduleSweep();
+    }
+
+    final class TargetPool {
+
+        private final InetSocketAddress destination;
+        private final SSLContext sslContext;
+        private final int maxConnections;
+        private final long idleTimeout;
+
+        private final ArrayDeque<IdleConnection> idle = new ArrayDeque<>();
+        private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+        private final Set<ManagementConnectionImpl> connections = Collections.newSetFromMap(new IdentityHashMap<ManagementConnectionImpl, Boolean>());
+        private int opening;
+
+        private final CloseHandler<ManagementConnectionImpl> closeHandler = new CloseHandler<ManagementConnectionImpl>() {
+            @Override
+            public void handleClose(ManagementConnectionImpl closed, IOException exception) {
+                connectionClosed(closed);
+            }
+        };
+
+        TargetPool(final InetSocketAddress destination, final SSLContext sslContext, final int maxConnections, final long idleTimeout) {
+            this.destination = destination;
+            this.sslContext = sslContext;
+            this.maxConnections = maxConnections;
+            this.idleTimeout = idleTimeout;
+        }
+
+        IoFuture<ManagementConnection> borrow(final Waiter waiter) {
+            ManagementConnectionImpl connection = null;
+            synchronized (this) {
+                while (connection == null && !idle.isEmpty()) {
+                    final IdleConnection entry = idle.pollFirst();
+                    // Validate the connection before handing it out
+                    if (entry.connection.isConnected()) {
+                        connection = entry.connection;
+                    } else {
+                        connections.remove(entry.connection);
+                    }
+                }
+                if (connection == null) {
+                    if (connections.size() + opening >= maxConnections) {
+                        // Wait until a connection gets returned
+                        waiters.addLast(waiter);
+                        waiter.result.addCancelHandler(new Cancellable() {
+                            @Override
+                            public Cancellable cancel() {
+                                synchronized (TargetPool.this) {
+                                    waiters.remove(waiter);
+                                }
+                                waiter.result.setCancelled();
+                                return this;
+                            }
+                        });
+                        return waiter.result.getIoFuture();
+                    }
+                    opening++;
+                }
+            }
+            if (connection != null) {
+                if (!waiter.result.setResult(new PooledManagementConnection(this, connection))) {
+                    release(connection);
+                }
+            } else {
+                open(waiter);
+            }
+            return waiter.result.getIoFuture();
+        }
+
+        /**
+         * Release a borrowed connection and hand it to the next waiting borrower, if any.
+         *
+         * @param connection the connection
+         */
+        void release(final ManagementConnectionImpl connection) {
+            Waiter waiter;
+            synchronized (this) {
+                if (!connections.contains(connection)) {
+                    // Already closed
+                    return;
+                }
+                if (closed || !connection.isConnected()) {
+                    waiter = null;
+                } else {
+                    waiter = waiters.pollFirst();
+                    if (waiter == null) {
+                        idle.addFirst(new IdleConnection(connection, System.nanoTime()));
+                        return;
+                    }
+                }
+            }
+            if (waiter == null) {
+                connection.closeAsync();
+            } else if (!waiter.result.setResult(new PooledManagementConnection(this, connection))) {
+                // Cancelled in the meantime, try the next one
+                release(connection);
+            }
+        }
+
+        void evictIdle(final long now) {
+            List<ManagementConnectionImpl> evicted = null;
+            synchronized (this) {
+                IdleConnection entry;
+                while ((entry = idle.peekLast()) != null && now - entry.since >= idleTimeout) {
+                    idle.pollLast();
+                    if (evicted == null) {
+                        evicted = new ArrayList<>();
+                    }
+                    evicted.add(entry.connection);
+                }
+            }
+            if (evicted != null) {
+                for (final ManagementConnectionImpl connection : evicted) {
+                    connection.closeAsync();
+                }
+            }
+        }
+
+        void close() {
+            final List<ManagementConnectionImpl> toClose = new ArrayList<>();
+            final List<Waiter> toFail;
+            synchronized (this) {
+                for (final IdleConnection entry : idle) {
+                    toClose.add(entry.connection);
+                }
+                idle.clear();
+                toFail = new ArrayList<>(waiters);
+                waiters.clear();
+            }
+            for (final ManagementConnectionImpl connection : toClose) {
+                connection.closeAsync();
+            }
+            for (final Waiter waiter : toFail) {
+                waiter.result.setException(new IOException("client is closed"));
+            }
+        }
+
+        private void open(final Waiter waiter) {
+            final IoFuture<ManagementConnection> future;
+            try {
+                future = client.internalConnect(destination, waiter.options, waiter.callbackHandler, sslContext);
+            } catch (IOException e) {
+                openFailed();
+                waiter.result.setException(e);
+                return;
+            }
+            waiter.result.addCancelHandler(new Cancellable() {
+                @Override
+                public Cancellable cancel() {
+                    future.cancel();
+                    return this;
+                }
+            });
+            future.addNotifier(new IoFuture.HandlingNotifier<ManagementConnection, Void>() {
+                @Override
+                public void handleCancelled(Void attachment) {
+                    openFailed();
+                    waiter.result.setCancelled();
+                }
+
+                @Override
+                public void handleFailed(IOException exception, Void attachment) {
+                    openFailed();
+                    waiter.result.setException(exception);
+                }
+
+                @Override
+                public void handleDone(ManagementConnection data, Void attachment) {
+                    final ManagementConnectionImpl connection = (ManagementConnectionImpl) data;
+                    synchronized (TargetPool.this) {
+                        opening--;
+                        connections.add(connection);
+                    }
+                    connection.addCloseHandler(closeHandler);
+                    if (!waiter.result.setResult(new PooledManagementConnection(TargetPool.this, connection))) {
+                        release(connection);
+                    }
+                }
+            }, null);
+        }
+
+        private void openFailed() {
+            final Waiter waiter;
+            synchronized (this) {
+                opening--;
+                waiter = nextWaiter();
+            }
+            if (waiter != null) {
+                open(waiter);
+            }
+        }
+
+        private void connectionClosed(final ManagementConnectionImpl connection) {
+            final Waiter waiter;
+            synchronized (this) {
+                if (!connections.remove(connection)) {
+                    return;
+                }
+                final Iterator<IdleConnection> i = idle.iterator();
+                while (i.hasNext()) {
+                    if (i.next().connection == connection) {
+                        i.remove();
+                        break;
+                    }
+                }
+                waiter = nextWaiter();
+            }
+            if (waiter != null) {
+                open(waiter);
+            }
+        }
+
+        /**
+         * Reserve a slot for the next waiting borrower, if the limit allows opening another connection.
+         *
+         * @return the waiter, {@code null} if there is none
+         */
+        private Waiter nextWaiter() {
+            assert Thread.holdsLock(this);
+            if (closed || connections.size() + opening >= maxConnections) {
+                return null;
+            }
+            final Waiter waiter = waiters.pollFirst();
+            if (waiter != null) {
+                opening++;
+            }
+            return waiter;
+        }
+    }
+
+    static final class Waiter {
+
+        private final FutureResult<ManagementConnection> result = new FutureResult<>();
+        private final OptionMap options;
+        private final ManagementConnectionFuture.WrapperCallbackHandler callbackHandler;
+
+        Waiter(final OptionMap options, final ManagementConnectionFuture.WrapperCallbackHandler callbackHandler) {
+            this.options = options;
+            this.callbackHandler = callbackHandler;
+        }
+    }
+
+    static final class IdleConnection {
+
+        private final ManagementConnectionImpl connection;
+        private final long since;
+
+        IdleConnection(final ManagementConnectionImpl connection, final long since) {
+            this.connection = connection;
+            this.since = since;
+        }
+    }
+
+    static final class PoolKey {
+
+        private final String protocol;
+        private final InetSocketAddress destination;
+        private final CallbackHandler callbackHandler;
+        private final SSLContext sslContext;
+        private final OptionMap options;
+
+        PoolKey(final String protocol, final InetSocketAddress destination, final CallbackHandler callbackHandler,
+                final SSLContext sslContext, final OptionMap options) {
+            this.protocol = protocol;
+            this.destination = destination;
+            this.callbackHandler = callbackHandler;
+            this.sslContext = sslContext;
+            this.options = options;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            PoolKey that = (PoolKey) o;
+
+            // callback handler and ssl context are compared by identity
+            if (callbackHandler != that.callbackHandler) return false;
+            if (sslContext != that.sslContext) return false;
+            if (!destination.equals(that.destination)) return false;
+            if (!protocol.equals(that.protocol)) return false;
+            if (!options.equals(that.options)) return false;
+
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = protocol.hashCode();
+            result = 31 * result + destination.hashCode();
+            result = 31 * result + System.identityHashCode(callbackHandler);
+            result = 31 * result + System.identityHashCode(sslContext);
+            result = 31 * result + options.hashCode();
+            return result;
+        }
+    }
+
+}
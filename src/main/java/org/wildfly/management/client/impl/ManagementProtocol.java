@@ -68,6 +68,7 @@ interface ManagementProtocol {
     byte PARAM_INPUTSTREAM_LENGTH = 0x67;
     byte PARAM_INPUTSTREAM_CONTENTS = 0x68;
     //byte PARAM_PREPARED = 0x69;
+    byte PARAM_INPUTSTREAM_CHUNKED_LENGTH = 0x6A;
     byte PARAM_COMMIT = 0x70;
     byte PARAM_ROLLBACK = 0x71;
     // The tx response params
@@ -38,6 +38,17 @@ import java.util.Arrays;
  */
 abstract class ManagementProtocolHeader {
 
+    // The constant header prefix of the current protocol version, by type
+    private static final byte[][] PREFIXES = new byte[256][];
+
+    static {
+        final byte[] types = { ManagementProtocol.TYPE_REQUEST, ManagementProtocol.TYPE_RESPONSE,
+                ManagementProtocol.TYPE_BYE_BYE, ManagementProtocol.TYPE_PING, ManagementProtocol.TYPE_PONG };
+        for (final byte type : types) {
+            PREFIXES[type & 0xff] = createPrefix(ManagementProtocol.VERSION, type);
+        }
+    }
+
     private int version;
 
     /**
@@ -56,11 +67,34 @@ abstract class ManagementProtocolHeader {
      * @throws IOException If any problems occur writing to the output
      */
     public void write(final DataOutput output) throws IOException {
-        output.write(ManagementProtocol.SIGNATURE);
-        output.writeByte(ManagementProtocol.VERSION_FIELD);
-        output.writeInt(getVersion());
-        output.writeByte(ManagementProtocol.TYPE);
-        output.writeByte(getType());
+        final byte[] prefix = version == ManagementProtocol.VERSION ? PREFIXES[getType() & 0xff] : null;
+        if (prefix != null) {
+            output.write(prefix);
+        } else {
+            output.write(createPrefix(version, getType()));
+        }
+    }
+
+    /**
+     * Create the header prefix, consisting of the signature, version and type.
+     *
+     * @param version the protocol version
+     * @param type    the header type
+     * @return the encoded prefix
+     */
+    static byte[] createPrefix(final int version, final byte type) {
+        final byte[] signature = ManagementProtocol.SIGNATURE;
+        final byte[] prefix = new byte[signature.length + 7];
+        System.arraycopy(signature, 0, prefix, 0, signature.length);
+        int i = signature.length;
+        prefix[i++] = ManagementProtocol.VERSION_FIELD;
+        prefix[i++] = (byte) (version >>> 24);
+        prefix[i++] = (byte) (version >>> 16);
+        prefix[i++] = (byte) (version >>> 8);
+        prefix[i++] = (byte) version;
+        prefix[i++] = ManagementProtocol.TYPE;
+        prefix[i] = type;
+        return prefix;
     }
 
     /**
@@ -87,10 +121,17 @@ abstract class ManagementProtocolHeader {
      * @throws IOException If any read problems occur
      */
     protected static void validateSignature(final DataInput input) throws IOException {
-        final byte[] signatureBytes = new byte[4];
-        input.readFully(signatureBytes);
-        if (!Arrays.equals(ManagementProtocol.SIGNATURE, signatureBytes)) {
-            throw MESSAGES.invalidSignature(Arrays.toString(signatureBytes));
+        // Compare byte by byte, only allocating when reporting an invalid signature
+        final byte[] signature = ManagementProtocol.SIGNATURE;
+        for (int i = 0; i < signature.length; i++) {
+            final byte b = input.readByte();
+            if (b != signature[i]) {
+                final byte[] signatureBytes = new byte[signature.length];
+                System.arraycopy(signature, 0, signatureBytes, 0, i);
+                signatureBytes[i] = b;
+                input.readFully(signatureBytes, i + 1, signature.length - i - 1);
+                throw MESSAGES.invalidSignature(Arrays.toString(signatureBytes));
+            }
         }
     }
 
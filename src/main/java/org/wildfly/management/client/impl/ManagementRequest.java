@@ -26,6 +26,7 @@ import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 
+import org.jboss.remoting3.Channel;
 import org.wildfly.management.client.OperationStreamAttachments;
 
 /**
@@ -42,6 +43,13 @@ interface ManagementRequest {
      */
     OperationStreamAttachments getAttachments();
 
+    /**
+     * Get the id the request is registered with.
+     *
+     * @return the request id
+     */
+    int getRequestId();
+
     /**
      * Get the request operation id.
      *
@@ -98,11 +106,12 @@ interface ManagementRequest {
          * Handle a server request.
          *
          * @param originating the associated request
+         * @param channel     the channel the request was received on
          * @param header      the protocol header
          * @param input       the data input
          * @throws IOException
          */
-        void handleRequest(ManagementRequest originating, final ManagementRequestHeader header, DataInput input) throws IOException;
+        void handleRequest(ManagementRequest originating, Channel channel, final ManagementRequestHeader header, DataInput input) throws IOException;
 
     }
 
@@ -23,22 +23,25 @@
 package org.wildfly.management.client.impl;
 
 import java.io.IOException;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
-import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
 import org.xnio.IoFuture;
 
 /**
+ * {@link AsyncFuture} view of the {@link IoFuture} completed by a management request. Listeners are invoked
+ * using the notifier executor of the underlying future.
+ *
  * @author Emanuel Muckenhuber
  */
-class ManagementRequestFutureImpl implements Future<ModelNode> {
+class ManagementRequestFutureImpl<T> implements AsyncFuture<T> {
 
-    private final IoFuture<ModelNode> future;
+    private final IoFuture<T> future;
 
-    ManagementRequestFutureImpl(IoFuture<ModelNode> future) {
+    ManagementRequestFutureImpl(IoFuture<T> future) {
         this.future = future;
     }
 
@@ -47,6 +50,11 @@ class ManagementRequestFutureImpl implements Future<ModelNode> {
         return future.cancel().getStatus() == IoFuture.Status.CANCELLED;
     }
 
+    @Override
+    public void asyncCancel(boolean interruptionDesired) {
+        future.cancel();
+    }
+
     @Override
     public boolean isCancelled() {
         return future.getStatus() == IoFuture.Status.CANCELLED;
@@ -58,30 +66,107 @@ class ManagementRequestFutureImpl implements Future<ModelNode> {
     }
 
     @Override
-    public ModelNode get() throws InterruptedException, ExecutionException {
+    public Status getStatus() {
+        return convert(future.getStatus());
+    }
+
+    @Override
+    public Status await() throws InterruptedException {
+        return convert(future.awaitInterruptibly());
+    }
+
+    @Override
+    public Status await(long timeout, TimeUnit unit) throws InterruptedException {
+        return convert(future.awaitInterruptibly(timeout, unit));
+    }
+
+    @Override
+    public Status awaitUninterruptibly() {
+        return convert(future.await());
+    }
+
+    @Override
+    public Status awaitUninterruptibly(long timeout, TimeUnit unit) {
+        return convert(future.await(timeout, unit));
+    }
+
+    @Override
+    public T get() throws InterruptedException, ExecutionException {
         try {
-            return future.get();
+            return future.getInterruptibly();
         } catch (IOException e) {
             throw new ExecutionException(e);
         }
     }
 
     @Override
-    public ModelNode get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
-        final long end = System.currentTimeMillis() + unit.toMillis(timeout);
+    public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        return getResult(future.awaitInterruptibly(timeout, unit));
+    }
+
+    @Override
+    public T getUninterruptibly() throws CancellationException, ExecutionException {
         try {
-            while (future.getStatus() == IoFuture.Status.WAITING) {
-                final long wait = end - System.currentTimeMillis();
-                if (wait > 0) {
-                    future.await(wait, TimeUnit.MILLISECONDS);
-                }
-            }
-            if (future.getStatus() == IoFuture.Status.DONE) {
-                return future.get();
-            }
-            throw new TimeoutException();
+            return future.get();
         } catch (IOException e) {
             throw new ExecutionException(e);
         }
     }
+
+    @Override
+    public T getUninterruptibly(long timeout, TimeUnit unit) throws CancellationException, ExecutionException, TimeoutException {
+        return getResult(future.await(timeout, unit));
+    }
+
+    @Override
+    public <A> void addListener(final Listener<? super T, A> listener, final A attachment) {
+        future.addNotifier(new IoFuture.HandlingNotifier<T, A>() {
+            @Override
+            public void handleCancelled(A attachment) {
+                listener.handleCancelled(ManagementRequestFutureImpl.this, attachment);
+            }
+
+            @Override
+            public void handleFailed(IOException exception, A attachment) {
+                listener.handleFailed(ManagementRequestFutureImpl.this, exception, attachment);
+            }
+
+            @Override
+            public void handleDone(T data, A attachment) {
+                listener.handleComplete(ManagementRequestFutureImpl.this, attachment);
+            }
+        }, attachment);
+    }
+
+    private T getResult(final IoFuture.Status status) throws ExecutionException, TimeoutException {
+        switch (status) {
+            case WAITING:
+                throw new TimeoutException();
+            case FAILED:
+                throw new ExecutionException(future.getException());
+            default:
+                // DONE or CANCELLED
+                try {
+                    return future.get();
+                } catch (IOException e) {
+                    throw new ExecutionException(e);
+                }
+        }
+    }
+
+    static Status convert(final IoFuture.Status status) {
+        switch (status) {
+            case WAITING:
+                return Status.WAITING;
+            case DONE:
+                return Status.COMPLETE;
+            case CANCELLED:
+                return Status.CANCELLED;
+            case FAILED:
+                return Status.FAILED;
+            default:
+                throw new IllegalStateException();
+        }
+    }
+
 }
@@ -0,0 +1,203 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Table of in-flight requests, keyed by their request id.
+ * <p/>
+ * Request ids are handed out sequentially, so the table uses a power-of-two slot array indexed by the low bits of the
+ * id, rather than a hash map. Registering, looking up and removing a request does not allocate. Two in-flight requests
+ * sharing a slot can only happen if a request is outstanding for longer than {@code capacity} newer requests. In this
+ * case {@link #register(ManagementRequest)} fails and the caller just retries with the next id, which also makes the
+ * wrap-around of the id counter safe.
+ * <p/>
+ * The table doubles once it is half full. Lookups and removals are lock-free and may run concurrently with a resize,
+ * migrated slots are marked and redirect to the new table.
+ *
+ * @author Emanuel Muckenhuber
+ */
+final class ManagementRequestTable {
+
+    private static final Object MOVED = new Object();
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private static final AtomicIntegerFieldUpdater<ManagementRequestTable> sizeUpdater = AtomicIntegerFieldUpdater.newUpdater(ManagementRequestTable.class, "size");
+
+    private volatile Table table;
+    private volatile int size;
+
+    ManagementRequestTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    ManagementRequestTable(final int initialCapacity) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < initialCapacity) {
+            capacity <<= 1;
+        }
+        this.table = new Table(capacity);
+    }
+
+    /**
+     * Register a request using its {@link ManagementRequest#getRequestId()}.
+     *
+     * @param request the request
+     * @return {@code true} if the request was registered, {@code false} if the slot is taken by another in-flight request
+     */
+    boolean register(final ManagementRequest request) {
+        final int id = request.getRequestId();
+        Table table = this.table;
+        for (;;) {
+            final int index = id & table.mask;
+            final Object current = table.slots.get(index);
+            if (current == MOVED) {
+                table = table.next;
+            } else if (current != null) {
+                return false;
+            } else if (table.slots.compareAndSet(index, null, request)) {
+                if (sizeUpdater.incrementAndGet(this) > table.threshold) {
+                    resize(table);
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Get an in-flight request.
+     *
+     * @param id the request id
+     * @return the request, {@code null} if there is no such request
+     */
+    ManagementRequest get(final int id) {
+        Table table = this.table;
+        for (;;) {
+            final Object current = table.slots.get(id & table.mask);
+            if (current == MOVED) {
+                table = table.next;
+            } else if (current != null && ((ManagementRequest) current).getRequestId() == id) {
+                return (ManagementRequest) current;
+            } else {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Remove an in-flight request.
+     *
+     * @param id the request id
+     * @return the removed request, {@code null} if there is no such request
+     */
+    ManagementRequest remove(final int id) {
+        Table table = this.table;
+        for (;;) {
+            final int index = id & table.mask;
+            final Object current = table.slots.get(index);
+            if (current == MOVED) {
+                table = table.next;
+            } else if (current == null || ((ManagementRequest) current).getRequestId() != id) {
+                return null;
+            } else if (table.slots.compareAndSet(index, current, null)) {
+                sizeUpdater.decrementAndGet(this);
+                return (ManagementRequest) current;
+            }
+        }
+    }
+
+    /**
+     * Get a snapshot of the in-flight requests.
+     *
+     * @return the requests
+     */
+    synchronized List<ManagementRequest> values() {
+        // Resizing holds the lock, so the current table is complete
+        final AtomicReferenceArray<Object> slots = table.slots;
+        final List<ManagementRequest> requests = new ArrayList<>();
+        for (int i = 0; i < slots.length(); i++) {
+            final Object current = slots.get(i);
+            if (current != null) {
+                requests.add((ManagementRequest) current);
+            }
+        }
+        return requests;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Migrate all requests to a table twice the size. Concurrent registrations and removals hitting an already
+     * migrated slot continue on the new table.
+     *
+     * @param old the table to resize
+     */
+    private synchronized void resize(final Table old) {
+        if (table != old || old.next != null) {
+            return;
+        }
+        final Table next = new Table(old.slots.length() << 1);
+        old.next = next;
+        for (int i = 0; i < old.slots.length(); i++) {
+            for (;;) {
+                final Object current = old.slots.get(i);
+                if (current == null) {
+                    if (old.slots.compareAndSet(i, null, MOVED)) {
+                        break;
+                    }
+                } else {
+                    // Ids sharing a slot in the new table would have shared it in the old one as well
+                    final int index = ((ManagementRequest) current).getRequestId() & next.mask;
+                    next.slots.set(index, current);
+                    if (old.slots.compareAndSet(i, current, MOVED)) {
+                        break;
+                    }
+                    // Removed concurrently
+                    next.slots.compareAndSet(index, current, null);
+                }
+            }
+        }
+        table = next;
+    }
+
+    static final class Table {
+
+        private final AtomicReferenceArray<Object> slots;
+        private final int mask;
+        private final int threshold;
+        private volatile Table next;
+
+        Table(final int capacity) {
+            this.slots = new AtomicReferenceArray<>(capacity);
+            this.mask = capacity - 1;
+            this.threshold = capacity >> 1;
+        }
+    }
+
+}
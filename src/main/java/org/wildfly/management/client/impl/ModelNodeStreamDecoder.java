@@ -0,0 +1,297 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client.impl;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.wildfly.management.client.ModelNodeStreamHandler;
+
+/**
+ * Decodes the binary {@code ModelNode} representation incrementally, passing each element to a
+ * {@link ModelNodeStreamHandler} instead of building the tree.
+ *
+ * @author Emanuel Muckenhuber
+ */
+class ModelNodeStreamDecoder<T> implements ResponseDecoder<T> {
+
+    private final ModelNodeStreamHandler<T> handler;
+
+    ModelNodeStreamDecoder(final ModelNodeStreamHandler<T> handler) {
+        this.handler = handler;
+    }
+
+    @Override
+    public T decode(final DataInput input) throws IOException {
+        decodeNode(input, handler);
+        return handler.complete();
+    }
+
+    static void decodeNode(final DataInput input, final ModelNodeStreamHandler<?> handler) throws IOException {
+        final char type = (char) (input.readByte() & 0xff);
+        switch (type) {
+            case 'o': {
+                final int size = input.readInt();
+                handler.startObject(size);
+                for (int i = 0; i < size; i++) {
+                    handler.key(input.readUTF());
+                    decodeNode(input, handler);
+                }
+                handler.endObject();
+                break;
+            }
+            case 'l': {
+                final int size = input.readInt();
+                handler.startList(size);
+                for (int i = 0; i < size; i++) {
+                    decodeNode(input, handler);
+                }
+                handler.endList();
+                break;
+            }
+            case 'p': {
+                handler.startProperty(input.readUTF());
+                decodeNode(input, handler);
+                handler.endProperty();
+                break;
+            }
+            default:
+                handler.value(decodeValue(type, input));
+        }
+    }
+
+    /**
+     * Decode a simple value.
+     *
+     * @param type  the type char
+     * @param input the data input
+     * @return the value
+     * @throws IOException
+     */
+    static ModelNode decodeValue(final char type, final DataInput input) throws IOException {
+        final ModelNode node = new ModelNode();
+        switch (type) {
+            case 'u':
+                return node;
+            case 'Z':
+                return node.set(input.readBoolean());
+            case 'I':
+                return node.set(input.readInt());
+            case 'J':
+                return node.set(input.readLong());
+            case 'D':
+                return node.set(input.readDouble());
+            case 'i':
+                return node.set(new BigInteger(readBytes(input)));
+            case 'd': {
+                final BigInteger unscaled = new BigInteger(readBytes(input));
+                return node.set(new BigDecimal(unscaled, input.readInt()));
+            }
+            case 'b':
+                return node.set(readBytes(input));
+            case 's':
+                return node.set(input.readUTF());
+            case 'e':
+                return node.setExpression(input.readUTF());
+            case 't':
+                return node.set(toModelType((char) (input.readByte() & 0xff)));
+            default:
+                throw new IOException("Invalid type read: " + type);
+        }
+    }
+
+    /**
+     * Skip a node, without decoding its contents.
+     *
+     * @param input the data input
+     * @throws IOException
+     */
+    static void skipNode(final DataInput input) throws IOException {
+        final char type = (char) (input.readByte() & 0xff);
+        switch (type) {
+            case 'o': {
+                final int size = input.readInt();
+                for (int i = 0; i < size; i++) {
+                    skipUTF(input);
+                    skipNode(input);
+                }
+                break;
+            }
+            case 'l': {
+                final int size = input.readInt();
+                for (int i = 0; i < size; i++) {
+                    skipNode(input);
+                }
+                break;
+            }
+            case 'p':
+                skipUTF(input);
+                skipNode(input);
+                break;
+            case 'u':
+                break;
+            case 'Z':
+            case 't':
+                skipFully(input, 1);
+                break;
+            case 'I':
+                skipFully(input, 4);
+                break;
+            case 'J':
+            case 'D':
+                skipFully(input, 8);
+                break;
+            case 'i':
+            case 'b':
+                skipFully(input, input.readInt());
+                break;
+            case 'd':
+                skipFully(input, input.readInt() + 4);
+                break;
+            case 's':
+            case 'e':
+                skipUTF(input);
+                break;
+            default:
+                throw new IOException("Invalid type read: " + type);
+        }
+    }
+
+    /**
+     * Copy the binary representation of a node, without decoding its contents.
+     *
+     * @param input  the data input
+     * @param output the data output
+     * @throws IOException
+     */
+    static void copyNode(final DataInput input, final DataOutput output) throws IOException {
+        final byte type = input.readByte();
+        output.writeByte(type);
+        switch ((char) (type & 0xff)) {
+            case 'o': {
+                final int size = input.readInt();
+                output.writeInt(size);
+                for (int i = 0; i < size; i++) {
+                    output.writeUTF(input.readUTF());
+                    copyNode(input, output);
+                }
+                break;
+            }
+            case 'l': {
+                final int size = input.readInt();
+                output.writeInt(size);
+                for (int i = 0; i < size; i++) {
+                    copyNode(input, output);
+                }
+                break;
+            }
+            case 'p':
+                output.writeUTF(input.readUTF());
+                copyNode(input, output);
+                break;
+            case 'u':
+                break;
+            case 'Z':
+            case 't':
+                output.writeByte(input.readByte());
+                break;
+            case 'I':
+                output.writeInt(input.readInt());
+                break;
+            case 'J':
+            case 'D':
+                output.writeLong(input.readLong());
+                break;
+            case 'i':
+            case 'b': {
+                final byte[] b = readBytes(input);
+                output.writeInt(b.length);
+                output.write(b);
+                break;
+            }
+            case 'd': {
+                final byte[] b = readBytes(input);
+                output.writeInt(b.length);
+                output.write(b);
+                output.writeInt(input.readInt());
+                break;
+            }
+            case 's':
+            case 'e':
+                output.writeUTF(input.readUTF());
+                break;
+            default:
+                throw new IOException("Invalid type read: " + (char) (type & 0xff));
+        }
+    }
+
+    private static void skipUTF(final DataInput input) throws IOException {
+        skipFully(input, input.readUnsignedShort());
+    }
+
+    private static void skipFully(final DataInput input, int n) throws IOException {
+        while (n > 0) {
+            final int skipped = input.skipBytes(n);
+            if (skipped > 0) {
+                n -= skipped;
+            } else {
+                // Force a blocking read, which throws EOFException at the end of the stream
+                input.readByte();
+                n--;
+            }
+        }
+    }
+
+    static byte[] readBytes(final DataInput input) throws IOException {
+        final byte[] b = new byte[input.readInt()];
+        input.readFully(b);
+        return b;
+    }
+
+    static ModelType toModelType(final char type) throws IOException {
+        switch (type) {
+            case 'd': return ModelType.BIG_DECIMAL;
+            case 'i': return ModelType.BIG_INTEGER;
+            case 'Z': return ModelType.BOOLEAN;
+            case 'b': return ModelType.BYTES;
+            case 'D': return ModelType.DOUBLE;
+            case 'e': return ModelType.EXPRESSION;
+            case 'I': return ModelType.INT;
+            case 'l': return ModelType.LIST;
+            case 'J': return ModelType.LONG;
+            case 'o': return ModelType.OBJECT;
+            case 'p': return ModelType.PROPERTY;
+            case 's': return ModelType.STRING;
+            case 't': return ModelType.TYPE;
+            case 'u': return ModelType.UNDEFINED;
+            default:
+                throw new IOException("Invalid type read: " + type);
+        }
+    }
+
+}
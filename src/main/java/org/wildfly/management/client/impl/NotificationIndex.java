@@ -0,0 +1,223 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.dmr.Property;
+import org.wildfly.management.client.CompiledNotificationFilter;
+import org.wildfly.management.client.Notification;
+import org.wildfly.management.client.NotificationFilter;
+
+/**
+ * The notification queues of a remote registration, indexed by the notification type and address patterns of their
+ * {@link CompiledNotificationFilter}. Dispatching a notification only offers it to the queues which can possibly
+ * match, queues with an opaque filter are always offered the notification.
+ *
+ * <p>The index is rebuilt on every change and read without locking, as handlers are registered far less often than
+ * notifications are received.</p>
+ *
+ * @author Emanuel Muckenhuber
+ */
+class NotificationIndex {
+
+    private final List<NotificationQueue> queues = new ArrayList<>();
+    private volatile Snapshot snapshot = new Snapshot(Collections.<NotificationQueue>emptyList());
+
+    synchronized void add(final NotificationQueue queue) {
+        queues.add(queue);
+        snapshot = new Snapshot(queues);
+    }
+
+    synchronized boolean remove(final NotificationQueue queue) {
+        if (queues.remove(queue)) {
+            snapshot = new Snapshot(queues);
+            return true;
+        }
+        return false;
+    }
+
+    boolean isEmpty() {
+        return snapshot.queues.isEmpty();
+    }
+
+    /**
+     * Offer the notification to all queues which can possibly match.
+     *
+     * @param notification the notification
+     */
+    void dispatch(final Notification notification) {
+        for (final NotificationQueue queue : candidates(notification)) {
+            queue.offer(notification);
+        }
+    }
+
+    /**
+     * Get the queues which can possibly match the notification.
+     *
+     * @param notification the notification
+     * @return the candidate queues
+     */
+    List<NotificationQueue> candidates(final Notification notification) {
+        return snapshot.candidates(notification);
+    }
+
+    /**
+     * Close all queues.
+     */
+    void close() {
+        for (final NotificationQueue queue : snapshot.queues) {
+            queue.close();
+        }
+    }
+
+    static final class Snapshot {
+
+        private final List<NotificationQueue> queues;
+        private final List<NotificationQueue> unindexed = new ArrayList<>();
+        private final Map<String, Node> byType = new HashMap<>();
+        private final Node anyType = new Node();
+        // A filter with several address patterns can be reached through more than one path
+        private boolean deduplicate;
+        private boolean addressPatterns;
+
+        Snapshot(final List<NotificationQueue> queues) {
+            this.queues = new ArrayList<>(queues);
+            for (final NotificationQueue queue : queues) {
+                final NotificationFilter filter = queue.getFilter();
+                if (filter instanceof CompiledNotificationFilter) {
+                    final CompiledNotificationFilter compiled = (CompiledNotificationFilter) filter;
+                    if (compiled.getTypes().isEmpty()) {
+                        add(anyType, compiled, queue);
+                    } else {
+                        for (final String type : compiled.getTypes()) {
+                            Node node = byType.get(type);
+                            if (node == null) {
+                                node = new Node();
+                                byType.put(type, node);
+                            }
+                            add(node, compiled, queue);
+                        }
+                    }
+                } else {
+                    unindexed.add(queue);
+                }
+            }
+        }
+
+        private void add(final Node root, final CompiledNotificationFilter filter, final NotificationQueue queue) {
+            final List<List<Property>> patterns = filter.getAddressPatterns();
+            if (patterns.isEmpty()) {
+                root.anyAddress.add(queue);
+                return;
+            }
+            addressPatterns = true;
+            deduplicate |= patterns.size() > 1;
+            for (final List<Property> pattern : patterns) {
+                Node node = root;
+                for (final Property element : pattern) {
+                    node = node.child(element.getName(), element.getValue().asString());
+                }
+                node.matches.add(queue);
+            }
+        }
+
+        List<NotificationQueue> candidates(final Notification notification) {
+            if (byType.isEmpty() && !addressPatterns) {
+                // Only opaque filters or filters accepting everything
+                return queues;
+            }
+            final List<Property> address = addressPatterns ? CompiledNotificationFilter.toAddress(notification.getResource()) : null;
+            final List<NotificationQueue> candidates = new ArrayList<>(unindexed);
+            anyType.collect(address, candidates);
+            final Node node = byType.get(notification.getType());
+            if (node != null) {
+                node.collect(address, candidates);
+            }
+            if (deduplicate) {
+                return new ArrayList<>(new LinkedHashSet<>(candidates));
+            }
+            return candidates;
+        }
+    }
+
+    /**
+     * A node of the address trie. Wildcard values are stored as a child with the {@code *} value.
+     */
+    static final class Node {
+
+        private final List<NotificationQueue> anyAddress = new ArrayList<>();
+        private final List<NotificationQueue> matches = new ArrayList<>();
+        private final Map<String, Map<String, Node>> children = new HashMap<>();
+
+        Node child(final String key, final String value) {
+            Map<String, Node> values = children.get(key);
+            if (values == null) {
+                values = new HashMap<>();
+                children.put(key, values);
+            }
+            Node node = values.get(value);
+            if (node == null) {
+                node = new Node();
+                values.put(value, node);
+            }
+            return node;
+        }
+
+        void collect(final List<Property> address, final List<NotificationQueue> candidates) {
+            candidates.addAll(anyAddress);
+            if (address != null) {
+                collect(address, 0, candidates);
+            }
+        }
+
+        private void collect(final List<Property> address, final int depth, final List<NotificationQueue> candidates) {
+            if (depth == address.size()) {
+                candidates.addAll(matches);
+                return;
+            }
+            final Property element = address.get(depth);
+            final Map<String, Node> values = children.get(element.getName());
+            if (values == null) {
+                return;
+            }
+            final String value = element.getValue().asString();
+            final Node exact = values.get(value);
+            if (exact != null) {
+                exact.collect(address, depth + 1, candidates);
+            }
+            if (!CompiledNotificationFilter.WILDCARD.equals(value)) {
+                final Node wildcard = values.get(CompiledNotificationFilter.WILDCARD);
+                if (wildcard != null) {
+                    wildcard.collect(address, depth + 1, candidates);
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,192 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.wildfly.management.client.CompiledNotificationFilter;
+import org.wildfly.management.client.Notification;
+import org.wildfly.management.client.NotificationFilter;
+import org.wildfly.management.client.NotificationHandler;
+import org.wildfly.management.client.NotificationOverflowPolicy;
+import org.wildfly.management.client._private.ManagementClientLogger;
+
+/**
+ * Bounded delivery queue of a single notification handler. Notifications are delivered in order, in batches, by at
+ * most one task on the executor at a time.
+ *
+ * @author Emanuel Muckenhuber
+ */
+class NotificationQueue implements Runnable {
+
+    static final int MAX_BATCH = 64;
+
+    private final NotificationHandler handler;
+    private final NotificationFilter filter;
+    private final CompiledNotificationFilter dataFilter; // null unless the filter has data predicates
+    private final Executor executor;
+    private final int capacity;
+    private final NotificationOverflowPolicy policy;
+    private final ArrayDeque<Notification> queue = new ArrayDeque<>();
+
+    private boolean scheduled;
+    private boolean closed;
+
+    NotificationQueue(final NotificationHandler handler, final NotificationFilter filter, final Executor executor,
+                      final int capacity, final NotificationOverflowPolicy policy) {
+        this.handler = handler;
+        this.filter = filter;
+        this.dataFilter = filter instanceof CompiledNotificationFilter && ((CompiledNotificationFilter) filter).hasDataPredicates()
+                ? (CompiledNotificationFilter) filter : null;
+        this.executor = executor;
+        this.capacity = Math.max(1, capacity);
+        this.policy = policy;
+    }
+
+    NotificationFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * Queue a notification for delivery. Notifications rejected by the filter are discarded right away, except for
+     * the data predicates of a {@link CompiledNotificationFilter}. Those are tested when delivering the notification,
+     * so its data is not decoded on the thread reading from the channel.
+     * <p/>
+     * With the {@link NotificationOverflowPolicy#BLOCK} policy, an interrupt while waiting for space in the queue
+     * discards the oldest notification instead, keeping the interrupt status. Failing would close the channel. If the
+     * executor rejects the delivery task, the queued notifications are discarded.
+     *
+     * @param notification the notification
+     */
+    void offer(final Notification notification) {
+        if (dataFilter != null) {
+            if (!dataFilter.matchesTypeAndAddress(notification)) {
+                return;
+            }
+        } else if (!filter.isNotificationEnabled(notification)) {
+            return;
+        }
+        boolean interrupted = false;
+        synchronized (this) {
+            while (!closed && queue.size() >= capacity) {
+                if (policy == NotificationOverflowPolicy.BLOCK && !interrupted) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                } else if (policy != NotificationOverflowPolicy.COALESCE || !removeSimilar(notification)) {
+                    queue.poll();
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (closed) {
+                return;
+            }
+            queue.add(notification);
+            if (scheduled) {
+                return;
+            }
+            scheduled = true;
+        }
+        schedule();
+    }
+
+    /**
+     * Discard all queued notifications and stop delivery.
+     */
+    synchronized void close() {
+        closed = true;
+        queue.clear();
+        notifyAll();
+    }
+
+    @Override
+    public void run() {
+        final List<Notification> batch;
+        synchronized (this) {
+            final int size = Math.min(queue.size(), MAX_BATCH);
+            batch = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                batch.add(queue.poll());
+            }
+            notifyAll();
+        }
+        for (final Notification notification : batch) {
+            try {
+                if (dataFilter != null && !dataFilter.matchesData(notification)) {
+                    continue;
+                }
+                handler.handleNotification(notification);
+            } catch (Throwable t) {
+                ManagementClientLogger.ROOT_LOGGER.notificationHandlerFailed(t, handler);
+            }
+        }
+        synchronized (this) {
+            if (queue.isEmpty()) {
+                scheduled = false;
+                return;
+            }
+        }
+        // Resubmit rather than loop, giving other handlers a turn on the shared executor
+        schedule();
+    }
+
+    private void schedule() {
+        try {
+            executor.execute(this);
+        } catch (RejectedExecutionException e) {
+            synchronized (this) {
+                // Nothing drains the queue, drop the notifications so a blocking offer does not wait forever
+                scheduled = false;
+                queue.clear();
+                notifyAll();
+            }
+            ManagementClientLogger.ROOT_LOGGER.notificationHandlerFailed(e, handler);
+        }
+    }
+
+    private boolean removeSimilar(final Notification notification) {
+        final Iterator<Notification> i = queue.iterator();
+        while (i.hasNext()) {
+            final Notification queued = i.next();
+            if (equals(queued.getType(), notification.getType()) && equals(queued.getResource(), notification.getResource())) {
+                i.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean equals(final Object o1, final Object o2) {
+        return o1 == null ? o2 == null : o1.equals(o2);
+    }
+
+}
@@ -0,0 +1,191 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client.impl;
+
+import static org.wildfly.management.client.helpers.ClientConstants.FAILED;
+import static org.wildfly.management.client.helpers.ClientConstants.FAILURE_DESCRIPTION;
+import static org.wildfly.management.client.helpers.ClientConstants.OUTCOME;
+import static org.wildfly.management.client.helpers.ClientConstants.RESULT;
+import static org.wildfly.management.client.helpers.ClientConstants.ROLLBACK_ON_RUNTIME_FAILURE;
+import static org.wildfly.management.client.helpers.ClientConstants.STEPS;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
+import org.wildfly.management.client.ManagementConnection;
+import org.wildfly.management.client._private.ManagementClientMessages;
+import org.wildfly.management.client._private.ModelNodeUtils;
+import org.wildfly.management.client.helpers.Operations;
+import org.xnio.FutureResult;
+
+/**
+ * Packs independent operations into {@code composite} operations and splits the {@code step-N} results back into
+ * a future per operation.
+ * <p/>
+ * A composite is closed once it reaches the maximum number of steps or the estimated size of its steps exceeds the
+ * maximum size. Composites don't rollback on a runtime failure, so a failing operation does not affect the other
+ * operations of the same batch. All composites are executed concurrently.
+ *
+ * @author Emanuel Muckenhuber
+ */
+final class OperationBatcher {
+
+    private static final String STEP = "step-";
+
+    private OperationBatcher() {
+        //
+    }
+
+    /**
+     * Execute a batch of operations. If sending a composite fails after others were sent already, the sent ones keep
+     * running and the futures of the operations which were not sent fail with the exception.
+     *
+     * @param connection the connection
+     * @param operations the operations
+     * @param maxSteps   the maximum number of steps per composite
+     * @param maxSize    the maximum estimated size of a composite in bytes
+     * @return the future results, in the order of the operations
+     * @throws IOException if sending the first composite fails
+     */
+    static List<AsyncFuture<ModelNode>> executeBatch(final ManagementConnection connection, final List<ModelNode> operations,
+                                                     final int maxSteps, final int maxSize) throws IOException {
+        if (operations.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<AsyncFuture<ModelNode>> results = new ArrayList<>(operations.size());
+        final List<ModelNode> composites = new ArrayList<>();
+        final List<List<FutureResult<ModelNode>>> batches = new ArrayList<>();
+        List<FutureResult<ModelNode>> batch = null;
+        ModelNode composite = null;
+        int size = 0;
+        for (final ModelNode operation : operations) {
+            final int operationSize = ModelNodeUtils.estimateSize(operation);
+            if (composite != null && (batch.size() >= maxSteps || size + operationSize > maxSize)) {
+                composite = null;
+            }
+            if (composite == null) {
+                composite = Operations.createCompositeOperation();
+                composite.get(ROLLBACK_ON_RUNTIME_FAILURE).set(false);
+                batch = new ArrayList<>();
+                composites.add(composite);
+                batches.add(batch);
+                size = 0;
+            }
+            composite.get(STEPS).add(operation);
+            size += operationSize;
+            final FutureResult<ModelNode> result = new FutureResult<>();
+            batch.add(result);
+            results.add(new ManagementRequestFutureImpl<>(result.getIoFuture()));
+        }
+        for (int i = 0; i < composites.size(); i++) {
+            try {
+                execute(connection, composites.get(i), batches.get(i));
+            } catch (IOException e) {
+                if (i == 0) {
+                    throw e;
+                }
+                // Fail the operations which were not sent, the sent ones keep running
+                for (int j = i; j < batches.size(); j++) {
+                    for (final FutureResult<ModelNode> step : batches.get(j)) {
+                        step.setException(e);
+                    }
+                }
+                break;
+            }
+        }
+        return results;
+    }
+
+    private static void execute(final ManagementConnection connection, final ModelNode composite, final List<FutureResult<ModelNode>> steps) throws IOException {
+        final AsyncFuture<ModelNode> future;
+        if (steps.size() == 1) {
+            // No need to wrap a single operation
+            future = connection.executeAsync(composite.get(STEPS).get(0));
+        } else {
+            future = connection.executeAsync(composite);
+        }
+        future.addListener(new AsyncFuture.Listener<ModelNode, Void>() {
+            @Override
+            public void handleComplete(AsyncFuture<? extends ModelNode> future, Void attachment) {
+                final ModelNode response;
+                try {
+                    response = future.getUninterruptibly();
+                } catch (Exception e) {
+                    handleFailed(future, e, attachment);
+                    return;
+                }
+                if (steps.size() == 1) {
+                    steps.get(0).setResult(response);
+                } else {
+                    complete(response, steps);
+                }
+            }
+
+            @Override
+            public void handleFailed(AsyncFuture<? extends ModelNode> future, Throwable cause, Void attachment) {
+                final IOException exception = cause instanceof IOException ? (IOException) cause : new IOException(cause);
+                for (final FutureResult<ModelNode> step : steps) {
+                    step.setException(exception);
+                }
+            }
+
+            @Override
+            public void handleCancelled(AsyncFuture<? extends ModelNode> future, Void attachment) {
+                for (final FutureResult<ModelNode> step : steps) {
+                    step.setCancelled();
+                }
+            }
+        }, null);
+    }
+
+    /**
+     * Split the composite response into the step results. Steps without a result, e.g. if the composite failed
+     * before executing the steps, get the failure description of the composite.
+     *
+     * @param response the composite response
+     * @param steps    the step futures
+     */
+    static void complete(final ModelNode response, final List<FutureResult<ModelNode>> steps) {
+        final ModelNode result = response.get(RESULT);
+        for (int i = 0; i < steps.size(); i++) {
+            final String step = STEP + (i + 1);
+            if (result.hasDefined(step)) {
+                steps.get(i).setResult(result.get(step));
+            } else {
+                final ModelNode failed = new ModelNode();
+                failed.get(OUTCOME).set(FAILED);
+                if (response.hasDefined(FAILURE_DESCRIPTION)) {
+                    failed.get(FAILURE_DESCRIPTION).set(response.get(FAILURE_DESCRIPTION));
+                } else {
+                    failed.get(FAILURE_DESCRIPTION).set(ManagementClientMessages.MESSAGES.noFailureDetails());
+                }
+                steps.get(i).setResult(failed);
+            }
+        }
+    }
+
+}
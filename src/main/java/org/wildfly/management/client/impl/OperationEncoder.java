@@ -0,0 +1,70 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client.impl;
+
+import static org.wildfly.management.client._private.ManagementClientMessages.MESSAGES;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.jboss.dmr.ModelNode;
+import org.wildfly.management.client.OperationTemplate;
+
+/**
+ * Encodes the operation of an execute request.
+ *
+ * @author Emanuel Muckenhuber
+ */
+abstract class OperationEncoder {
+
+    /**
+     * Write the operation.
+     *
+     * @param output the data output
+     * @throws IOException
+     */
+    abstract void writeOperation(DataOutput output) throws IOException;
+
+    static OperationEncoder of(final ModelNode operation) {
+        return new OperationEncoder() {
+            @Override
+            void writeOperation(DataOutput output) throws IOException {
+                operation.writeExternal(output);
+            }
+        };
+    }
+
+    static OperationEncoder of(final OperationTemplate template, final ModelNode... values) {
+        if (values.length != template.getParameterCount()) {
+            // Fail before the request is registered
+            throw MESSAGES.invalidTemplateValueCount(template.getParameterCount(), values.length);
+        }
+        return new OperationEncoder() {
+            @Override
+            void writeOperation(DataOutput output) throws IOException {
+                template.writeExternal(output, values);
+            }
+        };
+    }
+
+}
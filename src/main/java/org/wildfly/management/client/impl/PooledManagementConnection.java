@@ -0,0 +1,305 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client.impl;
+
+import static org.wildfly.management.client._private.ManagementClientMessages.MESSAGES;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.remoting3.CloseHandler;
+import org.jboss.remoting3.HandleableCloseable;
+import org.jboss.threads.AsyncFuture;
+import org.wildfly.management.client.ManagementConnection;
+import org.wildfly.management.client.ModelNodeStreamHandler;
+import org.wildfly.management.client.NotificationFilter;
+import org.wildfly.management.client.NotificationHandler;
+import org.wildfly.management.client.NotificationRegistration;
+import org.wildfly.management.client.OperationStreamAttachments;
+import org.wildfly.management.client.OperationTemplate;
+import org.wildfly.management.client.ResponseProjection;
+import org.xnio.FutureResult;
+import org.xnio.IoUtils;
+
+/**
+ * A connection borrowed from the {@link ManagementConnectionPool}. Closing the connection returns the underlying
+ * connection to the pool, after unregistering all notification handlers registered through this instance.
+ *
+ * @author Emanuel Muckenhuber
+ */
+class PooledManagementConnection implements ManagementConnection {
+
+    private static final AtomicIntegerFieldUpdater<PooledManagementConnection> releasedUpdater = AtomicIntegerFieldUpdater.newUpdater(PooledManagementConnection.class, "released");
+
+    private final ManagementConnectionPool.TargetPool pool;
+    private final ManagementConnectionImpl connection;
+    private final Set<Closeable> registrations = Collections.newSetFromMap(new IdentityHashMap<Closeable, Boolean>());
+    private final CountDownLatch closed = new CountDownLatch(1); // released or the underlying connection closed
+    private final HandleableCloseable.Key closeKey;
+    private volatile int released;
+
+    PooledManagementConnection(final ManagementConnectionPool.TargetPool pool, final ManagementConnectionImpl connection) {
+        this.pool = pool;
+        this.connection = connection;
+        this.closeKey = connection.addCloseHandler(new CloseHandler<ManagementConnectionImpl>() {
+            @Override
+            public void handleClose(ManagementConnectionImpl closeable, IOException exception) {
+                closed.countDown();
+            }
+        });
+    }
+
+    ManagementConnectionImpl getDelegate() {
+        return connection;
+    }
+
+    @Override
+    public ModelNode execute(final ModelNode operation) throws IOException {
+        checkReleased();
+        return connection.execute(operation);
+    }
+
+    @Override
+    public ModelNode execute(final ModelNode operation, final OperationStreamAttachments attachments) throws IOException {
+        checkReleased();
+        return connection.execute(operation, attachments);
+    }
+
+    @Override
+    public AsyncFuture<ModelNode> executeAsync(final ModelNode operation) throws IOException {
+        checkReleased();
+        return connection.executeAsync(operation);
+    }
+
+    @Override
+    public AsyncFuture<ModelNode> tryExecuteAsync(final ModelNode operation) throws IOException {
+        checkReleased();
+        return connection.tryExecuteAsync(operation);
+    }
+
+    @Override
+    public AsyncFuture<ModelNode> tryExecuteAsync(final ModelNode operation, final long timeout, final TimeUnit unit) throws IOException {
+        checkReleased();
+        return connection.tryExecuteAsync(operation, timeout, unit);
+    }
+
+    @Override
+    public AsyncFuture<ModelNode> executeAsync(final ModelNode operation, final OperationStreamAttachments attachments) throws IOException {
+        checkReleased();
+        return connection.executeAsync(operation, attachments);
+    }
+
+    @Override
+    public AsyncFuture<ModelNode> tryExecuteAsync(final ModelNode operation, final OperationStreamAttachments attachments) throws IOException {
+        checkReleased();
+        return connection.tryExecuteAsync(operation, attachments);
+    }
+
+    @Override
+    public ModelNode execute(final ModelNode operation, final long timeout, final TimeUnit unit) throws IOException {
+        checkReleased();
+        return connection.execute(operation, timeout, unit);
+    }
+
+    @Override
+    public AsyncFuture<ModelNode> executeAsync(final ModelNode operation, final long timeout, final TimeUnit unit) throws IOException {
+        checkReleased();
+        return connection.executeAsync(operation, timeout, unit);
+    }
+
+    @Override
+    public ModelNode execute(final ModelNode operation, final ResponseProjection projection) throws IOException {
+        checkReleased();
+        return connection.execute(operation, projection);
+    }
+
+    @Override
+    public AsyncFuture<ModelNode> executeAsync(final ModelNode operation, final ResponseProjection projection) throws IOException {
+        checkReleased();
+        return connection.executeAsync(operation, projection);
+    }
+
+    @Override
+    public ModelNode execute(final OperationTemplate template, final ModelNode... values) throws IOException {
+        checkReleased();
+        return connection.execute(template, values);
+    }
+
+    @Override
+    public AsyncFuture<ModelNode> executeAsync(final OperationTemplate template, final ModelNode... values) throws IOException {
+        checkReleased();
+        return connection.executeAsync(template, values);
+    }
+
+    @Override
+    public AsyncFuture<ModelNode> tryExecuteAsync(final OperationTemplate template, final ModelNode... values) throws IOException {
+        checkReleased();
+        return connection.tryExecuteAsync(template, values);
+    }
+
+    @Override
+    public <T> AsyncFuture<T> executeStreaming(final ModelNode operation, final ModelNodeStreamHandler<T> handler) throws IOException {
+        checkReleased();
+        return connection.executeStreaming(operation, handler);
+    }
+
+    @Override
+    public <T> AsyncFuture<T> executeStreaming(final ModelNode operation, final OperationStreamAttachments attachments, final ModelNodeStreamHandler<T> handler) throws IOException {
+        checkReleased();
+        return connection.executeStreaming(operation, attachments, handler);
+    }
+
+    @Override
+    public List<AsyncFuture<ModelNode>> executeBatch(final List<ModelNode> operations) throws IOException {
+        checkReleased();
+        return connection.executeBatch(operations);
+    }
+
+    @Override
+    public Closeable registerNotificationHandler(final ModelNode address, final NotificationHandler handler, final NotificationFilter filter) {
+        if (released != 0) {
+            throw MESSAGES.objectIsClosed("connection");
+        }
+        return track(connection.registerNotificationHandler(address, handler, filter));
+    }
+
+    @Override
+    public AsyncFuture<NotificationRegistration> registerNotificationHandlerAsync(final ModelNode address, final NotificationHandler handler, final NotificationFilter filter) {
+        if (released != 0) {
+            throw MESSAGES.objectIsClosed("connection");
+        }
+        final FutureResult<NotificationRegistration> result = new FutureResult<>();
+        connection.registerNotificationHandlerAsync(address, handler, filter).addListener(new AsyncFuture.Listener<NotificationRegistration, Void>() {
+            @Override
+            public void handleComplete(AsyncFuture<? extends NotificationRegistration> future, Void attachment) {
+                try {
+                    result.setResult(track(future.get()));
+                } catch (Exception e) {
+                    handleFailed(future, e, attachment);
+                }
+            }
+
+            @Override
+            public void handleFailed(AsyncFuture<? extends NotificationRegistration> future, Throwable cause, Void attachment) {
+                result.setException(cause instanceof IOException ? (IOException) cause : new IOException(cause));
+            }
+
+            @Override
+            public void handleCancelled(AsyncFuture<? extends NotificationRegistration> future, Void attachment) {
+                result.setCancelled();
+            }
+        }, null);
+        return new ManagementRequestFutureImpl<>(result.getIoFuture());
+    }
+
+    private NotificationRegistration track(final NotificationRegistration registration) {
+        synchronized (registrations) {
+            registrations.add(registration);
+        }
+        if (released != 0) {
+            // Released concurrently
+            unregister(registration);
+        }
+        return new NotificationRegistration() {
+            @Override
+            public AsyncFuture<Void> unregisterAsync() {
+                synchronized (registrations) {
+                    registrations.remove(registration);
+                }
+                return registration.unregisterAsync();
+            }
+
+            @Override
+            public void close() throws IOException {
+                unregister(registration);
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (releasedUpdater.compareAndSet(this, 0, 1)) {
+            final List<Closeable> toClose;
+            synchronized (registrations) {
+                toClose = new ArrayList<>(registrations);
+                registrations.clear();
+            }
+            for (final Closeable registration : toClose) {
+                IoUtils.safeClose(registration);
+            }
+            closeKey.remove();
+            pool.release(connection);
+            closed.countDown();
+        }
+    }
+
+    @Override
+    public void awaitClosed() throws InterruptedException {
+        closed.await();
+    }
+
+    @Override
+    public void awaitClosedUninterruptibly() {
+        boolean interrupted = false;
+        try {
+            for (;;) {
+                try {
+                    closed.await();
+                    return;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void unregister(final Closeable registration) {
+        final boolean removed;
+        synchronized (registrations) {
+            removed = registrations.remove(registration);
+        }
+        if (removed) {
+            IoUtils.safeClose(registration);
+        }
+    }
+
+    private void checkReleased() throws IOException {
+        if (released != 0) {
+            throw MESSAGES.channelClosed();
+        }
+    }
+
+}
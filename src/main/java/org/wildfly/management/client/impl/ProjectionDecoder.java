@@ -0,0 +1,96 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client.impl;
+
+import java.io.DataInput;
+import java.io.IOException;
+
+import org.jboss.dmr.ModelNode;
+import org.wildfly.management.client.ResponseProjection;
+
+/**
+ * Decodes the selected parts of a response, skipping over all other nodes in the binary representation.
+ *
+ * @author Emanuel Muckenhuber
+ */
+class ProjectionDecoder implements ResponseDecoder<ModelNode> {
+
+    private final ResponseProjection projection;
+
+    ProjectionDecoder(final ResponseProjection projection) {
+        this.projection = projection;
+    }
+
+    @Override
+    public ModelNode decode(final DataInput input) throws IOException {
+        final ModelNode node = new ModelNode();
+        project(input, projection, node);
+        return node;
+    }
+
+    static void project(final DataInput input, final ResponseProjection projection, final ModelNode target) throws IOException {
+        if (projection.isSelected()) {
+            target.readExternal(input);
+            return;
+        }
+        final char type = (char) (input.readByte() & 0xff);
+        switch (type) {
+            case 'o': {
+                final int size = input.readInt();
+                for (int i = 0; i < size; i++) {
+                    final String key = input.readUTF();
+                    final ResponseProjection child = projection.get(key);
+                    if (child == null) {
+                        ModelNodeStreamDecoder.skipNode(input);
+                    } else {
+                        project(input, child, target.get(key));
+                    }
+                }
+                break;
+            }
+            case 'l': {
+                target.setEmptyList();
+                final int size = input.readInt();
+                for (int i = 0; i < size; i++) {
+                    project(input, projection, target.add());
+                }
+                break;
+            }
+            case 'p': {
+                final String name = input.readUTF();
+                final ResponseProjection child = projection.get(name);
+                if (child == null) {
+                    ModelNodeStreamDecoder.skipNode(input);
+                } else {
+                    final ModelNode value = new ModelNode();
+                    project(input, child, value);
+                    target.set(name, value);
+                }
+                break;
+            }
+            default:
+                target.set(ModelNodeStreamDecoder.decodeValue(type, input));
+        }
+    }
+
+}
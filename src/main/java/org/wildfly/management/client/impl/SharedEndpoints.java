@@ -0,0 +1,122 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.management.client.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jboss.remoting3.Endpoint;
+import org.xnio.OptionMap;
+
+/**
+ * Process wide remoting endpoints, shared by clients created with the same options. An endpoint is closed once the
+ * last client using it is closed.
+ *
+ * @author Emanuel Muckenhuber
+ */
+final class SharedEndpoints {
+
+    private static final Map<OptionMap, Shared> endpoints = new HashMap<>();
+
+    private SharedEndpoints() {
+        //
+    }
+
+    /**
+     * Get a reference to the shared endpoint for the options, creating it if needed.
+     *
+     * @param options the endpoint options
+     * @return the endpoint reference
+     * @throws IOException if creating the endpoint fails
+     */
+    static Reference acquire(final OptionMap options) throws IOException {
+        synchronized (endpoints) {
+            Shared shared = endpoints.get(options);
+            if (shared == null) {
+                shared = new Shared(options, ManagementClientFactoryImpl.createDefaultEndpoint(options));
+                endpoints.put(options, shared);
+            }
+            shared.references++;
+            return new Reference(shared);
+        }
+    }
+
+    static int size() {
+        synchronized (endpoints) {
+            return endpoints.size();
+        }
+    }
+
+    private static void release(final Shared shared) throws IOException {
+        synchronized (endpoints) {
+            if (--shared.references > 0) {
+                return;
+            }
+            endpoints.remove(shared.options);
+        }
+        shared.endpoint.close();
+    }
+
+    static final class Shared {
+
+        private final OptionMap options;
+        private final Endpoint endpoint;
+        private int references;
+
+        Shared(final OptionMap options, final Endpoint endpoint) {
+            this.options = options;
+            this.endpoint = endpoint;
+        }
+    }
+
+    /**
+     * A reference to a shared endpoint. Closing the reference closes the endpoint, if it is the last one.
+     */
+    static final class Reference implements Closeable {
+
+        private final Shared shared;
+        private boolean closed;
+
+        Reference(final Shared shared) {
+            this.shared = shared;
+        }
+
+        Endpoint getEndpoint() {
+            return shared.endpoint;
+        }
+
+        @Override
+        public void close() throws IOException {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+            }
+            release(shared);
+        }
+    }
+
+}
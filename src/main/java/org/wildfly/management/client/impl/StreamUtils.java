@@ -29,9 +29,13 @@ import java.io.Closeable;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 /**
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
@@ -39,6 +43,7 @@ import java.io.OutputStream;
 class StreamUtils {
 
     private static final int BUFFER_SIZE = 8192;
+    private static final int TRANSFER_BUFFER_SIZE = 64 * 1024;
 
     private StreamUtils() {
         //
@@ -52,6 +57,29 @@ class StreamUtils {
         }
     }
 
+    /**
+     * Copy the contents of a file. The file is read using a {@code FileChannel}, which unlike {@code FileInputStream}
+     * reads large chunks without allocating a native buffer per read.
+     *
+     * @param file the file
+     * @param out  the output stream
+     * @throws IOException
+     */
+    public static void copyFile(final File file, final OutputStream out) throws IOException {
+        final FileInputStream is = new FileInputStream(file);
+        try {
+            final FileChannel channel = is.getChannel();
+            final ByteBuffer buffer = ByteBuffer.allocate(TRANSFER_BUFFER_SIZE);
+            final byte[] bytes = buffer.array();
+            while (channel.read(buffer) != -1) {
+                out.write(bytes, 0, buffer.position());
+                buffer.clear();
+            }
+        } finally {
+            safeClose(is);
+        }
+    }
+
     public static void copyStream(final InputStream in, final DataOutput out) throws IOException {
         final byte[] bytes = new byte[BUFFER_SIZE];
         int cnt;
@@ -2,19 +2,24 @@ package org.wildfly.management.client.impl;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.Collection;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import org.jboss.dmr.ModelNode;
 import org.jboss.remoting3.Endpoint;
 import org.jboss.remoting3.Remoting;
 import org.jboss.remoting3.remote.HttpUpgradeConnectionProviderFactory;
 import org.jboss.remoting3.remote.RemoteConnectionProviderFactory;
 import org.jboss.remoting3.security.SimpleServerAuthenticationProvider;
 import org.jboss.remoting3.spi.NetworkServerProvider;
+import org.jboss.threads.AsyncFuture;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
+import org.wildfly.management.client.FanOutHandler;
 import org.wildfly.management.client.ManagementClient;
 import org.wildfly.management.client.ManagementClientOptions;
 import org.wildfly.management.client.ManagementConnection;
@@ -88,11 +93,27 @@ public class AbstractMgmtClientTestCase {
     }
 
     protected ManagementConnection openConnection() throws IOException {
+        return openConnection(OptionMap.EMPTY);
+    }
+
+    protected ManagementConnection openConnection(final OptionMap options) throws IOException {
         try {
-            return client.openConnection("localhost", PORT, OptionMap.create(ManagementClientOptions.PROTOCOL, "remote")).get();
+            final OptionMap connectOptions = OptionMap.builder().addAll(options).set(ManagementClientOptions.PROTOCOL, "remote").getMap();
+            return client.openConnection("localhost", PORT, connectOptions).get();
         } catch (Exception e) {
             throw new IOException(e);
         }
     }
 
+    protected Future<ManagementConnection> openPooledConnection(final OptionMap options) throws IOException {
+        final OptionMap connectOptions = OptionMap.builder().addAll(options).set(ManagementClientOptions.PROTOCOL, "remote").getMap();
+        return client.openPooledConnection("localhost", PORT, connectOptions);
+    }
+
+    protected AsyncFuture<Void> executeFanOut(final Collection<InetSocketAddress> targets, final ModelNode operation,
+                                              final OptionMap options, final FanOutHandler handler) throws IOException {
+        final OptionMap connectOptions = OptionMap.builder().addAll(options).set(ManagementClientOptions.PROTOCOL, "remote").getMap();
+        return client.executeFanOut(targets, operation, connectOptions, handler);
+    }
+
 }
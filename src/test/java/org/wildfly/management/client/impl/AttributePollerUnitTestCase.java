@@ -0,0 +1,129 @@
+package org.wildfly.management.client.impl;
+
+import static org.wildfly.management.client.helpers.ClientConstants.COMPOSITE;
+import static org.wildfly.management.client.helpers.ClientConstants.NAME;
+import static org.wildfly.management.client.helpers.ClientConstants.OP;
+import static org.wildfly.management.client.helpers.ClientConstants.OUTCOME;
+import static org.wildfly.management.client.helpers.ClientConstants.RESULT;
+import static org.wildfly.management.client.helpers.ClientConstants.STEPS;
+import static org.wildfly.management.client.helpers.ClientConstants.SUCCESS;
+import static org.wildfly.management.client.impl.StreamUtils.safeClose;
+
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wildfly.management.client.ManagementConnection;
+import org.wildfly.management.client.helpers.AttributePoller;
+
+/**
+ * @author Emanuel Muckenhuber
+ */
+public class AttributePollerUnitTestCase extends AbstractMgmtClientTestCase {
+
+    private static final ModelNode ADDRESS = new ModelNode().add("subsystem", "test");
+
+    @Test
+    public void testChangedValues() throws Exception {
+        final AtomicInteger counter = new AtomicInteger();
+        final AtomicInteger singleReads = new AtomicInteger();
+        server.setInitialHandler(new TestServer.TestMessageHandler() {
+            @Override
+            public TestServer.TestMessageHandler handleMessage(DataInput dataInput, TestServer.TestMessageHandlerContext context) throws IOException {
+                StreamUtils.expectHeader(dataInput, ManagementProtocol.PARAM_OPERATION);
+                final ModelNode operation = new ModelNode();
+                operation.readExternal(dataInput);
+                final ModelNode response = new ModelNode();
+                response.get(OUTCOME).set(SUCCESS);
+                if (COMPOSITE.equals(operation.get(OP).asString())) {
+                    int i = 1;
+                    for (final ModelNode step : operation.get(STEPS).asList()) {
+                        response.get(RESULT, "step-" + i++).set(readAttribute(step, counter));
+                    }
+                } else {
+                    singleReads.incrementAndGet();
+                    response.set(readAttribute(operation, counter));
+                }
+                context.sendResponse(new TestServer.TestMessageWriter() {
+                    @Override
+                    public void writeMessage(DataOutput os) throws IOException {
+                        response.writeExternal(os);
+                    }
+                });
+                return this;
+            }
+        });
+
+        final AtomicInteger constantChanges = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(5);
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        final ManagementConnection connection = openConnection();
+        try {
+            final AttributePoller poller = new AttributePoller(connection, 10, TimeUnit.MILLISECONDS, scheduler, executor);
+            try {
+                final Closeable constant = poller.register(ADDRESS, "constant", 10, TimeUnit.MILLISECONDS, new CountingListener(constantChanges, null));
+                final Closeable changing = poller.register(ADDRESS, "changing", 10, TimeUnit.MILLISECONDS, new CountingListener(new AtomicInteger(), latch));
+                Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+                constant.close();
+                changing.close();
+            } finally {
+                poller.close();
+            }
+            // Unchanged values are only delivered once
+            Assert.assertEquals(1, constantChanges.get());
+            // Both attributes are read in the same composite, except if registered in different ticks
+            Assert.assertTrue(singleReads.get() <= 1);
+        } finally {
+            safeClose(connection);
+            scheduler.shutdownNow();
+            executor.shutdownNow();
+        }
+    }
+
+    private static ModelNode readAttribute(final ModelNode operation, final AtomicInteger counter) {
+        final ModelNode result = new ModelNode();
+        result.get(OUTCOME).set(SUCCESS);
+        if ("changing".equals(operation.get(NAME).asString())) {
+            result.get(RESULT).set(counter.incrementAndGet());
+        } else {
+            result.get(RESULT).set("constant");
+        }
+        return result;
+    }
+
+    static class CountingListener implements AttributePoller.Listener {
+
+        private final AtomicInteger changes;
+        private final CountDownLatch latch;
+
+        CountingListener(final AtomicInteger changes, final CountDownLatch latch) {
+            this.changes = changes;
+            this.latch = latch;
+        }
+
+        @Override
+        public void attributeChanged(ModelNode address, String attribute, ModelNode value) {
+            changes.incrementAndGet();
+            if (latch != null) {
+                latch.countDown();
+            }
+        }
+
+        @Override
+        public void pollFailed(ModelNode address, String attribute, ModelNode failureDescription) {
+            Assert.fail(failureDescription.asString());
+        }
+    }
+
+}
@@ -10,15 +10,22 @@ import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
 import org.junit.Assert;
 import org.junit.Test;
+import org.wildfly.management.client.ManagementClientOptions;
 import org.wildfly.management.client.ManagementConnection;
 import org.wildfly.management.client.OperationStreamAttachments;
+import org.xnio.OptionMap;
 
 /**
  * @author Emanuel Muckenhuber
@@ -247,6 +254,72 @@ public class BasicMgmtClientUnitTestCase extends AbstractMgmtClientTestCase {
         }
     }
 
+    @Test
+    public void testGetChunkedInputStream() throws IOException {
+        final byte[] data = new byte[300 * 1024 + 7];
+        new Random().nextBytes(data);
+        server.setInitialHandler(new TestServer.TestMessageHandler() {
+            @Override
+            public TestServer.TestMessageHandler handleMessage(final DataInput dataInput, final TestServer.TestMessageHandlerContext initialContext) {
+                // Request the input stream
+                initialContext.sendRequest(ManagementProtocol.GET_INPUTSTREAM_REQUEST, new TestServer.TestMessageWriter() {
+                    @Override
+                    public void writeMessage(DataOutput os) throws IOException {
+                        os.write(ManagementProtocol.PARAM_INPUTSTREAM_INDEX);
+                        os.writeInt(0);
+                    }
+                });
+                // Decode the chunks and write the successful response
+                return new TestServer.AbstractMessageHandler() {
+                    @Override
+                    public TestServer.TestMessageHandler handleMessage(DataInput dataInput, TestServer.TestMessageHandlerContext ignored) {
+                        try {
+                            expectHeader(ManagementProtocol.PARAM_INPUTSTREAM_CHUNKED_LENGTH, dataInput.readByte());
+                            final long length = dataInput.readLong();
+                            if (length != data.length) {
+                                throw new RuntimeException();
+                            }
+                            expectHeader(ManagementProtocol.PARAM_INPUTSTREAM_CONTENTS, dataInput.readByte());
+                            final byte[] received = new byte[data.length];
+                            int position = 0;
+                            int chunk;
+                            while ((chunk = dataInput.readInt()) > 0) {
+                                if (chunk > ChunkedOutputStream.DEFAULT_CHUNK_SIZE) {
+                                    throw new RuntimeException();
+                                }
+                                dataInput.readFully(received, position, chunk);
+                                position += chunk;
+                            }
+                            if (position != data.length || !Arrays.equals(data, received)) {
+                                throw new RuntimeException();
+                            }
+                            expectHeader(ManagementProtocol.RESPONSE_END, dataInput.readByte());
+                        } catch (Exception e) {
+                            ManagementClientChannelReceiver.safeWriteErrorResponse(initialContext.getChannel(), initialContext.getRequestHeader(), e);
+                            return null;
+                        }
+                        initialContext.sendResponse(this, initialContext);
+                        return null;
+                    }
+
+                    @Override
+                    public void writeMessage(DataOutput os) throws IOException {
+                        SUCCESS_FULL_RESPONSE.writeExternal(os);
+                    }
+                };
+            }
+        });
+
+        final ManagementConnection connection = openConnection(OptionMap.create(ManagementClientOptions.CHUNKED_ATTACHMENTS, true));
+        try {
+            final OperationStreamAttachments.OperationStreamAttachment attachment = new AbstractOperationAttachment.ByteArrayStreamAttachment(data);
+            final ModelNode result = connection.execute(BASIC_OPERATION, OperationStreamAttachments.Builder.create(attachment).build());
+            Assert.assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        } finally {
+            safeClose(connection);
+        }
+    }
+
     @Test
     public void testGetInputStreamFailure() throws IOException {
         server.setInitialHandler(new TestServer.TestMessageHandler() {
@@ -306,4 +379,84 @@ public class BasicMgmtClientUnitTestCase extends AbstractMgmtClientTestCase {
 
     }
 
+    @Test
+    public void testTimedGet() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        server.setInitialHandler(new TestServer.AbstractMessageHandler() {
+            @Override
+            public TestServer.TestMessageHandler handleMessage(final DataInput dataInput, final TestServer.TestMessageHandlerContext context) {
+                final TestServer.TestMessageWriter writer = this;
+                context.executeAsync(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            latch.await();
+                        } catch (InterruptedException e) {
+                            e.printStackTrace();
+                        }
+                        context.sendResponse(writer);
+                    }
+                });
+                return null;
+            }
+
+            @Override
+            public void writeMessage(DataOutput os) throws IOException {
+                SUCCESS_FULL_RESPONSE.writeExternal(os);
+            }
+        });
+
+        final ManagementConnection connection = openConnection();
+        try {
+            final Future<ModelNode> result = connection.executeAsync(BASIC_OPERATION);
+            try {
+                result.get(100, TimeUnit.MILLISECONDS);
+                Assert.fail();
+            } catch (TimeoutException ok) {
+                // OK
+            }
+            latch.countDown();
+            Assert.assertEquals(SUCCESS, result.get(5, TimeUnit.SECONDS).get(OUTCOME).asString());
+        } finally {
+            safeClose(connection);
+        }
+    }
+
+    @Test
+    public void testCompletionListener() throws Exception {
+        server.setInitialHandler(new TestServer.AbstractMessageHandler() {
+            @Override
+            public TestServer.TestMessageHandler handleMessage(DataInput dataInput, TestServer.TestMessageHandlerContext context) {
+                context.sendResponse(this);
+                return null;
+            }
+
+            @Override
+            public void writeMessage(DataOutput os) throws IOException {
+                SUCCESS_FULL_RESPONSE.writeExternal(os);
+            }
+        });
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        final ManagementConnection connection = openConnection();
+        try {
+            final AsyncFuture<ModelNode> result = connection.executeAsync(BASIC_OPERATION);
+            result.addListener(new AsyncFuture.AbstractListener<ModelNode, CountDownLatch>() {
+                @Override
+                public void handleComplete(AsyncFuture<? extends ModelNode> future, CountDownLatch attachment) {
+                    try {
+                        if (SUCCESS.equals(future.getUninterruptibly().get(OUTCOME).asString())) {
+                            attachment.countDown();
+                        }
+                    } catch (ExecutionException e) {
+                        e.printStackTrace();
+                    }
+                }
+            }, latch);
+            Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } finally {
+            safeClose(connection);
+        }
+    }
+
 }
@@ -4,20 +4,25 @@ import java.io.Closeable;
 import java.io.DataInput;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.jboss.dmr.ModelNode;
 import org.jboss.remoting3.Channel;
 import org.jboss.remoting3.CloseHandler;
 import org.jboss.remoting3.MessageOutputStream;
+import org.jboss.threads.AsyncFuture;
 import org.junit.Assert;
 import org.junit.Test;
 import org.wildfly.management.client.ManagementConnection;
 import org.wildfly.management.client.Notification;
 import org.wildfly.management.client.NotificationFilter;
 import org.wildfly.management.client.NotificationHandler;
+import org.wildfly.management.client.NotificationRegistration;
 
 /**
  * @author Emanuel Muckenhuber
@@ -61,6 +66,86 @@ public class BasicNotificationsUnitTestCase extends AbstractMgmtClientTestCase {
         }
     }
 
+    @Test
+    public void testSharedRegistration() throws Exception {
+
+        final ServerHandler serverHandler = new ServerHandler();
+        server.setInitialHandler(serverHandler);
+
+        final CountDownLatch first = new CountDownLatch(2);
+        final CountDownLatch second = new CountDownLatch(1);
+        final ManagementConnection connection = openConnection();
+        try {
+            final Closeable registration1 = connection.registerNotificationHandler(ADDRESS, new LatchHandler(first), NotificationFilter.ALL);
+            final Closeable registration2 = connection.registerNotificationHandler(ADDRESS, new LatchHandler(second), NotificationFilter.ALL);
+            // Both handlers share the remote registration
+            Assert.assertEquals(1, serverHandler.remoteListeners.size());
+            serverHandler.sendNotification(new Notification("test", new ModelNode(), "shared"));
+            second.await();
+
+            registration2.close();
+            Assert.assertEquals(1, serverHandler.remoteListeners.size());
+            serverHandler.sendNotification(new Notification("test", new ModelNode(), "single"));
+            first.await();
+
+            registration1.close();
+            Assert.assertEquals(0, serverHandler.remoteListeners.size());
+        } finally {
+            StreamUtils.safeClose(connection);
+        }
+    }
+
+    @Test
+    public void testAsyncRegistration() throws Exception {
+
+        final ServerHandler serverHandler = new ServerHandler();
+        server.setInitialHandler(serverHandler);
+
+        final int registrationCount = 10;
+        final CountDownLatch latch = new CountDownLatch(registrationCount);
+        final ManagementConnection connection = openConnection();
+        try {
+            // Send all registrations before waiting for any of them
+            final List<AsyncFuture<NotificationRegistration>> futures = new ArrayList<>();
+            for (int i = 0; i < registrationCount; i++) {
+                final ModelNode address = new ModelNode().add("resource", "resource-" + i);
+                futures.add(connection.registerNotificationHandlerAsync(address, new LatchHandler(latch), NotificationFilter.ALL));
+            }
+            final List<NotificationRegistration> registrations = new ArrayList<>();
+            for (final AsyncFuture<NotificationRegistration> future : futures) {
+                registrations.add(future.get(5, TimeUnit.SECONDS));
+            }
+            Assert.assertEquals(registrationCount, serverHandler.remoteListeners.size());
+            serverHandler.sendNotification(new Notification("test", new ModelNode(), "async"));
+            latch.await();
+
+            final List<AsyncFuture<Void>> unregistered = new ArrayList<>();
+            for (final NotificationRegistration registration : registrations) {
+                unregistered.add(registration.unregisterAsync());
+            }
+            for (final AsyncFuture<Void> future : unregistered) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+            Assert.assertEquals(0, serverHandler.remoteListeners.size());
+        } finally {
+            StreamUtils.safeClose(connection);
+        }
+    }
+
+    static class LatchHandler implements NotificationHandler {
+
+        private final CountDownLatch latch;
+
+        LatchHandler(final CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        public void handleNotification(Notification notification) {
+            latch.countDown();
+        }
+    }
+
     static class ServerHandler implements TestServer.TestMessageHandler {
         private final ConcurrentMap<Integer, RemoteNotificationSender> remoteListeners = new ConcurrentHashMap<>();
 
@@ -107,6 +192,10 @@ public class BasicNotificationsUnitTestCase extends AbstractMgmtClientTestCase {
             }
         }
 
+        int getListenerCount() {
+            return remoteListeners.size();
+        }
+
     }
 
     static class RemoteNotificationSender {
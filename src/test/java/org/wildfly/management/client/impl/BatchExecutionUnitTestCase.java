@@ -0,0 +1,163 @@
+package org.wildfly.management.client.impl;
+
+import static org.wildfly.management.client.helpers.ClientConstants.COMPOSITE;
+import static org.wildfly.management.client.helpers.ClientConstants.FAILURE_DESCRIPTION;
+import static org.wildfly.management.client.helpers.ClientConstants.OP;
+import static org.wildfly.management.client.helpers.ClientConstants.OUTCOME;
+import static org.wildfly.management.client.helpers.ClientConstants.RESULT;
+import static org.wildfly.management.client.helpers.ClientConstants.ROLLBACK_ON_RUNTIME_FAILURE;
+import static org.wildfly.management.client.helpers.ClientConstants.STEPS;
+import static org.wildfly.management.client.helpers.ClientConstants.SUCCESS;
+import static org.wildfly.management.client.impl.StreamUtils.safeClose;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wildfly.management.client.ManagementClientOptions;
+import org.wildfly.management.client.ManagementConnection;
+import org.wildfly.management.client._private.ModelNodeUtils;
+import org.wildfly.management.client.helpers.Operations;
+import org.xnio.FutureResult;
+import org.xnio.OptionMap;
+
+/**
+ * @author Emanuel Muckenhuber
+ */
+public class BatchExecutionUnitTestCase extends AbstractMgmtClientTestCase {
+
+    @Test
+    public void testExecuteBatch() throws Exception {
+        final AtomicInteger composites = new AtomicInteger();
+        server.setInitialHandler(new TestServer.TestMessageHandler() {
+            @Override
+            public TestServer.TestMessageHandler handleMessage(DataInput dataInput, TestServer.TestMessageHandlerContext context) throws IOException {
+                StreamUtils.expectHeader(dataInput, ManagementProtocol.PARAM_OPERATION);
+                final ModelNode operation = new ModelNode();
+                operation.readExternal(dataInput);
+                final ModelNode response = new ModelNode();
+                response.get(OUTCOME).set(SUCCESS);
+                if (COMPOSITE.equals(operation.get(OP).asString())) {
+                    Assert.assertFalse(operation.get(ROLLBACK_ON_RUNTIME_FAILURE).asBoolean());
+                    composites.incrementAndGet();
+                    int i = 1;
+                    for (final ModelNode step : operation.get(STEPS).asList()) {
+                        response.get(RESULT, "step-" + i++).set(createResponse(step));
+                    }
+                } else {
+                    response.set(createResponse(operation));
+                }
+                context.sendResponse(new TestServer.TestMessageWriter() {
+                    @Override
+                    public void writeMessage(DataOutput os) throws IOException {
+                        response.writeExternal(os);
+                    }
+                });
+                return this;
+            }
+        });
+
+        final List<ModelNode> operations = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            operations.add(Operations.createOperation("op-" + i));
+        }
+        final ManagementConnection connection = openConnection(OptionMap.create(ManagementClientOptions.BATCH_MAX_STEPS, 4));
+        try {
+            final List<AsyncFuture<ModelNode>> results = connection.executeBatch(operations);
+            Assert.assertEquals(operations.size(), results.size());
+            for (int i = 0; i < results.size(); i++) {
+                final ModelNode result = results.get(i).get(5, TimeUnit.SECONDS);
+                Assert.assertEquals(SUCCESS, result.get(OUTCOME).asString());
+                Assert.assertEquals("op-" + i, result.get(RESULT).asString());
+            }
+            // 4 + 4 steps, the last operation is sent without a composite
+            Assert.assertEquals(2, composites.get());
+        } finally {
+            safeClose(connection);
+        }
+    }
+
+    @Test
+    public void testFailedComposite() throws Exception {
+        final ModelNode response = new ModelNode();
+        response.get(OUTCOME).set("failed");
+        response.get(FAILURE_DESCRIPTION).set("composite failed");
+
+        final List<FutureResult<ModelNode>> steps = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            steps.add(new FutureResult<ModelNode>());
+        }
+        OperationBatcher.complete(response, steps);
+        for (final FutureResult<ModelNode> step : steps) {
+            final ModelNode result = step.getIoFuture().get();
+            Assert.assertEquals("failed", result.get(OUTCOME).asString());
+            Assert.assertEquals("composite failed", result.get(FAILURE_DESCRIPTION).asString());
+        }
+    }
+
+    @Test
+    public void testPartiallySent() throws Exception {
+        final FutureResult<ModelNode> sent = new FutureResult<>();
+        final AtomicInteger executed = new AtomicInteger();
+        // Sends the first operation and fails to send the others
+        final ManagementConnection connection = (ManagementConnection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{ManagementConnection.class}, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if (!"executeAsync".equals(method.getName()) || args.length != 1) {
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                        if (executed.getAndIncrement() == 0) {
+                            return new ManagementRequestFutureImpl<>(sent.getIoFuture());
+                        }
+                        throw new IOException("not sent");
+                    }
+                });
+        final List<ModelNode> operations = Arrays.asList(Operations.createOperation("first"),
+                Operations.createOperation("second"), Operations.createOperation("third"));
+        final List<AsyncFuture<ModelNode>> results = OperationBatcher.executeBatch(connection, operations, 1, Integer.MAX_VALUE);
+        Assert.assertEquals(3, results.size());
+        Assert.assertEquals(2, executed.get());
+        for (final AsyncFuture<ModelNode> result : results.subList(1, 3)) {
+            try {
+                result.get(5, TimeUnit.SECONDS);
+                Assert.fail();
+            } catch (ExecutionException e) {
+                Assert.assertEquals("not sent", e.getCause().getMessage());
+            }
+        }
+        // The sent operation keeps running
+        Assert.assertFalse(results.get(0).isDone());
+        sent.setResult(createResponse(operations.get(0)));
+        Assert.assertEquals("first", results.get(0).get(5, TimeUnit.SECONDS).get(RESULT).asString());
+    }
+
+    @Test
+    public void testEstimatedSize() {
+        final ModelNode small = Operations.createOperation("test");
+        final ModelNode large = Operations.createOperation("test");
+        large.get("value").set(new String(new char[1024]));
+        Assert.assertTrue(ModelNodeUtils.estimateSize(large) > ModelNodeUtils.estimateSize(small) + 1024);
+    }
+
+    static ModelNode createResponse(final ModelNode operation) {
+        final ModelNode response = new ModelNode();
+        response.get(OUTCOME).set(SUCCESS);
+        response.get(RESULT).set(operation.get(OP).asString());
+        return response;
+    }
+
+}
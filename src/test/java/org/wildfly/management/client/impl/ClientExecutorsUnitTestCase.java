@@ -0,0 +1,96 @@
+package org.wildfly.management.client.impl;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.wildfly.management.client.ExecutorMetrics;
+import org.wildfly.management.client.ExecutorStrategy;
+import org.wildfly.management.client.ManagementClientOptions;
+import org.xnio.OptionMap;
+
+/**
+ * @author Emanuel Muckenhuber
+ */
+public class ClientExecutorsUnitTestCase {
+
+    @Test
+    public void testBoundedPoolGrows() throws Exception {
+        final ExecutorService executor = ClientExecutors.create(OptionMap.create(ManagementClientOptions.EXECUTOR_STRATEGY, ExecutorStrategy.BOUNDED, ManagementClientOptions.MAX_THREADS, 4));
+        try {
+            assertConcurrency(executor, 4);
+            final ExecutorMetrics metrics = ClientExecutors.getMetrics(executor);
+            Assert.assertEquals(4, metrics.getPoolSize());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testForkJoin() throws Exception {
+        final ExecutorService executor = ClientExecutors.create(OptionMap.create(ManagementClientOptions.EXECUTOR_STRATEGY, ExecutorStrategy.FORK_JOIN, ManagementClientOptions.MAX_THREADS, 4));
+        try {
+            assertConcurrency(executor, 4);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testVirtualThreads() throws Exception {
+        // Falls back to the bounded pool on JVMs without virtual threads
+        final ExecutorService executor = ClientExecutors.create(OptionMap.create(ManagementClientOptions.EXECUTOR_STRATEGY, ExecutorStrategy.VIRTUAL_THREADS, ManagementClientOptions.MAX_THREADS, 4));
+        try {
+            assertConcurrency(executor, 4);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testUnknownExecutor() {
+        final ExecutorMetrics metrics = ClientExecutors.getMetrics(new DirectExecutor());
+        Assert.assertEquals(-1, metrics.getQueueSize());
+        Assert.assertEquals(-1, metrics.getActiveCount());
+    }
+
+    /**
+     * Check the executor runs the given number of tasks concurrently, and queues the next one.
+     */
+    private static void assertConcurrency(final ExecutorService executor, final int threads) throws Exception {
+        final CountDownLatch started = new CountDownLatch(threads);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch completed = new CountDownLatch(threads + 1);
+        for (int i = 0; i < threads + 1; i++) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    completed.countDown();
+                }
+            });
+        }
+        Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+        final ExecutorMetrics metrics = ClientExecutors.getMetrics(executor);
+        Assert.assertTrue(metrics.getActiveCount() >= threads);
+        release.countDown();
+        Assert.assertTrue(completed.await(10, TimeUnit.SECONDS));
+    }
+
+    static class DirectExecutor implements Executor {
+
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    }
+
+}
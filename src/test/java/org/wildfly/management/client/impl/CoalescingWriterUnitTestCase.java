@@ -0,0 +1,185 @@
+package org.wildfly.management.client.impl;
+
+import static org.wildfly.management.client.helpers.ClientConstants.OUTCOME;
+import static org.wildfly.management.client.helpers.ClientConstants.SUCCESS;
+import static org.wildfly.management.client.impl.StreamUtils.safeClose;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wildfly.management.client.ManagementClientOptions;
+import org.wildfly.management.client.ManagementConnection;
+import org.wildfly.management.client.OperationStreamAttachments;
+import org.xnio.OptionMap;
+
+/**
+ * @author Emanuel Muckenhuber
+ */
+public class CoalescingWriterUnitTestCase extends AbstractMgmtClientTestCase {
+
+    private static final int THREADS = 4;
+    private static final int REQUESTS = 32;
+
+    @Test
+    public void testConcurrentRequests() throws Exception {
+        server.setInitialHandler(new TestServer.AbstractMessageHandler() {
+            @Override
+            public TestServer.TestMessageHandler handleMessage(DataInput dataInput, TestServer.TestMessageHandlerContext context) {
+                context.sendResponse(this);
+                return this;
+            }
+
+            @Override
+            public void writeMessage(DataOutput os) throws IOException {
+                final ModelNode response = new ModelNode();
+                response.get(OUTCOME).set(SUCCESS);
+                response.writeExternal(os);
+            }
+        });
+
+        // A threshold of one byte hands off to the executor whenever requests are queued
+        final OptionMap options = OptionMap.builder()
+                .set(ManagementClientOptions.WRITE_COALESCING, true)
+                .set(ManagementClientOptions.WRITE_COALESCING_THRESHOLD, 1)
+                .getMap();
+        final ModelNode operation = new ModelNode();
+        operation.get("op").set("read-attribute");
+
+        final ManagementConnection connection = openConnection(options);
+        try {
+            final List<Future<ModelNode>> futures = new CopyOnWriteArrayList<>();
+            final CountDownLatch latch = new CountDownLatch(THREADS);
+            for (int t = 0; t < THREADS; t++) {
+                new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            for (int i = 0; i < REQUESTS; i++) {
+                                futures.add(connection.executeAsync(operation));
+                            }
+                        } catch (IOException e) {
+                            e.printStackTrace();
+                        } finally {
+                            latch.countDown();
+                        }
+                    }
+                }).start();
+            }
+            latch.await();
+            Assert.assertEquals(THREADS * REQUESTS, futures.size());
+            for (final Future<ModelNode> future : futures) {
+                Assert.assertEquals(SUCCESS, future.get(5, TimeUnit.SECONDS).get(OUTCOME).asString());
+            }
+        } finally {
+            safeClose(connection);
+        }
+    }
+
+    @Test
+    public void testHandOffWhileWriting() throws Exception {
+        // Runs the write task right away, while the handing off thread has not returned yet
+        final Executor executor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        };
+        final List<Integer> written = new ArrayList<>();
+        final CoalescingWriter writer = new CoalescingWriter(null, executor, 1) {
+            @Override
+            protected void writeFailed(ManagementRequest request, int requestId, IOException exception) {
+                Assert.fail(exception.getMessage());
+            }
+
+            @Override
+            void writeFrame(Frame frame) {
+                frame.data.release();
+                written.add(frame.requestId);
+                if (frame.requestId == 1) {
+                    // Queued by concurrent submitters while the first request is written
+                    try {
+                        write(2);
+                        write(3);
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            }
+
+            private void write(final int requestId) throws IOException {
+                write(new ManagementRequestHeader(ManagementProtocol.VERSION, requestId, 0, (byte) 0), new TestRequest(requestId));
+            }
+        };
+        writer.write(new ManagementRequestHeader(ManagementProtocol.VERSION, 1, 0, (byte) 0), new TestRequest(1));
+        Assert.assertEquals(3, written.size());
+        Assert.assertEquals(1, written.get(0).intValue());
+        Assert.assertEquals(2, written.get(1).intValue());
+        Assert.assertEquals(3, written.get(2).intValue());
+    }
+
+    static final class TestRequest implements ManagementRequest {
+
+        private final int requestId;
+
+        TestRequest(int requestId) {
+            this.requestId = requestId;
+        }
+
+        @Override
+        public OperationStreamAttachments getAttachments() {
+            return null;
+        }
+
+        @Override
+        public int getRequestId() {
+            return requestId;
+        }
+
+        @Override
+        public int getOperationId() {
+            return 0;
+        }
+
+        @Override
+        public byte getRequestType() {
+            return 0;
+        }
+
+        @Override
+        public RequestHandler getRequestHandler() {
+            return null;
+        }
+
+        @Override
+        public void writeRequest(DataOutput output) throws IOException {
+            output.writeInt(requestId);
+        }
+
+        @Override
+        public void handleResponse(ManagementResponseHeader header, DataInput input) throws IOException {
+            //
+        }
+
+        @Override
+        public void handleFailure(IOException exception) {
+            //
+        }
+
+        @Override
+        public void asyncCancel() {
+            //
+        }
+    }
+
+}
@@ -0,0 +1,122 @@
+package org.wildfly.management.client.impl;
+
+import static org.wildfly.management.client.impl.StreamUtils.safeClose;
+
+import java.io.IOException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wildfly.management.client.ManagementClientOptions;
+import org.wildfly.management.client.ManagementConnection;
+import org.xnio.OptionMap;
+
+/**
+ * @author Emanuel Muckenhuber
+ */
+public class ConnectionPoolUnitTestCase extends AbstractMgmtClientTestCase {
+
+    private static final OptionMap SINGLE_CONNECTION = OptionMap.create(ManagementClientOptions.POOL_MAX_CONNECTIONS_PER_TARGET, 1);
+
+    @Test
+    public void testConnectionReused() throws Exception {
+        final ManagementConnection first = openPooledConnection(OptionMap.EMPTY).get();
+        final ManagementConnectionImpl delegate = getDelegate(first);
+        first.close();
+
+        final ManagementConnection second = openPooledConnection(OptionMap.EMPTY).get();
+        try {
+            Assert.assertSame(delegate, getDelegate(second));
+        } finally {
+            safeClose(second);
+        }
+    }
+
+    @Test
+    public void testReleasedConnection() throws Exception {
+        final ManagementConnection connection = openPooledConnection(OptionMap.EMPTY).get();
+        connection.close();
+        try {
+            connection.execute(new ModelNode());
+            Assert.fail();
+        } catch (IOException ok) {
+            //
+        }
+    }
+
+    @Test
+    public void testClosedConnectionNotReused() throws Exception {
+        final ManagementConnection first = openPooledConnection(SINGLE_CONNECTION).get();
+        final ManagementConnectionImpl delegate = getDelegate(first);
+        delegate.close();
+        first.close();
+
+        final ManagementConnection second = openPooledConnection(SINGLE_CONNECTION).get(5, TimeUnit.SECONDS);
+        try {
+            Assert.assertNotSame(delegate, getDelegate(second));
+        } finally {
+            safeClose(second);
+        }
+    }
+
+    @Test
+    public void testWaitForConnection() throws Exception {
+        final ManagementConnection first = openPooledConnection(SINGLE_CONNECTION).get();
+        final ManagementConnectionImpl delegate = getDelegate(first);
+        final Future<ManagementConnection> future = openPooledConnection(SINGLE_CONNECTION);
+        Assert.assertFalse(future.isDone());
+        first.close();
+
+        final ManagementConnection second = future.get(5, TimeUnit.SECONDS);
+        try {
+            Assert.assertSame(delegate, getDelegate(second));
+        } finally {
+            safeClose(second);
+        }
+    }
+
+    @Test
+    public void testDifferentOptionsNotShared() throws Exception {
+        final ManagementConnection first = openPooledConnection(OptionMap.EMPTY).get();
+        final ManagementConnectionImpl delegate = getDelegate(first);
+        first.close();
+
+        final ManagementConnection second = openPooledConnection(OptionMap.create(ManagementClientOptions.BATCH_MAX_STEPS, 2)).get(5, TimeUnit.SECONDS);
+        try {
+            Assert.assertNotSame(delegate, getDelegate(second));
+        } finally {
+            safeClose(second);
+        }
+    }
+
+    @Test
+    public void testIdleConnectionEvicted() throws Exception {
+        final ManagementConnection connection = openPooledConnection(OptionMap.create(ManagementClientOptions.POOL_IDLE_TIMEOUT, 100)).get();
+        final ManagementConnectionImpl delegate = getDelegate(connection);
+        connection.close();
+        // Evicted by the periodic sweep, without borrowing again
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (delegate.isConnected() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        Assert.assertFalse(delegate.isConnected());
+    }
+
+    @Test(timeout = 5000)
+    public void testAwaitReleasedConnection() throws Exception {
+        final ManagementConnection connection = openPooledConnection(OptionMap.EMPTY).get();
+        final ManagementConnectionImpl delegate = getDelegate(connection);
+        connection.close();
+        // Returns once the handle was released, while the pooled connection stays open
+        connection.awaitClosed();
+        connection.awaitClosedUninterruptibly();
+        Assert.assertTrue(delegate.isConnected());
+    }
+
+    static ManagementConnectionImpl getDelegate(final ManagementConnection connection) {
+        return ((PooledManagementConnection) connection).getDelegate();
+    }
+
+}
@@ -0,0 +1,201 @@
+package org.wildfly.management.client.impl;
+
+import static org.wildfly.management.client.helpers.ClientConstants.OUTCOME;
+import static org.wildfly.management.client.helpers.ClientConstants.SUCCESS;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.ssl.SSLContext;
+import javax.security.auth.callback.CallbackHandler;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wildfly.management.client.FanOutHandler;
+import org.wildfly.management.client.ManagementClientOptions;
+import org.wildfly.management.client.ManagementConnection;
+import org.wildfly.management.client.helpers.Operations;
+import org.xnio.Cancellable;
+import org.xnio.FutureResult;
+import org.xnio.IoFuture;
+import org.xnio.OptionMap;
+
+/**
+ * @author Emanuel Muckenhuber
+ */
+public class FanOutUnitTestCase extends AbstractMgmtClientTestCase {
+
+    private static final ModelNode OPERATION = Operations.createReadAttributeOperation(new ModelNode(), "release-version");
+    private static final InetSocketAddress FIRST = new InetSocketAddress("localhost", PORT);
+    private static final InetSocketAddress SECOND = new InetSocketAddress("127.0.0.1", PORT);
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    @Test
+    public void testFanOut() throws Exception {
+        server.setInitialHandler(new TestServer.AbstractMessageHandler() {
+            @Override
+            public TestServer.TestMessageHandler handleMessage(DataInput dataInput, TestServer.TestMessageHandlerContext context) {
+                context.sendResponse(this);
+                return null;
+            }
+
+            @Override
+            public void writeMessage(DataOutput os) throws IOException {
+                final ModelNode response = new ModelNode();
+                response.get(OUTCOME).set(SUCCESS);
+                response.writeExternal(os);
+            }
+        });
+
+        final RecordingHandler handler = new RecordingHandler();
+        final List<InetSocketAddress> targets = Arrays.asList(FIRST, SECOND);
+        executeFanOut(targets, OPERATION, OptionMap.create(ManagementClientOptions.FAN_OUT_PARALLELISM, 1), handler).get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(2, handler.results.size());
+        Assert.assertTrue(handler.failures.isEmpty());
+        Assert.assertEquals(SUCCESS, handler.results.get(FIRST).get(OUTCOME).asString());
+        Assert.assertEquals(SUCCESS, handler.results.get(SECOND).get(OUTCOME).asString());
+    }
+
+    @Test
+    public void testDeadline() throws Exception {
+        server.setInitialHandler(new TestServer.TestMessageHandler() {
+            @Override
+            public TestServer.TestMessageHandler handleMessage(DataInput dataInput, TestServer.TestMessageHandlerContext context) {
+                // Never respond
+                return null;
+            }
+        });
+
+        final RecordingHandler handler = new RecordingHandler();
+        final OptionMap options = OptionMap.create(ManagementClientOptions.FAN_OUT_TIMEOUT, 500);
+        executeFanOut(Arrays.asList(FIRST, SECOND), OPERATION, options, handler).get(10, TimeUnit.SECONDS);
+        Assert.assertTrue(handler.results.isEmpty());
+        Assert.assertEquals(2, handler.failures.size());
+        Assert.assertTrue(handler.failures.get(FIRST) instanceof TimeoutException);
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        server.setInitialHandler(new TestServer.TestMessageHandler() {
+            @Override
+            public TestServer.TestMessageHandler handleMessage(DataInput dataInput, TestServer.TestMessageHandlerContext context) {
+                // Never respond
+                return null;
+            }
+        });
+
+        final RecordingHandler handler = new RecordingHandler();
+        final AsyncFuture<Void> future = executeFanOut(Arrays.asList(FIRST, SECOND), OPERATION, OptionMap.EMPTY, handler);
+        future.cancel(true);
+        Assert.assertEquals(AsyncFuture.Status.CANCELLED, future.await(10, TimeUnit.SECONDS));
+        try {
+            future.get();
+            Assert.fail("cancelled fan-out returned a result");
+        } catch (CancellationException expected) {
+            //
+        }
+        Assert.assertTrue(handler.results.isEmpty());
+    }
+
+    @Test
+    public void testNoTargets() throws Exception {
+        final RecordingHandler handler = new RecordingHandler();
+        executeFanOut(Arrays.<InetSocketAddress>asList(), OPERATION, OptionMap.EMPTY, handler).get(10, TimeUnit.SECONDS);
+        Assert.assertTrue(handler.results.isEmpty());
+    }
+
+    @Test
+    public void testManyImmediateFailures() throws Exception {
+        // Every borrow fails right away, which must not start the next target recursively
+        final ManagementConnectionPool pool = new ManagementConnectionPool(null) {
+            @Override
+            IoFuture<ManagementConnection> borrowAsync(InetSocketAddress destination, OptionMap connectOptions,
+                                                       CallbackHandler callbackHandler, SSLContext sslContext) throws IOException {
+                throw new IOException("no connection");
+            }
+        };
+        final List<InetSocketAddress> targets = new ArrayList<>();
+        for (int i = 0; i < 50000; i++) {
+            targets.add(InetSocketAddress.createUnresolved("target", i));
+        }
+        final AtomicInteger failures = new AtomicInteger();
+        final FanOutHandler handler = new FanOutHandler() {
+            @Override
+            public void handleResult(InetSocketAddress target, ModelNode result) {
+                Assert.fail();
+            }
+
+            @Override
+            public void handleFailure(InetSocketAddress target, Exception cause) {
+                failures.incrementAndGet();
+            }
+        };
+        final OptionMap options = OptionMap.create(ManagementClientOptions.FAN_OUT_PARALLELISM, 1);
+        new FanOutExecution(pool, targets, OPERATION, options, handler, DIRECT).start().get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(targets.size(), failures.get());
+    }
+
+    @Test
+    public void testDeadlineCancelsBorrow() throws Exception {
+        final AtomicInteger cancelled = new AtomicInteger();
+        // The borrowed connection never becomes available
+        final ManagementConnectionPool pool = new ManagementConnectionPool(null) {
+            @Override
+            IoFuture<ManagementConnection> borrowAsync(InetSocketAddress destination, OptionMap connectOptions,
+                                                       CallbackHandler callbackHandler, SSLContext sslContext) throws IOException {
+                final FutureResult<ManagementConnection> result = new FutureResult<>();
+                result.addCancelHandler(new Cancellable() {
+                    @Override
+                    public Cancellable cancel() {
+                        cancelled.incrementAndGet();
+                        result.setCancelled();
+                        return this;
+                    }
+                });
+                return result.getIoFuture();
+            }
+        };
+        final RecordingHandler handler = new RecordingHandler();
+        final OptionMap options = OptionMap.create(ManagementClientOptions.FAN_OUT_TIMEOUT, 200);
+        new FanOutExecution(pool, Arrays.asList(FIRST, SECOND), OPERATION, options, handler, DIRECT).start().get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(2, cancelled.get());
+        Assert.assertTrue(handler.failures.get(FIRST) instanceof TimeoutException);
+        Assert.assertTrue(handler.failures.get(SECOND) instanceof TimeoutException);
+    }
+
+    static class RecordingHandler implements FanOutHandler {
+
+        private final Map<InetSocketAddress, ModelNode> results = new ConcurrentHashMap<>();
+        private final Map<InetSocketAddress, Exception> failures = new ConcurrentHashMap<>();
+
+        @Override
+        public void handleResult(InetSocketAddress target, ModelNode result) {
+            results.put(target, result);
+        }
+
+        @Override
+        public void handleFailure(InetSocketAddress target, Exception cause) {
+            failures.put(target, cause);
+        }
+    }
+
+}
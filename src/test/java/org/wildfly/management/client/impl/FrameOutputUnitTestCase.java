@@ -0,0 +1,215 @@
+package org.wildfly.management.client.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.xnio.Pool;
+import org.xnio.Pooled;
+
+/**
+ * @author Emanuel Muckenhuber
+ */
+public class FrameOutputUnitTestCase {
+
+    @Test
+    public void testEncoding() throws IOException {
+        final TestPool pool = new TestPool(64);
+        final FrameOutput frame = new FrameOutput(pool);
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        writeAll(frame);
+        writeAll(new DataOutputStream(expected));
+        Assert.assertEquals(expected.size(), frame.size());
+        Assert.assertArrayEquals(expected.toByteArray(), toByteArray(frame));
+        // Grown beyond the pooled buffer, which is returned right away
+        Assert.assertEquals(0, pool.allocated);
+        frame.release();
+        Assert.assertEquals(0, pool.allocated);
+    }
+
+    @Test
+    public void testStreaming() throws IOException {
+        final TestPool pool = new TestPool(512);
+        final RecordingSink sink = new RecordingSink();
+        final FrameOutput frame = new FrameOutput(pool, sink);
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        writeAll(frame);
+        writeAll(new DataOutputStream(expected));
+        final byte[] large = new byte[1024];
+        Arrays.fill(large, (byte) 7);
+        frame.write(large);
+        expected.write(large);
+        frame.finish();
+        Assert.assertArrayEquals(expected.toByteArray(), sink.stream.toByteArray());
+        Assert.assertTrue(sink.closed);
+        // Streamed through the pooled buffer rather than growing it
+        Assert.assertEquals(1, pool.allocated);
+        frame.release();
+        Assert.assertEquals(0, pool.allocated);
+    }
+
+    @Test
+    public void testStreamingSmallFrame() throws IOException {
+        final RecordingSink sink = new RecordingSink();
+        final FrameOutput frame = new FrameOutput(new TestPool(64), sink);
+        frame.writeInt(42);
+        // Nothing is written before the frame is finished
+        Assert.assertNull(sink.stream);
+        frame.finish();
+        frame.release();
+        Assert.assertArrayEquals(new byte[] { 0, 0, 0, 42 }, sink.stream.toByteArray());
+        Assert.assertEquals(1, sink.writes);
+    }
+
+    @Test
+    public void testRelease() throws IOException {
+        final TestPool pool = new TestPool(FrameOutput.BUFFER_SIZE);
+        final FrameOutput frame = new FrameOutput(pool);
+        frame.writeInt(42);
+        Assert.assertEquals(1, pool.allocated);
+        Assert.assertArrayEquals(new byte[] { 0, 0, 0, 42 }, toByteArray(frame));
+        frame.release();
+        frame.release();
+        Assert.assertEquals(0, pool.allocated);
+    }
+
+    @Test
+    public void testHeader() throws IOException {
+        final ManagementRequestHeader header = new ManagementRequestHeader(ManagementProtocol.VERSION, 1, 2, (byte) 3);
+        final FrameOutput frame = new FrameOutput(new TestPool(FrameOutput.BUFFER_SIZE));
+        header.write(frame);
+
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        final DataOutputStream os = new DataOutputStream(expected);
+        os.write(ManagementProtocol.SIGNATURE);
+        os.writeByte(ManagementProtocol.VERSION_FIELD);
+        os.writeInt(ManagementProtocol.VERSION);
+        os.writeByte(ManagementProtocol.TYPE);
+        os.writeByte(ManagementProtocol.TYPE_REQUEST);
+        os.write(ManagementProtocol.REQUEST_ID);
+        os.writeInt(1);
+        os.write(ManagementProtocol.BATCH_ID);
+        os.writeInt(2);
+        os.write(ManagementProtocol.OPERATION_ID);
+        os.write(3);
+        os.write(ManagementProtocol.ONE_WAY);
+        os.writeBoolean(false);
+        os.write(ManagementProtocol.REQUEST_BODY);
+        final byte[] bytes = toByteArray(frame);
+        Assert.assertArrayEquals(expected.toByteArray(), bytes);
+
+        final ManagementProtocolHeader parsed = ManagementProtocolHeader.parse(new DataInputStream(new ByteArrayInputStream(bytes)));
+        Assert.assertEquals(ManagementProtocol.TYPE_REQUEST, parsed.getType());
+        Assert.assertEquals(1, ((ManagementRequestHeader) parsed).getRequestId());
+    }
+
+    @Test
+    public void testInvalidSignature() {
+        final byte[] bytes = Arrays.copyOf(ManagementProtocol.SIGNATURE, 16);
+        bytes[2] = 0;
+        try {
+            ManagementProtocolHeader.parse(new DataInputStream(new ByteArrayInputStream(bytes)));
+            Assert.fail();
+        } catch (IOException ok) {
+            //
+        }
+    }
+
+    private static void writeAll(final DataOutput output) throws IOException {
+        output.write(1);
+        output.write(new byte[] { 2, 3, 4 });
+        output.write(new byte[] { 5, 6, 7 }, 1, 2);
+        output.writeBoolean(true);
+        output.writeByte(-1);
+        output.writeShort(0x1234);
+        output.writeChar('c');
+        output.writeInt(Integer.MIN_VALUE);
+        output.writeLong(Long.MAX_VALUE);
+        output.writeFloat(1.5f);
+        output.writeDouble(Math.PI);
+        output.writeBytes("bytes");
+        output.writeChars("chars");
+        output.writeUTF("ascii \u0000 \u00e9 \u20ac");
+        final char[] chars = new char[200];
+        Arrays.fill(chars, '\u00e9');
+        output.writeUTF(new String(chars));
+    }
+
+    private static byte[] toByteArray(final FrameOutput frame) throws IOException {
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        frame.writeTo(os);
+        return os.toByteArray();
+    }
+
+    static class RecordingSink implements FrameOutput.Sink {
+
+        private ByteArrayOutputStream stream;
+        private boolean closed;
+        private int writes;
+
+        @Override
+        public OutputStream open() throws IOException {
+            Assert.assertNull(stream);
+            stream = new ByteArrayOutputStream();
+            return new FilterOutputStream(stream) {
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    writes++;
+                    out.write(b, off, len);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    closed = true;
+                }
+            };
+        }
+    }
+
+    static class TestPool implements Pool<ByteBuffer> {
+
+        private final int size;
+        private int allocated;
+
+        TestPool(final int size) {
+            this.size = size;
+        }
+
+        @Override
+        public Pooled<ByteBuffer> allocate() {
+            allocated++;
+            final ByteBuffer buffer = ByteBuffer.allocate(size);
+            return new Pooled<ByteBuffer>() {
+                @Override
+                public void discard() {
+                    free();
+                }
+
+                @Override
+                public void free() {
+                    allocated--;
+                }
+
+                @Override
+                public ByteBuffer getResource() {
+                    return buffer;
+                }
+
+                @Override
+                public void close() {
+                    free();
+                }
+            };
+        }
+    }
+
+}
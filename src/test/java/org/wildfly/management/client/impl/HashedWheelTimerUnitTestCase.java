@@ -0,0 +1,124 @@
+package org.wildfly.management.client.impl;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Emanuel Muckenhuber
+ */
+public class HashedWheelTimerUnitTestCase {
+
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private HashedWheelTimer timer;
+
+    @Before
+    public void setUp() {
+        timer = new HashedWheelTimer("test-timer", 10, TimeUnit.MILLISECONDS, 8);
+    }
+
+    @After
+    public void tearDown() {
+        timer.stop();
+    }
+
+    @Test
+    public void testExpire() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final long start = System.nanoTime();
+        final HashedWheelTimer.Timeout timeout = timer.schedule(DIRECT, new CountDown(latch), 50, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        Assert.assertTrue(timeout.isExpired());
+        Assert.assertFalse(timeout.cancel());
+    }
+
+    @Test
+    public void testExpireAfterSeveralRounds() throws Exception {
+        // The delay spans more than a full rotation of the wheel
+        final CountDownLatch latch = new CountDownLatch(1);
+        final long start = System.nanoTime();
+        timer.schedule(DIRECT, new CountDown(latch), 250, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(250));
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        final AtomicInteger expired = new AtomicInteger();
+        final Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                expired.incrementAndGet();
+            }
+        };
+        final HashedWheelTimer.Timeout cancelled = timer.schedule(DIRECT, task, 20, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(cancelled.cancel());
+        Assert.assertFalse(cancelled.cancel());
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        timer.schedule(DIRECT, new CountDown(latch), 100, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(0, expired.get());
+        Assert.assertFalse(cancelled.isExpired());
+    }
+
+    @Test
+    public void testMaxDelay() throws Exception {
+        final AtomicInteger expired = new AtomicInteger();
+        final HashedWheelTimer.Timeout timeout = timer.schedule(DIRECT, new Runnable() {
+            @Override
+            public void run() {
+                expired.incrementAndGet();
+            }
+        }, Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        timer.schedule(DIRECT, new CountDown(latch), 100, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(0, expired.get());
+        Assert.assertFalse(timeout.isExpired());
+        Assert.assertTrue(timeout.cancel());
+    }
+
+    @Test
+    public void testManyTimeouts() throws Exception {
+        final int count = 10000;
+        final CountDownLatch latch = new CountDownLatch(count / 2);
+        for (int i = 0; i < count; i++) {
+            final HashedWheelTimer.Timeout timeout = timer.schedule(DIRECT, new CountDown(latch), 10 + i % 100, TimeUnit.MILLISECONDS);
+            // Cancel every other timeout, like requests completing in time
+            if (i % 2 == 0) {
+                timeout.cancel();
+            }
+        }
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    static class CountDown implements Runnable {
+
+        private final CountDownLatch latch;
+
+        CountDown(final CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        public void run() {
+            latch.countDown();
+        }
+    }
+
+}
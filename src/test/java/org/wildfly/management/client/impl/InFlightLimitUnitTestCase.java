@@ -0,0 +1,175 @@
+package org.wildfly.management.client.impl;
+
+import static org.wildfly.management.client.helpers.ClientConstants.NAME;
+import static org.wildfly.management.client.helpers.ClientConstants.OUTCOME;
+import static org.wildfly.management.client.helpers.ClientConstants.SUCCESS;
+import static org.wildfly.management.client.impl.StreamUtils.safeClose;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.wildfly.management.client.ManagementClientOptions;
+import org.wildfly.management.client.ManagementConnection;
+import org.wildfly.management.client.OperationStreamAttachments;
+import org.wildfly.management.client.OperationTemplate;
+import org.xnio.OptionMap;
+
+/**
+ * @author Emanuel Muckenhuber
+ */
+public class InFlightLimitUnitTestCase extends AbstractMgmtClientTestCase {
+
+    private static final int MAX_IN_FLIGHT = 2;
+
+    private final BlockingQueue<TestServer.TestMessageHandlerContext> pending = new LinkedBlockingQueue<>();
+    private final TestServer.AbstractMessageHandler handler = new TestServer.AbstractMessageHandler() {
+        @Override
+        public TestServer.TestMessageHandler handleMessage(DataInput dataInput, TestServer.TestMessageHandlerContext context) {
+            // Hold the response until the test releases it
+            pending.add(context);
+            return this;
+        }
+
+        @Override
+        public void writeMessage(DataOutput os) throws IOException {
+            final ModelNode response = new ModelNode();
+            response.get(OUTCOME).set(SUCCESS);
+            response.writeExternal(os);
+        }
+    };
+
+    @Before
+    public void setUpHandler() {
+        server.setInitialHandler(handler);
+    }
+
+    @Test
+    public void testTryExecute() throws Exception {
+        final ManagementConnection connection = openConnection(OptionMap.create(ManagementClientOptions.MAX_IN_FLIGHT_REQUESTS, MAX_IN_FLIGHT));
+        try {
+            final AsyncFuture<ModelNode> first = connection.tryExecuteAsync(createOperation());
+            final AsyncFuture<ModelNode> second = connection.tryExecuteAsync(createOperation());
+            Assert.assertNotNull(first);
+            Assert.assertNotNull(second);
+            // The limit is reached
+            Assert.assertNull(connection.tryExecuteAsync(createOperation()));
+            Assert.assertNull(connection.tryExecuteAsync(createOperation(), 100, TimeUnit.MILLISECONDS));
+
+            respond(1);
+            assertSuccess(first);
+            // The permit is released after the result is set, so allow some time to be admitted
+            final AsyncFuture<ModelNode> third = connection.tryExecuteAsync(createOperation(), 5, TimeUnit.SECONDS);
+            Assert.assertNotNull(third);
+
+            respond(2);
+            assertSuccess(second);
+            assertSuccess(third);
+        } finally {
+            safeClose(connection);
+        }
+    }
+
+    @Test
+    public void testExecuteBlocksAtLimit() throws Exception {
+        final OptionMap options = OptionMap.builder()
+                .set(ManagementClientOptions.MAX_IN_FLIGHT_REQUESTS, MAX_IN_FLIGHT)
+                .set(ManagementClientOptions.IN_FLIGHT_FAIR, true)
+                .getMap();
+        final ManagementConnection connection = openConnection(options);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final AsyncFuture<ModelNode> first = connection.executeAsync(createOperation());
+            final AsyncFuture<ModelNode> second = connection.executeAsync(createOperation());
+            final Future<AsyncFuture<ModelNode>> blocked = executor.submit(new Callable<AsyncFuture<ModelNode>>() {
+                @Override
+                public AsyncFuture<ModelNode> call() throws Exception {
+                    return connection.executeAsync(createOperation());
+                }
+            });
+            try {
+                blocked.get(200, TimeUnit.MILLISECONDS);
+                Assert.fail("execution should block while the limit is reached");
+            } catch (TimeoutException ok) {
+                //
+            }
+
+            respond(1);
+            assertSuccess(first);
+            final AsyncFuture<ModelNode> third = blocked.get(5, TimeUnit.SECONDS);
+
+            respond(2);
+            assertSuccess(second);
+            assertSuccess(third);
+        } finally {
+            executor.shutdownNow();
+            safeClose(connection);
+        }
+    }
+
+    @Test
+    public void testTryExecuteVariants() throws Exception {
+        final ManagementConnection connection = openConnection(OptionMap.create(ManagementClientOptions.MAX_IN_FLIGHT_REQUESTS, MAX_IN_FLIGHT));
+        try {
+            final OperationTemplate template = OperationTemplate.create(createOperation(), NAME);
+            final AsyncFuture<ModelNode> first = connection.tryExecuteAsync(template, new ModelNode("enabled"));
+            final AsyncFuture<ModelNode> second = connection.tryExecuteAsync(createOperation(), OperationStreamAttachments.NO_ATTACHMENTS);
+            Assert.assertNotNull(first);
+            Assert.assertNotNull(second);
+            // The limit is reached
+            Assert.assertNull(connection.tryExecuteAsync(template, new ModelNode("enabled")));
+            Assert.assertNull(connection.tryExecuteAsync(createOperation(), OperationStreamAttachments.NO_ATTACHMENTS));
+
+            respond(2);
+            assertSuccess(first);
+            assertSuccess(second);
+        } finally {
+            safeClose(connection);
+        }
+    }
+
+    @Test
+    public void testUnlimitedByDefault() throws Exception {
+        final ManagementConnection connection = openConnection();
+        try {
+            for (int i = 0; i < MAX_IN_FLIGHT * 2; i++) {
+                Assert.assertNotNull(connection.tryExecuteAsync(createOperation()));
+            }
+            respond(MAX_IN_FLIGHT * 2);
+        } finally {
+            safeClose(connection);
+        }
+    }
+
+    private void respond(final int count) throws InterruptedException {
+        for (int i = 0; i < count; i++) {
+            final TestServer.TestMessageHandlerContext context = pending.poll(5, TimeUnit.SECONDS);
+            Assert.assertNotNull(context);
+            context.sendResponse(handler);
+        }
+    }
+
+    static void assertSuccess(final AsyncFuture<ModelNode> future) throws Exception {
+        Assert.assertEquals(SUCCESS, future.get(5, TimeUnit.SECONDS).get(OUTCOME).asString());
+    }
+
+    static ModelNode createOperation() {
+        final ModelNode operation = new ModelNode();
+        operation.get("op").set("read-attribute");
+        return operation;
+    }
+
+}
@@ -0,0 +1,78 @@
+package org.wildfly.management.client.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wildfly.management.client.Notification;
+
+/**
+ * @author Emanuel Muckenhuber
+ */
+public class LazyNotificationUnitTestCase {
+
+    private static final ModelNode RESOURCE = new ModelNode().add("subsystem", "test");
+
+    @Test
+    public void testDecode() throws IOException {
+        final ModelNode data = new ModelNode();
+        data.get("string").set("value");
+        data.get("list").add(1).add(2L);
+        data.get("bytes").set(new byte[] { 1, 2, 3 });
+        final Notification original = new Notification("test", RESOURCE, "message", data);
+
+        final Notification notification = read(original.toModelNode());
+        Assert.assertEquals("test", notification.getType());
+        Assert.assertEquals(RESOURCE, notification.getResource());
+        Assert.assertEquals(original.getTimestamp(), notification.getTimestamp());
+        Assert.assertEquals("message", notification.getMessage());
+        Assert.assertEquals(data, notification.getData());
+        // Decoded only once
+        Assert.assertSame(notification.getData(), notification.getData());
+        Assert.assertEquals(original.toModelNode(), notification.toModelNode());
+    }
+
+    @Test
+    public void testNoData() throws IOException {
+        final Notification notification = read(new Notification("test", RESOURCE, "message").toModelNode());
+        Assert.assertNull(notification.getData());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testResourceProtected() throws IOException {
+        final Notification notification = read(new Notification("test", RESOURCE, "message").toModelNode());
+        notification.getResource().add("other", "value");
+    }
+
+    @Test
+    public void testUnknownFields() throws IOException {
+        final ModelNode node = new Notification("test", RESOURCE, "message").toModelNode().clone();
+        node.get("unknown", "nested").set("ignored");
+        final Notification notification = read(node);
+        Assert.assertEquals("message", notification.getMessage());
+    }
+
+    @Test(expected = IOException.class)
+    public void testMissingField() throws IOException {
+        final ModelNode node = new ModelNode();
+        node.get(Notification.TYPE).set("test");
+        node.get(Notification.RESOURCE).set(RESOURCE);
+        read(node);
+    }
+
+    private static Notification read(final ModelNode node) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        node.writeExternal(new DataOutputStream(bytes));
+        final DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        final Notification notification = LazyNotification.read(input);
+        // The whole notification needs to be consumed
+        Assert.assertEquals(-1, input.read());
+        return notification;
+    }
+
+}
@@ -0,0 +1,167 @@
+package org.wildfly.management.client.impl;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.wildfly.management.client.OperationStreamAttachments;
+
+/**
+ * @author Emanuel Muckenhuber
+ */
+public class ManagementRequestTableUnitTestCase {
+
+    @Test
+    public void testRegisterAndRemove() {
+        final ManagementRequestTable table = new ManagementRequestTable();
+        final TestRequest request = new TestRequest(1);
+        Assert.assertTrue(table.register(request));
+        Assert.assertSame(request, table.get(1));
+        Assert.assertNull(table.get(2));
+        Assert.assertSame(request, table.remove(1));
+        Assert.assertNull(table.get(1));
+        Assert.assertNull(table.remove(1));
+        Assert.assertEquals(0, table.size());
+    }
+
+    @Test
+    public void testSlotTaken() {
+        final ManagementRequestTable table = new ManagementRequestTable(64);
+        Assert.assertTrue(table.register(new TestRequest(1)));
+        // Same slot, different id
+        Assert.assertFalse(table.register(new TestRequest(65)));
+        Assert.assertNull(table.get(65));
+        Assert.assertNull(table.remove(65));
+        Assert.assertNotNull(table.get(1));
+    }
+
+    @Test
+    public void testResize() {
+        final ManagementRequestTable table = new ManagementRequestTable(64);
+        for (int i = 0; i < 10000; i++) {
+            Assert.assertTrue(table.register(new TestRequest(i)));
+        }
+        Assert.assertEquals(10000, table.size());
+        Assert.assertEquals(10000, table.values().size());
+        for (int i = 0; i < 10000; i++) {
+            Assert.assertEquals(i, table.get(i).getRequestId());
+            Assert.assertNotNull(table.remove(i));
+        }
+        Assert.assertEquals(0, table.size());
+    }
+
+    @Test
+    public void testIdWrapAround() {
+        final ManagementRequestTable table = new ManagementRequestTable();
+        final int first = Integer.MAX_VALUE - 2;
+        for (int i = 0; i < 8; i++) {
+            Assert.assertTrue(table.register(new TestRequest(first + i)));
+        }
+        for (int i = 0; i < 8; i++) {
+            Assert.assertEquals(first + i, table.remove(first + i).getRequestId());
+        }
+        Assert.assertEquals(0, table.size());
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        final ManagementRequestTable table = new ManagementRequestTable();
+        final AtomicInteger counter = new AtomicInteger();
+        final AtomicInteger failures = new AtomicInteger();
+        final int threads = 8;
+        final CountDownLatch latch = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        final TestRequest[] window = new TestRequest[512];
+                        for (int i = 0; i < 100000; i++) {
+                            final int slot = i % window.length;
+                            if (window[slot] != null && table.remove(window[slot].getRequestId()) != window[slot]) {
+                                failures.incrementAndGet();
+                            }
+                            TestRequest request;
+                            do {
+                                request = new TestRequest(counter.incrementAndGet());
+                            } while (!table.register(request));
+                            if (table.get(request.getRequestId()) != request) {
+                                failures.incrementAndGet();
+                            }
+                            window[slot] = request;
+                        }
+                        for (final TestRequest request : window) {
+                            if (table.remove(request.getRequestId()) != request) {
+                                failures.incrementAndGet();
+                            }
+                        }
+                    } finally {
+                        latch.countDown();
+                    }
+                }
+            }).start();
+        }
+        latch.await();
+        Assert.assertEquals(0, failures.get());
+        Assert.assertEquals(0, table.size());
+    }
+
+    static class TestRequest implements ManagementRequest {
+
+        private final int id;
+
+        TestRequest(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public OperationStreamAttachments getAttachments() {
+            return OperationStreamAttachments.NO_ATTACHMENTS;
+        }
+
+        @Override
+        public int getRequestId() {
+            return id;
+        }
+
+        @Override
+        public int getOperationId() {
+            return id;
+        }
+
+        @Override
+        public byte getRequestType() {
+            return 0;
+        }
+
+        @Override
+        public RequestHandler getRequestHandler() {
+            return null;
+        }
+
+        @Override
+        public void writeRequest(DataOutput output) throws IOException {
+            //
+        }
+
+        @Override
+        public void handleResponse(ManagementResponseHeader header, DataInput input) throws IOException {
+            //
+        }
+
+        @Override
+        public void handleFailure(IOException exception) {
+            //
+        }
+
+        @Override
+        public void asyncCancel() {
+            //
+        }
+    }
+
+}
@@ -0,0 +1,94 @@
+package org.wildfly.management.client.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wildfly.management.client.CompiledNotificationFilter;
+import org.wildfly.management.client.Notification;
+import org.wildfly.management.client.NotificationFilter;
+import org.wildfly.management.client.NotificationOverflowPolicy;
+
+/**
+ * @author Emanuel Muckenhuber
+ */
+public class NotificationIndexUnitTestCase {
+
+    private static final ModelNode SERVER_ONE = new ModelNode().add("host", "master").add("server", "one");
+    private static final ModelNode SERVER_TWO = new ModelNode().add("host", "master").add("server", "two");
+    private static final ModelNode ANY_SERVER = new ModelNode().add("host", "master").add("server", CompiledNotificationFilter.WILDCARD);
+
+    @Test
+    public void testFilter() {
+        final ModelNode data = new ModelNode();
+        data.get("name").set("enabled");
+        data.get("value").set(true);
+
+        final CompiledNotificationFilter filter = CompiledNotificationFilter.Builder.create()
+                .types("attribute-value-written")
+                .address(ANY_SERVER)
+                .dataEquals("name", new ModelNode("enabled"))
+                .dataDefined("value")
+                .build();
+        Assert.assertTrue(filter.isNotificationEnabled(new Notification("attribute-value-written", SERVER_ONE, "message", data)));
+        Assert.assertFalse(filter.isNotificationEnabled(new Notification("resource-added", SERVER_ONE, "message", data)));
+        Assert.assertFalse(filter.isNotificationEnabled(new Notification("attribute-value-written", new ModelNode().add("host", "master"), "message", data)));
+        Assert.assertFalse(filter.isNotificationEnabled(new Notification("attribute-value-written", SERVER_ONE, "message")));
+        final ModelNode other = data.clone();
+        other.get("name").set("disabled");
+        Assert.assertFalse(filter.isNotificationEnabled(new Notification("attribute-value-written", SERVER_ONE, "message", other)));
+    }
+
+    @Test
+    public void testCandidates() {
+        final NotificationIndex index = new NotificationIndex();
+        final NotificationQueue all = queue(NotificationFilter.ALL);
+        final NotificationQueue anyServer = queue(CompiledNotificationFilter.Builder.create().address(ANY_SERVER).build());
+        final NotificationQueue serverOne = queue(CompiledNotificationFilter.Builder.create().types("resource-added").address(SERVER_ONE).build());
+        final NotificationQueue removed = queue(CompiledNotificationFilter.Builder.create().types("resource-removed").build());
+        final NotificationQueue both = queue(CompiledNotificationFilter.Builder.create().address(SERVER_ONE).address(ANY_SERVER).build());
+        index.add(all);
+        index.add(anyServer);
+        index.add(serverOne);
+        index.add(removed);
+        index.add(both);
+
+        assertCandidates(index.candidates(new Notification("resource-added", SERVER_ONE, "message")), all, anyServer, serverOne, both);
+        assertCandidates(index.candidates(new Notification("resource-added", SERVER_TWO, "message")), all, anyServer, both);
+        assertCandidates(index.candidates(new Notification("resource-removed", new ModelNode(), "message")), all, removed);
+
+        Assert.assertTrue(index.remove(serverOne));
+        Assert.assertFalse(index.remove(serverOne));
+        assertCandidates(index.candidates(new Notification("resource-added", SERVER_ONE, "message")), all, anyServer, both);
+    }
+
+    @Test
+    public void testManyHandlers() {
+        final NotificationIndex index = new NotificationIndex();
+        final List<NotificationQueue> queues = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            final ModelNode address = new ModelNode().add("host", "master").add("server", "server-" + i);
+            final NotificationQueue queue = queue(CompiledNotificationFilter.Builder.create().types("type-" + (i % 10)).address(address).build());
+            queues.add(queue);
+            index.add(queue);
+        }
+        final ModelNode address = new ModelNode().add("host", "master").add("server", "server-42");
+        assertCandidates(index.candidates(new Notification("type-2", address, "message")), queues.get(42));
+        assertCandidates(index.candidates(new Notification("type-3", address, "message")));
+    }
+
+    private static void assertCandidates(final List<NotificationQueue> candidates, final NotificationQueue... expected) {
+        Assert.assertEquals(expected.length, candidates.size());
+        for (final NotificationQueue queue : expected) {
+            Assert.assertTrue(candidates.contains(queue));
+        }
+    }
+
+    private static NotificationQueue queue(final NotificationFilter filter) {
+        return new NotificationQueue(new NotificationQueueUnitTestCase.RecordingHandler(), filter,
+                new NotificationQueueUnitTestCase.ManualExecutor(), 16, NotificationOverflowPolicy.BLOCK);
+    }
+
+}
@@ -0,0 +1,248 @@
+package org.wildfly.management.client.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wildfly.management.client.CompiledNotificationFilter;
+import org.wildfly.management.client.Notification;
+import org.wildfly.management.client.NotificationFilter;
+import org.wildfly.management.client.NotificationHandler;
+import org.wildfly.management.client.NotificationOverflowPolicy;
+
+/**
+ * @author Emanuel Muckenhuber
+ */
+public class NotificationQueueUnitTestCase {
+
+    private static final ModelNode FIRST = new ModelNode().add("resource", "first");
+    private static final ModelNode SECOND = new ModelNode().add("resource", "second");
+
+    @Test
+    public void testOrderedBatches() throws Exception {
+        final ManualExecutor executor = new ManualExecutor();
+        final RecordingHandler handler = new RecordingHandler();
+        final NotificationQueue queue = new NotificationQueue(handler, NotificationFilter.ALL, executor, 1024, NotificationOverflowPolicy.BLOCK);
+        final List<Notification> notifications = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            final Notification notification = new Notification("test", FIRST, "message " + i);
+            notifications.add(notification);
+            queue.offer(notification);
+        }
+        // A single task drains the queue
+        Assert.assertEquals(1, executor.tasks.size());
+        executor.runNext();
+        Assert.assertEquals(NotificationQueue.MAX_BATCH, handler.received.size());
+        Assert.assertEquals(1, executor.tasks.size());
+        executor.runNext();
+        Assert.assertEquals(notifications, handler.received);
+        Assert.assertEquals(0, executor.tasks.size());
+    }
+
+    @Test
+    public void testDropOldest() throws Exception {
+        final ManualExecutor executor = new ManualExecutor();
+        final RecordingHandler handler = new RecordingHandler();
+        final NotificationQueue queue = new NotificationQueue(handler, NotificationFilter.ALL, executor, 2, NotificationOverflowPolicy.DROP_OLDEST);
+        final Notification first = new Notification("test", FIRST, "first");
+        final Notification second = new Notification("test", FIRST, "second");
+        final Notification third = new Notification("test", FIRST, "third");
+        queue.offer(first);
+        queue.offer(second);
+        queue.offer(third);
+        executor.runNext();
+        Assert.assertEquals(Arrays.asList(second, third), handler.received);
+    }
+
+    @Test
+    public void testCoalesce() throws Exception {
+        final ManualExecutor executor = new ManualExecutor();
+        final RecordingHandler handler = new RecordingHandler();
+        final NotificationQueue queue = new NotificationQueue(handler, NotificationFilter.ALL, executor, 2, NotificationOverflowPolicy.COALESCE);
+        final Notification first = new Notification("test", FIRST, "first");
+        final Notification second = new Notification("test", SECOND, "second");
+        final Notification third = new Notification("test", FIRST, "third");
+        queue.offer(first);
+        queue.offer(second);
+        queue.offer(third);
+        executor.runNext();
+        Assert.assertEquals(Arrays.asList(second, third), handler.received);
+    }
+
+    @Test
+    public void testBlock() throws Exception {
+        final ManualExecutor executor = new ManualExecutor();
+        final RecordingHandler handler = new RecordingHandler();
+        final NotificationQueue queue = new NotificationQueue(handler, NotificationFilter.ALL, executor, 1, NotificationOverflowPolicy.BLOCK);
+        final Notification first = new Notification("test", FIRST, "first");
+        final Notification second = new Notification("test", FIRST, "second");
+        queue.offer(first);
+        final CountDownLatch offered = new CountDownLatch(1);
+        final Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    queue.offer(second);
+                    offered.countDown();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+        thread.start();
+        Assert.assertFalse(offered.await(100, TimeUnit.MILLISECONDS));
+        executor.runNext();
+        Assert.assertTrue(offered.await(5, TimeUnit.SECONDS));
+        executor.runNext();
+        Assert.assertEquals(Arrays.asList(first, second), handler.received);
+    }
+
+    @Test
+    public void testInterruptedBlock() throws Exception {
+        final ManualExecutor executor = new ManualExecutor();
+        final RecordingHandler handler = new RecordingHandler();
+        final NotificationQueue queue = new NotificationQueue(handler, NotificationFilter.ALL, executor, 1, NotificationOverflowPolicy.BLOCK);
+        final Notification first = new Notification("test", FIRST, "first");
+        final Notification second = new Notification("test", FIRST, "second");
+        queue.offer(first);
+        final CountDownLatch offered = new CountDownLatch(1);
+        final AtomicBoolean interrupted = new AtomicBoolean();
+        final Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                queue.offer(second);
+                interrupted.set(Thread.currentThread().isInterrupted());
+                offered.countDown();
+            }
+        });
+        thread.start();
+        Assert.assertFalse(offered.await(100, TimeUnit.MILLISECONDS));
+        thread.interrupt();
+        // The oldest notification is discarded rather than failing the offer
+        Assert.assertTrue(offered.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(interrupted.get());
+        executor.runNext();
+        Assert.assertEquals(Arrays.asList(second), handler.received);
+    }
+
+    @Test
+    public void testDataPredicatesTestedOnDelivery() throws Exception {
+        final ManualExecutor executor = new ManualExecutor();
+        final RecordingHandler handler = new RecordingHandler();
+        final NotificationFilter filter = CompiledNotificationFilter.Builder.create()
+                .types("test")
+                .dataEquals("name", new ModelNode("value"))
+                .build();
+        final NotificationQueue queue = new NotificationQueue(handler, filter, executor, 16, NotificationOverflowPolicy.DROP_OLDEST);
+        final AtomicInteger decoded = new AtomicInteger();
+        final Notification matching = new CountingNotification("test", data("value"), decoded);
+        final Notification other = new CountingNotification("test", data("other"), decoded);
+        final Notification otherType = new CountingNotification("other", data("value"), decoded);
+        queue.offer(matching);
+        queue.offer(other);
+        queue.offer(otherType);
+        // Queuing only tests the type
+        Assert.assertEquals(0, decoded.get());
+        executor.runNext();
+        Assert.assertEquals(Arrays.asList(matching), handler.received);
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        final ManualExecutor executor = new ManualExecutor();
+        final RecordingHandler handler = new RecordingHandler();
+        final NotificationQueue queue = new NotificationQueue(handler, NotificationFilter.ALL, executor, 16, NotificationOverflowPolicy.BLOCK);
+        queue.offer(new Notification("test", FIRST, "first"));
+        queue.close();
+        queue.offer(new Notification("test", FIRST, "second"));
+        executor.runNext();
+        Assert.assertEquals(Collections.<Notification>emptyList(), handler.received);
+    }
+
+    @Test(timeout = 5000)
+    public void testRejectedBlock() throws Exception {
+        final AtomicBoolean reject = new AtomicBoolean(true);
+        final ManualExecutor executor = new ManualExecutor() {
+            @Override
+            public synchronized void execute(Runnable command) {
+                if (reject.get()) {
+                    throw new RejectedExecutionException();
+                }
+                super.execute(command);
+            }
+        };
+        final RecordingHandler handler = new RecordingHandler();
+        final NotificationQueue queue = new NotificationQueue(handler, NotificationFilter.ALL, executor, 1, NotificationOverflowPolicy.BLOCK);
+        // Rejected notifications are discarded, rather than blocking the next offer
+        queue.offer(new Notification("test", FIRST, "first"));
+        queue.offer(new Notification("test", FIRST, "second"));
+        reject.set(false);
+        final Notification third = new Notification("test", FIRST, "third");
+        queue.offer(third);
+        executor.runNext();
+        Assert.assertEquals(Collections.singletonList(third), handler.received);
+    }
+
+    private static ModelNode data(final String name) {
+        final ModelNode data = new ModelNode();
+        data.get("name").set(name);
+        return data;
+    }
+
+    static class CountingNotification extends Notification {
+
+        private final AtomicInteger decoded;
+
+        CountingNotification(final String type, final ModelNode data, final AtomicInteger decoded) {
+            super(type, FIRST, "message", data);
+            this.decoded = decoded;
+        }
+
+        @Override
+        public ModelNode getData() {
+            decoded.incrementAndGet();
+            return super.getData();
+        }
+    }
+
+    static class ManualExecutor implements Executor {
+
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public synchronized void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runNext() {
+            final Runnable task;
+            synchronized (this) {
+                task = tasks.poll();
+            }
+            task.run();
+        }
+    }
+
+    static class RecordingHandler implements NotificationHandler {
+
+        private final List<Notification> received = Collections.synchronizedList(new ArrayList<Notification>());
+
+        @Override
+        public void handleNotification(Notification notification) {
+            received.add(notification);
+        }
+    }
+
+}
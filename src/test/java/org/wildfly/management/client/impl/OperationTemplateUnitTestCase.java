@@ -0,0 +1,107 @@
+package org.wildfly.management.client.impl;
+
+import static org.wildfly.management.client.helpers.ClientConstants.OP_ADDR;
+import static org.wildfly.management.client.helpers.ClientConstants.OUTCOME;
+import static org.wildfly.management.client.helpers.ClientConstants.RESULT;
+import static org.wildfly.management.client.helpers.ClientConstants.SUCCESS;
+import static org.wildfly.management.client.helpers.ClientConstants.VALUE;
+import static org.wildfly.management.client.impl.StreamUtils.safeClose;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wildfly.management.client.ManagementConnection;
+import org.wildfly.management.client.OperationTemplate;
+import org.wildfly.management.client.helpers.Operations;
+
+/**
+ * @author Emanuel Muckenhuber
+ */
+public class OperationTemplateUnitTestCase extends AbstractMgmtClientTestCase {
+
+    private static final ModelNode ADDRESS = new ModelNode().add("subsystem", "test");
+    private static final ModelNode OTHER_ADDRESS = new ModelNode().add("subsystem", "other");
+
+    @Test
+    public void testEncoding() throws IOException {
+        final ModelNode operation = Operations.createWriteAttributeOperation(ADDRESS, "enabled", true);
+        operation.get("operation-headers", "rollback-on-runtime-failure").set(false);
+        final OperationTemplate template = OperationTemplate.create(operation, VALUE, OP_ADDR);
+        Assert.assertEquals(2, template.getParameterCount());
+
+        // The original values produce the original encoding
+        Assert.assertArrayEquals(encode(operation), encode(template, new ModelNode(true), ADDRESS));
+
+        final ModelNode expected = Operations.createWriteAttributeOperation(OTHER_ADDRESS, "enabled", false);
+        expected.get("operation-headers", "rollback-on-runtime-failure").set(false);
+        Assert.assertEquals(expected, template.toOperation(new ModelNode(false), OTHER_ADDRESS));
+        Assert.assertArrayEquals(encode(expected), encode(template, new ModelNode(false), OTHER_ADDRESS));
+    }
+
+    @Test
+    public void testAddedParameter() throws IOException {
+        final ModelNode operation = Operations.createOperation("test", ADDRESS);
+        final OperationTemplate template = OperationTemplate.create(operation, "extra");
+        final ModelNode expected = operation.clone();
+        expected.get("extra").set("value");
+        Assert.assertArrayEquals(encode(expected), encode(template, new ModelNode("value")));
+        // Unset parameters are undefined
+        expected.get("extra").set(new ModelNode());
+        Assert.assertArrayEquals(encode(expected), encode(template, (ModelNode) null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParameterCount() throws IOException {
+        encode(OperationTemplate.create(Operations.createOperation("test", ADDRESS), VALUE));
+    }
+
+    @Test
+    public void testExecute() throws Exception {
+        server.setInitialHandler(new TestServer.TestMessageHandler() {
+            @Override
+            public TestServer.TestMessageHandler handleMessage(DataInput dataInput, TestServer.TestMessageHandlerContext context) throws IOException {
+                StreamUtils.expectHeader(dataInput, ManagementProtocol.PARAM_OPERATION);
+                final ModelNode operation = new ModelNode();
+                operation.readExternal(dataInput);
+                final ModelNode response = new ModelNode();
+                response.get(OUTCOME).set(SUCCESS);
+                response.get(RESULT).set(operation);
+                context.sendResponse(new TestServer.TestMessageWriter() {
+                    @Override
+                    public void writeMessage(DataOutput os) throws IOException {
+                        response.writeExternal(os);
+                    }
+                });
+                return null;
+            }
+        });
+
+        final OperationTemplate template = OperationTemplate.create(Operations.createReadAttributeOperation(ADDRESS, "enabled"), OP_ADDR);
+        final ManagementConnection connection = openConnection();
+        try {
+            Assert.assertEquals(template.toOperation(ADDRESS), connection.execute(template, ADDRESS).get(RESULT));
+            Assert.assertEquals(template.toOperation(OTHER_ADDRESS), connection.executeAsync(template, OTHER_ADDRESS).get().get(RESULT));
+        } finally {
+            safeClose(connection);
+        }
+    }
+
+    private static byte[] encode(final ModelNode operation) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        operation.writeExternal(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encode(final OperationTemplate template, final ModelNode... values) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        template.writeExternal(new DataOutputStream(bytes), values);
+        return bytes.toByteArray();
+    }
+
+}
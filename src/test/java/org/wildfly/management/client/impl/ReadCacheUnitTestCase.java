@@ -0,0 +1,205 @@
+package org.wildfly.management.client.impl;
+
+import static org.wildfly.management.client.helpers.ClientConstants.OUTCOME;
+import static org.wildfly.management.client.helpers.ClientConstants.RESULT;
+import static org.wildfly.management.client.helpers.ClientConstants.SUCCESS;
+import static org.wildfly.management.client.impl.StreamUtils.safeClose;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wildfly.management.client.ManagementClientOptions;
+import org.wildfly.management.client.ManagementConnection;
+import org.wildfly.management.client.Notification;
+import org.wildfly.management.client.NotificationOverflowPolicy;
+import org.wildfly.management.client.helpers.Operations;
+import org.wildfly.management.client.helpers.ReadCache;
+import org.xnio.OptionMap;
+
+/**
+ * @author Emanuel Muckenhuber
+ */
+public class ReadCacheUnitTestCase extends AbstractMgmtClientTestCase {
+
+    private static final ModelNode ADDRESS = new ModelNode().add("subsystem", "test");
+    private static final ModelNode CHILD = new ModelNode().add("subsystem", "test").add("child", "one");
+
+    @Test
+    public void testCachedRead() throws Exception {
+        final CacheServerHandler handler = new CacheServerHandler();
+        server.setInitialHandler(handler);
+
+        final ManagementConnection connection = openConnection();
+        try {
+            final ReadCache cache = new ReadCache(connection, 1024 * 1024);
+            try {
+                final ModelNode operation = Operations.createReadResourceOperation(ADDRESS);
+                final ModelNode result = cache.execute(operation);
+                Assert.assertEquals(SUCCESS, result.get(OUTCOME).asString());
+                Assert.assertSame(result, cache.execute(operation));
+                Assert.assertEquals(1, handler.executed.get());
+
+                // Writes through the cache invalidate the address
+                cache.execute(Operations.createWriteAttributeOperation(CHILD, "attribute", "value"));
+                Assert.assertEquals(0, cache.size());
+                cache.execute(operation);
+                Assert.assertEquals(3, handler.executed.get());
+            } finally {
+                cache.close();
+            }
+        } finally {
+            safeClose(connection);
+        }
+    }
+
+    @Test
+    public void testNotificationInvalidation() throws Exception {
+        final CacheServerHandler handler = new CacheServerHandler();
+        server.setInitialHandler(handler);
+
+        final ManagementConnection connection = openConnection();
+        try {
+            final ReadCache cache = new ReadCache(connection, 1024 * 1024);
+            try {
+                final ModelNode operation = Operations.createReadAttributeOperation(CHILD, "attribute");
+                cache.execute(operation);
+                Assert.assertEquals(1, cache.size());
+
+                handler.sendNotification(new Notification("attribute-value-written", CHILD, "written"));
+                final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                while (cache.size() > 0 && System.nanoTime() < deadline) {
+                    Thread.sleep(10);
+                }
+                Assert.assertEquals(0, cache.size());
+                cache.execute(operation);
+                Assert.assertEquals(2, handler.executed.get());
+            } finally {
+                cache.close();
+            }
+        } finally {
+            safeClose(connection);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testInvalidationWithBlockingQueue() throws Exception {
+        final CacheServerHandler handler = new CacheServerHandler();
+        server.setInitialHandler(handler);
+
+        // A full queue blocks the channel reader, which must still read the unregister response
+        final OptionMap options = OptionMap.builder()
+                .set(ManagementClientOptions.NOTIFICATION_QUEUE_SIZE, 1)
+                .set(ManagementClientOptions.NOTIFICATION_OVERFLOW_POLICY, NotificationOverflowPolicy.BLOCK)
+                .getMap();
+        final ManagementConnection connection = openConnection(options);
+        try {
+            final ReadCache cache = new ReadCache(connection, 1024 * 1024);
+            try {
+                final ModelNode operation = Operations.createReadAttributeOperation(CHILD, "attribute");
+                cache.execute(operation);
+                for (int i = 0; i < 3; i++) {
+                    handler.sendNotification(new Notification("attribute-value-written", CHILD, "written " + i));
+                }
+                while (cache.size() > 0) {
+                    Thread.sleep(10);
+                }
+                cache.execute(operation);
+                Assert.assertEquals(2, handler.executed.get());
+            } finally {
+                cache.close();
+            }
+        } finally {
+            safeClose(connection);
+        }
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        final CacheServerHandler handler = new CacheServerHandler();
+        server.setInitialHandler(handler);
+
+        final ManagementConnection connection = openConnection();
+        try {
+            final ReadCache cache = new ReadCache(connection, 50);
+            try {
+                cache.execute(Operations.createReadAttributeOperation(CHILD, "first"));
+                cache.execute(Operations.createReadAttributeOperation(CHILD, "second"));
+                Assert.assertEquals(1, cache.size());
+                // The most recently used result is kept
+                cache.execute(Operations.createReadAttributeOperation(CHILD, "second"));
+                Assert.assertEquals(2, handler.executed.get());
+            } finally {
+                cache.close();
+            }
+        } finally {
+            safeClose(connection);
+        }
+    }
+
+    @Test
+    public void testFailedRead() throws Exception {
+        final CacheServerHandler handler = new CacheServerHandler();
+        handler.fail = true;
+        server.setInitialHandler(handler);
+
+        final ManagementConnection connection = openConnection();
+        try {
+            final ReadCache cache = new ReadCache(connection, 1024 * 1024);
+            try {
+                try {
+                    cache.execute(Operations.createReadResourceOperation(ADDRESS));
+                    Assert.fail();
+                } catch (IOException ok) {
+                    //
+                }
+                Assert.assertEquals(0, cache.size());
+                // The notification handler registered for the read is removed again
+                final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                while (handler.getListenerCount() > 0 && System.nanoTime() < deadline) {
+                    Thread.sleep(10);
+                }
+                Assert.assertEquals(0, handler.getListenerCount());
+            } finally {
+                cache.close();
+            }
+        } finally {
+            safeClose(connection);
+        }
+    }
+
+    static class CacheServerHandler extends BasicNotificationsUnitTestCase.ServerHandler {
+
+        private final AtomicInteger executed = new AtomicInteger();
+        private volatile boolean fail;
+
+        @Override
+        public TestServer.TestMessageHandler handleMessage(DataInput dataInput, TestServer.TestMessageHandlerContext context) throws IOException {
+            final ManagementProtocolHeader header = context.getRequestHeader();
+            if (header.getType() == ManagementProtocol.TYPE_REQUEST
+                    && ((ManagementRequestHeader) header).getOperationId() == ManagementProtocol.EXECUTE_ASYNC_CLIENT_REQUEST) {
+                if (fail) {
+                    ManagementClientChannelReceiver.safeWriteErrorResponse(context.getChannel(), header, new IOException("read failed"));
+                    return this;
+                }
+                final ModelNode response = new ModelNode();
+                response.get(OUTCOME).set(SUCCESS);
+                response.get(RESULT).set(executed.incrementAndGet());
+                context.sendResponse(new TestServer.TestMessageWriter() {
+                    @Override
+                    public void writeMessage(DataOutput os) throws IOException {
+                        response.writeExternal(os);
+                    }
+                });
+                return this;
+            }
+            return super.handleMessage(dataInput, context);
+        }
+    }
+
+}
@@ -0,0 +1,168 @@
+package org.wildfly.management.client.impl;
+
+import static org.wildfly.management.client.helpers.ClientConstants.OUTCOME;
+import static org.wildfly.management.client.helpers.ClientConstants.SUCCESS;
+import static org.wildfly.management.client.impl.StreamUtils.safeClose;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wildfly.management.client.ManagementClientOptions;
+import org.wildfly.management.client.ManagementConnection;
+import org.xnio.OptionMap;
+
+/**
+ * @author Emanuel Muckenhuber
+ */
+public class RequestTimeoutUnitTestCase extends AbstractMgmtClientTestCase {
+
+    @Test
+    public void testTimeoutCancelsRequest() throws Exception {
+        final CountDownLatch cancelled = new CountDownLatch(1);
+        server.setInitialHandler(new HangingHandler(cancelled));
+
+        final ManagementConnection connection = openConnection();
+        try {
+            final AsyncFuture<ModelNode> result = connection.executeAsync(InFlightLimitUnitTestCase.createOperation(), 200, TimeUnit.MILLISECONDS);
+            try {
+                result.get(5, TimeUnit.SECONDS);
+                Assert.fail();
+            } catch (ExecutionException ok) {
+                Assert.assertTrue(ok.getCause() instanceof IOException);
+            }
+            // The server received the cancellation
+            Assert.assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+        } finally {
+            safeClose(connection);
+        }
+    }
+
+    @Test
+    public void testDefaultTimeout() throws Exception {
+        final CountDownLatch cancelled = new CountDownLatch(1);
+        server.setInitialHandler(new HangingHandler(cancelled));
+
+        final ManagementConnection connection = openConnection(OptionMap.create(ManagementClientOptions.REQUEST_TIMEOUT, 200));
+        try {
+            connection.execute(InFlightLimitUnitTestCase.createOperation());
+            Assert.fail();
+        } catch (IOException ok) {
+            Assert.assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+        } finally {
+            safeClose(connection);
+        }
+    }
+
+    @Test
+    public void testCancelNeverAnswered() throws Exception {
+        final CountDownLatch received = new CountDownLatch(3);
+        server.setInitialHandler(new TestServer.TestMessageHandler() {
+            @Override
+            public TestServer.TestMessageHandler handleMessage(DataInput dataInput, TestServer.TestMessageHandlerContext context) {
+                // Respond to neither the operations nor the cancellation
+                received.countDown();
+                return this;
+            }
+        });
+
+        final ManagementConnection connection = openConnection(OptionMap.create(ManagementClientOptions.MAX_IN_FLIGHT_REQUESTS, 1));
+        try {
+            final AsyncFuture<ModelNode> result = connection.executeAsync(InFlightLimitUnitTestCase.createOperation(), 200, TimeUnit.MILLISECONDS);
+            try {
+                result.get(5, TimeUnit.SECONDS);
+                Assert.fail();
+            } catch (ExecutionException ok) {
+                Assert.assertTrue(ok.getCause() instanceof IOException);
+            }
+            // The expired request gave up its permit without waiting for the server
+            Assert.assertNotNull(connection.tryExecuteAsync(InFlightLimitUnitTestCase.createOperation(), 5, TimeUnit.SECONDS));
+            Assert.assertTrue(received.await(5, TimeUnit.SECONDS));
+        } finally {
+            safeClose(connection);
+        }
+    }
+
+    @Test
+    public void testCompletesBeforeTimeout() throws Exception {
+        server.setInitialHandler(new TestServer.AbstractMessageHandler() {
+            @Override
+            public TestServer.TestMessageHandler handleMessage(DataInput dataInput, TestServer.TestMessageHandlerContext context) {
+                context.sendResponse(this);
+                return this;
+            }
+
+            @Override
+            public void writeMessage(DataOutput os) throws IOException {
+                final ModelNode response = new ModelNode();
+                response.get(OUTCOME).set(SUCCESS);
+                response.writeExternal(os);
+            }
+        });
+
+        final ManagementConnection connection = openConnection(OptionMap.create(ManagementClientOptions.REQUEST_TIMEOUT, 5000));
+        try {
+            final ModelNode result = connection.execute(InFlightLimitUnitTestCase.createOperation(), 5, TimeUnit.SECONDS);
+            Assert.assertEquals(SUCCESS, result.get(OUTCOME).asString());
+            InFlightLimitUnitTestCase.assertSuccess(connection.executeAsync(InFlightLimitUnitTestCase.createOperation()));
+        } finally {
+            safeClose(connection);
+        }
+    }
+
+    /**
+     * Only responds to the operation once it is cancelled.
+     */
+    static class HangingHandler extends TestServer.AbstractMessageHandler {
+
+        private final CountDownLatch cancelled;
+
+        HangingHandler(final CountDownLatch cancelled) {
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        public TestServer.TestMessageHandler handleMessage(final DataInput dataInput, final TestServer.TestMessageHandlerContext context) {
+            final TestServer.TestMessageWriter writer = this;
+            context.executeAsync(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        cancelled.await();
+                    } catch (InterruptedException e) {
+                        e.printStackTrace();
+                    }
+                    context.sendResponse(writer);
+                }
+            });
+            return new TestServer.AbstractMessageHandler() {
+                @Override
+                public TestServer.TestMessageHandler handleMessage(DataInput dataInput, TestServer.TestMessageHandlerContext context) {
+                    context.sendResponse(this);
+                    cancelled.countDown();
+                    return null;
+                }
+
+                @Override
+                public void writeMessage(DataOutput os) throws IOException {
+                    //
+                }
+            };
+        }
+
+        @Override
+        public void writeMessage(DataOutput os) throws IOException {
+            final ModelNode response = new ModelNode();
+            response.get(OUTCOME).set("cancelled");
+            response.writeExternal(os);
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+package org.wildfly.management.client.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wildfly.management.client.ResponseProjection;
+
+/**
+ * @author Emanuel Muckenhuber
+ */
+public class ResponseProjectionUnitTestCase {
+
+    private static final ModelNode RESPONSE = StreamingResponseUnitTestCase.RESPONSE;
+
+    @Test
+    public void testSelectedPaths() throws IOException {
+        final ModelNode expected = new ModelNode();
+        expected.get("outcome").set("success");
+        expected.get("result", "int").set(1);
+        expected.get("result", "list").set(RESPONSE.get("result", "list"));
+        expected.get("result", "children", "child", "attribute").set("nested");
+
+        final ResponseProjection projection = ResponseProjection.of("outcome", "result.int", "result.list", "result.children.*.attribute");
+        Assert.assertEquals(expected, project(RESPONSE, projection));
+    }
+
+    @Test
+    public void testNothingSelected() throws IOException {
+        Assert.assertEquals(new ModelNode(), project(RESPONSE, ResponseProjection.of("missing")));
+    }
+
+    @Test
+    public void testWildcard() throws IOException {
+        Assert.assertEquals(RESPONSE.get("result"), project(RESPONSE, ResponseProjection.of("result.*")).get("result"));
+    }
+
+    @Test
+    public void testWildcardMergedWithSpecificKey() throws IOException {
+        final ModelNode response = new ModelNode();
+        response.get("result", "a", "value").set(1);
+        response.get("result", "a", "name").set("a");
+        response.get("result", "a", "other").set(true);
+        response.get("result", "b", "value").set(2);
+        response.get("result", "b", "name").set("b");
+
+        final ModelNode expected = new ModelNode();
+        expected.get("result", "a", "value").set(1);
+        expected.get("result", "a", "name").set("a");
+        expected.get("result", "b", "value").set(2);
+
+        final ResponseProjection projection = ResponseProjection.of("result.*.value", "result.a.name");
+        Assert.assertEquals(expected, project(response, projection));
+    }
+
+    private static ModelNode project(final ModelNode node, final ResponseProjection projection) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        node.writeExternal(new DataOutputStream(bytes));
+        final DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        final ModelNode projected = new ProjectionDecoder(projection).decode(input);
+        // Skipped nodes need to be consumed completely
+        Assert.assertEquals(-1, input.read());
+        return projected;
+    }
+
+}
@@ -0,0 +1,62 @@
+package org.wildfly.management.client.impl;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.wildfly.management.client.ManagementClient;
+import org.wildfly.management.client.ManagementClientOptions;
+import org.xnio.OptionMap;
+
+/**
+ * @author Emanuel Muckenhuber
+ */
+public class SharedEndpointUnitTestCase {
+
+    @Test
+    public void testSharedEndpoint() throws Exception {
+        final ManagementClientFactoryImpl factory = new ManagementClientFactoryImpl();
+        final ExecutorService executorService = Executors.newCachedThreadPool();
+        final OptionMap options = OptionMap.create(ManagementClientOptions.SHARED_ENDPOINT, true);
+        final ManagementClient first = factory.createClient(options);
+        final ManagementClient second = factory.createClient(executorService, options);
+        final ManagementClient other = factory.createClient(OptionMap.create(ManagementClientOptions.SHARED_ENDPOINT, true, ManagementClientOptions.MAX_THREADS, 4));
+        try {
+            // One endpoint per distinct set of options
+            Assert.assertEquals(2, SharedEndpoints.size());
+            first.close();
+            first.close();
+            assertEndpoints(2);
+            second.close();
+            assertEndpoints(1);
+            other.close();
+            assertEndpoints(0);
+        } finally {
+            StreamUtils.safeClose(first);
+            StreamUtils.safeClose(second);
+            StreamUtils.safeClose(other);
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testUnshared() throws Exception {
+        final ManagementClient client = new ManagementClientFactoryImpl().createClient(OptionMap.EMPTY);
+        try {
+            Assert.assertEquals(0, SharedEndpoints.size());
+        } finally {
+            client.close();
+        }
+    }
+
+    private static void assertEndpoints(final int expected) throws InterruptedException {
+        // Close handlers run asynchronously
+        final long end = System.currentTimeMillis() + 10000;
+        while (SharedEndpoints.size() != expected && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(expected, SharedEndpoints.size());
+    }
+
+}
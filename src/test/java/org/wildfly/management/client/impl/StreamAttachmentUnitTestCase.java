@@ -0,0 +1,104 @@
+package org.wildfly.management.client.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.wildfly.management.client.OperationStreamAttachments;
+
+/**
+ * @author Emanuel Muckenhuber
+ */
+public class StreamAttachmentUnitTestCase {
+
+    @Test
+    public void testFixedLengthBulkWrite() throws Exception {
+        final byte[] data = new byte[20000];
+        new Random().nextBytes(data);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final FixedLengthOutputStream os = new FixedLengthOutputStream(bytes, data.length);
+        os.write(data, 0, 8192);
+        os.write(data, 8192, data.length - 8192);
+        Assert.assertArrayEquals(data, bytes.toByteArray());
+        try {
+            os.write(0);
+            Assert.fail();
+        } catch (EOFException ok) {
+            //
+        }
+    }
+
+    @Test
+    public void testChunkedWrite() throws Exception {
+        final byte[] data = new byte[10000];
+        new Random().nextBytes(data);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final ChunkedOutputStream os = new ChunkedOutputStream(new DataOutputStream(bytes), data.length, 4096);
+        os.write(data[0]);
+        os.write(data, 1, 8191);
+        os.write(data, 8192, data.length - 8192);
+        try {
+            os.write(0);
+            Assert.fail();
+        } catch (EOFException ok) {
+            //
+        }
+        os.close();
+
+        final DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        final ByteArrayOutputStream received = new ByteArrayOutputStream();
+        int chunk;
+        while ((chunk = input.readInt()) > 0) {
+            Assert.assertTrue(chunk <= 4096);
+            final byte[] b = new byte[chunk];
+            input.readFully(b);
+            received.write(b);
+        }
+        Assert.assertEquals(-1, input.read());
+        Assert.assertArrayEquals(data, received.toByteArray());
+    }
+
+    @Test
+    public void testChunkedSizeMismatch() throws Exception {
+        final ChunkedOutputStream os = new ChunkedOutputStream(new DataOutputStream(new ByteArrayOutputStream()), 10);
+        os.write(new byte[5]);
+        try {
+            os.close();
+            Assert.fail();
+        } catch (IOException ok) {
+            //
+        }
+    }
+
+    @Test
+    public void testFileAttachment() throws Exception {
+        final byte[] data = new byte[200 * 1024 + 13];
+        new Random().nextBytes(data);
+        final File file = File.createTempFile("attachment", ".bin");
+        try {
+            final FileOutputStream fos = new FileOutputStream(file);
+            try {
+                fos.write(data);
+            } finally {
+                StreamUtils.safeClose(fos);
+            }
+            final OperationStreamAttachments.OperationStreamAttachment attachment = OperationStreamAttachments.Builder.create(file).build().getAttachment(0);
+            Assert.assertEquals(data.length, attachment.size());
+
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            attachment.writeTo(new FixedLengthOutputStream(bytes, attachment.size()));
+            Assert.assertArrayEquals(data, bytes.toByteArray());
+        } finally {
+            file.delete();
+        }
+    }
+
+}
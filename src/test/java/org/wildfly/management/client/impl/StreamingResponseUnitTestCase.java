@@ -0,0 +1,212 @@
+package org.wildfly.management.client.impl;
+
+import static org.wildfly.management.client.impl.StreamUtils.safeClose;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wildfly.management.client.ManagementConnection;
+import org.wildfly.management.client.ModelNodeStreamHandler;
+
+/**
+ * @author Emanuel Muckenhuber
+ */
+public class StreamingResponseUnitTestCase extends AbstractMgmtClientTestCase {
+
+    static final ModelNode RESPONSE;
+
+    static {
+        final ModelNode response = new ModelNode();
+        response.get("outcome").set("success");
+        final ModelNode result = response.get("result");
+        result.get("string").set("value");
+        result.get("int").set(1);
+        result.get("long").set(Long.MAX_VALUE);
+        result.get("boolean").set(true);
+        result.get("double").set(1.5d);
+        result.get("big-integer").set(new BigInteger("123456789012345678901234567890"));
+        result.get("big-decimal").set(new BigDecimal("1234567890.0987654321"));
+        result.get("bytes").set(new byte[]{1, 2, 3});
+        result.get("expression").setExpression("${test:default}");
+        result.get("type").set(ModelType.OBJECT);
+        result.get("undefined");
+        result.get("empty").setEmptyObject();
+        result.get("list").add("a").add(2).add("key", "value");
+        result.get("children", "child", "attribute").set("nested");
+        response.protect();
+        RESPONSE = response;
+    }
+
+    @Test
+    public void testDecodeEvents() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        RESPONSE.writeExternal(new DataOutputStream(bytes));
+
+        final DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        final ModelNode decoded = new ModelNodeStreamDecoder<>(new TreeBuilder()).decode(input);
+        Assert.assertEquals(-1, input.read());
+        Assert.assertEquals(RESPONSE, decoded);
+    }
+
+    @Test
+    public void testExecuteStreaming() throws Exception {
+        server.setInitialHandler(new TestServer.AbstractMessageHandler() {
+            @Override
+            public TestServer.TestMessageHandler handleMessage(DataInput dataInput, TestServer.TestMessageHandlerContext context) {
+                context.sendResponse(this);
+                return null;
+            }
+
+            @Override
+            public void writeMessage(DataOutput os) throws IOException {
+                RESPONSE.writeExternal(os);
+            }
+        });
+
+        final ManagementConnection connection = openConnection();
+        try {
+            final ModelNode operation = new ModelNode();
+            operation.get("op").set("read-resource");
+            Assert.assertEquals(RESPONSE, connection.executeStreaming(operation, new TreeBuilder()).get());
+        } finally {
+            safeClose(connection);
+        }
+    }
+
+    @Test
+    public void testFailingHandler() throws Exception {
+        server.setInitialHandler(new TestServer.AbstractMessageHandler() {
+            @Override
+            public TestServer.TestMessageHandler handleMessage(DataInput dataInput, TestServer.TestMessageHandlerContext context) {
+                context.sendResponse(this);
+                return this;
+            }
+
+            @Override
+            public void writeMessage(DataOutput os) throws IOException {
+                RESPONSE.writeExternal(os);
+            }
+        });
+
+        final ManagementConnection connection = openConnection();
+        try {
+            final ModelNode operation = new ModelNode();
+            operation.get("op").set("read-resource");
+            final Future<ModelNode> failing = connection.executeStreaming(operation, new TreeBuilder() {
+                @Override
+                public void key(String key) {
+                    throw new IllegalStateException(key);
+                }
+            });
+            // Sent after the failing request, so its response is received once the handler failed
+            final Future<ModelNode> concurrent = connection.executeAsync(operation);
+            try {
+                failing.get(5, TimeUnit.SECONDS);
+                Assert.fail();
+            } catch (ExecutionException e) {
+                // OK
+            }
+            Assert.assertEquals(RESPONSE, concurrent.get(5, TimeUnit.SECONDS));
+            Assert.assertEquals(RESPONSE, connection.execute(operation));
+        } finally {
+            safeClose(connection);
+        }
+    }
+
+    /**
+     * Rebuilds the model from the decoding events.
+     */
+    static class TreeBuilder implements ModelNodeStreamHandler<ModelNode> {
+
+        private final Deque<Frame> frames = new ArrayDeque<>();
+        private final Deque<String> keys = new ArrayDeque<>();
+        private ModelNode root;
+
+        @Override
+        public void startObject(int size) {
+            frames.push(new Frame(new ModelNode().setEmptyObject(), null));
+        }
+
+        @Override
+        public void key(String key) {
+            keys.push(key);
+        }
+
+        @Override
+        public void endObject() {
+            attach(frames.pop().node);
+        }
+
+        @Override
+        public void startList(int size) {
+            frames.push(new Frame(new ModelNode().setEmptyList(), null));
+        }
+
+        @Override
+        public void endList() {
+            attach(frames.pop().node);
+        }
+
+        @Override
+        public void startProperty(String name) {
+            frames.push(new Frame(new ModelNode(), name));
+        }
+
+        @Override
+        public void endProperty() {
+            final Frame frame = frames.pop();
+            attach(new ModelNode().set(frame.name, frame.node));
+        }
+
+        @Override
+        public void value(ModelNode value) {
+            attach(value);
+        }
+
+        @Override
+        public ModelNode complete() {
+            return root;
+        }
+
+        private void attach(final ModelNode node) {
+            final Frame frame = frames.peek();
+            if (frame == null) {
+                root = node;
+            } else if (frame.name != null) {
+                frame.node.set(node);
+            } else if (frame.node.getType() == ModelType.OBJECT) {
+                frame.node.get(keys.pop()).set(node);
+            } else {
+                frame.node.add(node);
+            }
+        }
+
+        static final class Frame {
+
+            final ModelNode node;
+            final String name;
+
+            Frame(final ModelNode node, final String name) {
+                this.node = node;
+                this.name = name;
+            }
+        }
+    }
+
+}
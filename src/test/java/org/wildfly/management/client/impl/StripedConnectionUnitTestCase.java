@@ -0,0 +1,80 @@
+package org.wildfly.management.client.impl;
+
+import static org.wildfly.management.client.helpers.ClientConstants.OUTCOME;
+import static org.wildfly.management.client.helpers.ClientConstants.SUCCESS;
+import static org.wildfly.management.client.impl.StreamUtils.safeClose;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.remoting3.Channel;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wildfly.management.client.ManagementClientOptions;
+import org.wildfly.management.client.ManagementConnection;
+import org.xnio.OptionMap;
+
+/**
+ * @author Emanuel Muckenhuber
+ */
+public class StripedConnectionUnitTestCase extends AbstractMgmtClientTestCase {
+
+    private static final int STRIPES = 4;
+    private static final int REQUESTS = 8;
+
+    @Test
+    public void testRequestsStripedAcrossChannels() throws Exception {
+        final Set<Channel> channels = Collections.newSetFromMap(new IdentityHashMap<Channel, Boolean>());
+        final List<TestServer.TestMessageHandlerContext> pending = new ArrayList<>();
+        final TestServer.AbstractMessageHandler handler = new TestServer.AbstractMessageHandler() {
+            @Override
+            public TestServer.TestMessageHandler handleMessage(DataInput dataInput, TestServer.TestMessageHandlerContext context) {
+                channels.add(context.getChannel());
+                pending.add(context);
+                // Respond once all requests are in-flight
+                if (pending.size() == REQUESTS) {
+                    for (final TestServer.TestMessageHandlerContext ctx : pending) {
+                        ctx.sendResponse(this);
+                    }
+                }
+                return this;
+            }
+
+            @Override
+            public void writeMessage(DataOutput os) throws IOException {
+                final ModelNode response = new ModelNode();
+                response.get(OUTCOME).set(SUCCESS);
+                response.writeExternal(os);
+            }
+        };
+        server.setInitialHandler(handler);
+
+        final ModelNode operation = new ModelNode();
+        operation.get("op").set("read-attribute");
+        final ManagementConnection connection = openConnection(OptionMap.create(ManagementClientOptions.CHANNEL_STRIPES, STRIPES));
+        try {
+            final List<Future<ModelNode>> futures = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                futures.add(connection.executeAsync(operation));
+            }
+            for (final Future<ModelNode> future : futures) {
+                Assert.assertEquals(SUCCESS, future.get(5, TimeUnit.SECONDS).get(OUTCOME).asString());
+            }
+            synchronized (server) {
+                Assert.assertEquals(STRIPES, channels.size());
+            }
+        } finally {
+            safeClose(connection);
+        }
+    }
+
+}